@@ -0,0 +1,121 @@
+package Domain;
+
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Everything that lives for one lint run: the classes being linted, the hierarchy index,
+ * the symbol table, and whatever caches or models the checks build along the way.
+ *
+ * Checks keep no state of their own. Anything they want to remember between classes goes
+ * into the context under a Key, so one check instance can be shared by several threads
+ * and reused for any number of runs, and everything it built is dropped with the context.
+ */
+public class AnalysisContext {
+
+    private final ClassHierarchyIndex hierarchy;
+    private final List<ClassNode> classNodes;
+    private final SymbolTable symbols = new SymbolTable();
+    private final ConcurrentHashMap<Key<?>, Object> attributes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key<?>, ConcurrentHashMap<Thread, Object>> perThread = new ConcurrentHashMap<>();
+
+    /**
+     * A context whose hierarchy index knows the classes of the run and looks everything
+     * else up on the system class loader.
+     */
+    public AnalysisContext(List<ClassNode> classNodes) {
+        this(ClassHierarchyIndex.getDefault(), classNodes);
+    }
+
+    /**
+     * A context whose hierarchy index knows the classes of the run and looks everything
+     * else up in the shared index.
+     */
+    public AnalysisContext(ClassHierarchyIndex shared, List<ClassNode> classNodes) {
+        this.hierarchy = new ClassHierarchyIndex(shared);
+        for (ClassNode classNode : classNodes) {
+            this.hierarchy.register(classNode);
+        }
+        this.classNodes = Collections.unmodifiableList(classNodes);
+    }
+
+    /**
+     * A context for running a check on a single class outside a Linter run.
+     */
+    public static AnalysisContext standalone(ClassNode classNode) {
+        return new AnalysisContext(List.of(classNode));
+    }
+
+    /**
+     * The index of this run: its own classes first, then the shared one.
+     */
+    public ClassHierarchyIndex getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * The names seen in this run, interned to IDs with their dotted and simple forms.
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Every class in this run, in the order they are linted.
+     */
+    public List<ClassNode> getClassNodes() {
+        return classNodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        return (T) attributes.get(key);
+    }
+
+    public <T> void put(Key<T> key, T value) {
+        attributes.put(key, value);
+    }
+
+    /**
+     * Returns the value for the key, creating it first if no thread has yet. The factory
+     * runs at most once per run and must not use the context itself.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(Key<T> key, Supplier<T> factory) {
+        return (T) attributes.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Like computeIfAbsent, but every thread gets its own value. Meant for helpers that
+     * are expensive to create but must not be shared between threads.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computePerThread(Key<T> key, Supplier<T> factory) {
+        ConcurrentHashMap<Thread, Object> values = perThread.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        return (T) values.computeIfAbsent(Thread.currentThread(), t -> factory.get());
+    }
+
+    /**
+     * Names a value in the context. Checks keep their keys in static final fields.
+     */
+    public static final class Key<T> {
+        private final String name;
+
+        private Key(String name) {
+            this.name = name;
+        }
+
+        public static <T> Key<T> of(String name) {
+            return new Key<>(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
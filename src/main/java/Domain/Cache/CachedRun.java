@@ -0,0 +1,340 @@
+package Domain.Cache;
+
+import Domain.AnalysisContext;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IStreamingCheck;
+import Domain.Interfaces.ISummarizingCheck;
+import Domain.Interfaces.ISummaryStore;
+import Domain.LintResult;
+import Domain.ParseRequirement;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One lint run against a ResultCache.
+ *
+ * Before the run it loads what is cached for every class, so the engine can parse each
+ * class with only what its missed checks need, and not at all when nothing is missed.
+ * During the run cacheable checks are wrapped: a hit replays the stored results without
+ * running the check, a miss runs it and remembers what it reported. Summarizing project
+ * checks get the stored summaries of their classes through the ISummaryStore the run
+ * puts in the context. save writes what is new back once the run is over.
+ */
+public class CachedRun implements ISummaryStore {
+
+    private final ResultCache cache;
+    private final List<ICheck> checks;
+    private final List<String> identities = new ArrayList<>();
+    private final Map<ICheck, String> summaryIdentities = new IdentityHashMap<>();
+    private final List<String> classHashes = new ArrayList<>();
+    private final List<Map<String, List<LintResult>>> hits = new ArrayList<>();
+    private final List<Map<String, byte[]>> storedSummaries = new ArrayList<>();
+    // the stored summaries that could be read back, by class and identity
+    private final List<Map<String, Object>> summaries = new ArrayList<>();
+    private final Map<ClassNode, Integer> classIndices = new ConcurrentHashMap<>();
+    private final Map<ClassNode, Map<String, List<LintResult>>> computed = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<String, byte[]>> madeSummaries = new ConcurrentHashMap<>();
+
+    public CachedRun(ResultCache cache, List<ICheck> checks, List<byte[]> classBytes) {
+        this.cache = cache;
+        this.checks = checks;
+        for (ICheck check : checks) {
+            identities.add(cache.identityOf(check));
+            if (check instanceof ISummarizingCheck) {
+                summaryIdentities.put(check, cache.summaryIdentityOf((ISummarizingCheck<?>) check));
+            }
+        }
+        for (byte[] bytes : classBytes) {
+            String hash = ResultCache.hash(bytes);
+            classHashes.add(hash);
+            ResultCache.Entry entry = cache.loadEntry(hash);
+            hits.add(entry.getResults());
+            storedSummaries.add(entry.getSummaries());
+            summaries.add(readSummaries(entry.getSummaries()));
+        }
+    }
+
+    /**
+     * Reads the stored summaries of the run's checks now, so a damaged one counts as a
+     * miss before the engine decides whether to parse the class.
+     */
+    private Map<String, Object> readSummaries(Map<String, byte[]> stored) {
+        Map<String, Object> read = new LinkedHashMap<>();
+        for (Map.Entry<ICheck, String> entry : summaryIdentities.entrySet()) {
+            byte[] bytes = stored.get(entry.getValue());
+            if (bytes == null) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                read.put(entry.getValue(), ((ISummarizingCheck<?>) entry.getKey()).readSummary(in));
+            } catch (IOException | RuntimeException e) {
+                // made again from the class and written over
+            }
+        }
+        return read;
+    }
+
+    /**
+     * The checks that have to run on the class because nothing is cached for them. A
+     * summarizing check with a stored summary of the class is not one of them: it only
+     * needs the class's name in execute.
+     */
+    public List<ICheck> getChecksToRun(int classIndex) {
+        List<ICheck> toRun = new ArrayList<>();
+        for (int c = 0; c < checks.size(); c++) {
+            ICheck check = checks.get(c);
+            String identity = identities.get(c);
+            String summaryIdentity = summaryIdentities.get(check);
+            if (summaryIdentity != null) {
+                if (!summaries.get(classIndex).containsKey(summaryIdentity)) {
+                    toRun.add(check);
+                }
+            } else if (identity == null || !hits.get(classIndex).containsKey(identity)) {
+                toRun.add(check);
+            }
+        }
+        return toRun;
+    }
+
+    /**
+     * Ties the node the engine will hand to the checks to the class it came from.
+     */
+    public void bind(int classIndex, ClassNode classNode) {
+        classIndices.put(classNode, classIndex);
+    }
+
+    /**
+     * The checks to run, in order, with the cacheable ones wrapped.
+     */
+    public List<ICheck> getChecks() {
+        List<ICheck> wrapped = new ArrayList<>();
+        for (int c = 0; c < checks.size(); c++) {
+            ICheck check = checks.get(c);
+            String identity = identities.get(c);
+            if (identity == null) {
+                wrapped.add(check);
+            } else if (check instanceof IInstructionCheck) {
+                wrapped.add(new CachingInstructionCheck((IInstructionCheck) check, identity));
+            } else {
+                wrapped.add(new CachingCheck(check, identity));
+            }
+        }
+        return wrapped;
+    }
+
+    public int getHitCount() {
+        int count = 0;
+        for (Map<String, List<LintResult>> classHits : hits) {
+            for (String identity : identities) {
+                if (identity != null && classHits.containsKey(identity)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S> S load(ISummarizingCheck<S> check, ClassNode classNode) {
+        Integer classIndex = classIndices.get(classNode);
+        String identity = summaryIdentities.get(check);
+        if (classIndex == null || identity == null) {
+            return null;
+        }
+        return (S) summaries.get(classIndex).get(identity);
+    }
+
+    @Override
+    public <S> void store(ISummarizingCheck<S> check, ClassNode classNode, S summary) {
+        Integer classIndex = classIndices.get(classNode);
+        String identity = summaryIdentities.get(check);
+        if (classIndex == null || identity == null) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            check.writeSummary(summary, out);
+        } catch (IOException e) {
+            // only left out of the cache
+            return;
+        }
+        madeSummaries.computeIfAbsent(classIndex, k -> new ConcurrentHashMap<>()).put(identity, bytes.toByteArray());
+    }
+
+    /**
+     * Writes the results and summaries made in this run back to the cache. A class that
+     * cannot be written is only left out of the cache; the run itself has already succeeded.
+     */
+    public void save() {
+        Map<Integer, Map<String, List<LintResult>>> computedByIndex = new LinkedHashMap<>();
+        for (Map.Entry<ClassNode, Map<String, List<LintResult>>> entry : computed.entrySet()) {
+            computedByIndex.put(classIndices.get(entry.getKey()), entry.getValue());
+        }
+        Set<Integer> changed = new HashSet<>(computedByIndex.keySet());
+        changed.addAll(madeSummaries.keySet());
+        for (int classIndex : changed) {
+            Map<String, List<LintResult>> merged = new LinkedHashMap<>(hits.get(classIndex));
+            merged.putAll(computedByIndex.getOrDefault(classIndex, Map.of()));
+            Map<String, byte[]> mergedSummaries = new LinkedHashMap<>(storedSummaries.get(classIndex));
+            mergedSummaries.putAll(madeSummaries.getOrDefault(classIndex, Map.of()));
+            try {
+                cache.store(classHashes.get(classIndex), merged, mergedSummaries);
+            } catch (IOException e) {
+                System.err.println("Could not write lint cache entry: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<LintResult> lookup(ClassNode classNode, String identity) {
+        Integer classIndex = classIndices.get(classNode);
+        return classIndex == null ? null : hits.get(classIndex).get(identity);
+    }
+
+    private void record(ClassNode classNode, String identity, List<LintResult> results) {
+        if (classIndices.containsKey(classNode)) {
+            computed.computeIfAbsent(classNode, k -> new ConcurrentHashMap<>())
+                    .put(identity, Collections.unmodifiableList(results));
+        }
+    }
+
+    /**
+     * Replays cached results for a check, or runs it and records what it reports.
+     */
+    private class CachingCheck implements IStreamingCheck {
+        final ICheck check;
+        final String identity;
+
+        CachingCheck(ICheck check, String identity) {
+            this.check = check;
+            this.identity = identity;
+        }
+
+        @Override
+        public void execute(ClassNode classNode, ILintResultSink sink) {
+            execute(classNode, AnalysisContext.standalone(classNode), sink);
+        }
+
+        @Override
+        public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+            List<LintResult> cached = lookup(classNode, identity);
+            if (cached != null) {
+                cached.forEach(sink::accept);
+                return;
+            }
+            List<LintResult> results = new ArrayList<>();
+            check.execute(classNode, context, result -> {
+                results.add(result);
+                sink.accept(result);
+            });
+            record(classNode, identity, results);
+        }
+
+        @Override
+        public String getName() {
+            return check.getName();
+        }
+
+        @Override
+        public Set<ParseRequirement> getParseRequirements() {
+            return check.getParseRequirements();
+        }
+
+        @Override
+        public String getCacheKey() {
+            return check.getCacheKey();
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return check.isThreadSafe();
+        }
+    }
+
+    /**
+     * The same for instruction checks, so a miss still shares the traversal with the other
+     * instruction checks and a hit drops out of it.
+     */
+    private final class CachingInstructionCheck extends CachingCheck implements IInstructionCheck {
+        private final IInstructionCheck instructionCheck;
+
+        CachingInstructionCheck(IInstructionCheck check, String identity) {
+            super(check, identity);
+            this.instructionCheck = check;
+        }
+
+        @Override
+        public void execute(ClassNode classNode, ILintResultSink sink) {
+            IInstructionCheck.super.execute(classNode, sink);
+        }
+
+        @Override
+        public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+            IInstructionCheck.super.execute(classNode, context, sink);
+        }
+
+        @Override
+        public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+            return beginClass(classNode, AnalysisContext.standalone(classNode), sink);
+        }
+
+        @Override
+        public IInstructionListener beginClass(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+            List<LintResult> cached = lookup(classNode, identity);
+            if (cached != null) {
+                cached.forEach(sink::accept);
+                return null;
+            }
+            List<LintResult> results = new ArrayList<>();
+            IInstructionListener listener = instructionCheck.beginClass(classNode, context, result -> {
+                results.add(result);
+                sink.accept(result);
+            });
+            if (listener == null) {
+                record(classNode, identity, results);
+                return null;
+            }
+            return new IInstructionListener() {
+                @Override
+                public void beginMethod(MethodNode method) {
+                    listener.beginMethod(method);
+                }
+
+                @Override
+                public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                    listener.visitInsn(method, insn);
+                }
+
+                @Override
+                public void endMethod(MethodNode method) {
+                    listener.endMethod(method);
+                }
+
+                @Override
+                public void endClass() {
+                    listener.endClass();
+                    record(classNode, identity, results);
+                }
+            };
+        }
+    }
+}
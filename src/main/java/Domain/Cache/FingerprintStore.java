@@ -0,0 +1,277 @@
+package Domain.Cache;
+
+import Domain.AnalysisContext;
+import Domain.Similarity.MethodFingerprint;
+import Domain.Similarity.OpcodeHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Method fingerprints and the similarities found between them, kept in one file between
+ * runs. The result cache skips classes that did not change; this store lets a class that
+ * did change skip the work for the methods that did not, since a fingerprint only depends
+ * on a method's opcodes and a similarity only on the two fingerprints.
+ *
+ * A similarity is stored with the threshold it was computed for: it is exact above that
+ * threshold and only known to be below it otherwise, so it answers any lookup for the same
+ * or a higher threshold. The file is read on first use, so a run in which every class hits
+ * the result cache never reads it. Safe for several threads.
+ */
+public class FingerprintStore {
+
+    public static final AnalysisContext.Key<FingerprintStore> KEY = AnalysisContext.Key.of("fingerprintStore");
+
+    /**
+     * Bump when the file layout or the fingerprint hash changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+    // beyond these, entries this run did not use are dropped on save
+    private static final int MAX_FINGERPRINTS = 1 << 18;
+    private static final int MAX_SIMILARITIES = 1 << 20;
+
+    private final Path file;
+    private final Map<Long, MethodFingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final Map<PairKey, Similarity> similarities = new ConcurrentHashMap<>();
+    private final Set<Long> usedFingerprints = ConcurrentHashMap.newKeySet();
+    private final Set<PairKey> usedSimilarities = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    private volatile boolean changed;
+
+    public FingerprintStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * The fingerprint of the sequence, the stored one when the same opcodes were seen
+     * before.
+     */
+    public MethodFingerprint fingerprint(int[] opcodes) {
+        load();
+        long hash = MethodFingerprint.hash(opcodes);
+        usedFingerprints.add(hash);
+        MethodFingerprint known = fingerprints.get(hash);
+        if (known != null) {
+            return known;
+        }
+        changed = true;
+        return fingerprints.computeIfAbsent(hash, h -> MethodFingerprint.of(opcodes));
+    }
+
+    /**
+     * The stored similarity of the two, or null when it has to be computed.
+     */
+    public Double getSimilarity(MethodFingerprint a, MethodFingerprint b, double threshold) {
+        load();
+        PairKey key = new PairKey(a.getHash(), b.getHash());
+        Similarity similarity = similarities.get(key);
+        if (similarity == null || similarity.threshold > threshold) {
+            return null;
+        }
+        usedSimilarities.add(key);
+        return similarity.value;
+    }
+
+    public void putSimilarity(MethodFingerprint a, MethodFingerprint b, double threshold, double value) {
+        load();
+        PairKey key = new PairKey(a.getHash(), b.getHash());
+        similarities.put(key, new Similarity(value, threshold));
+        usedSimilarities.add(key);
+        changed = true;
+    }
+
+    public int getFingerprintCount() {
+        load();
+        return fingerprints.size();
+    }
+
+    public int getSimilarityCount() {
+        load();
+        return similarities.size();
+    }
+
+    /**
+     * Writes the store back when this run added to it. A store that cannot be written is
+     * only left as it was; the run itself has already succeeded.
+     */
+    public void save() {
+        if (!changed) {
+            return;
+        }
+        try {
+            write();
+            changed = false;
+        } catch (IOException e) {
+            System.err.println("Could not write fingerprint store: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            try {
+                read();
+            } catch (NoSuchFileException e) {
+                // first run
+            } catch (IOException | IllegalArgumentException e) {
+                // damaged or from an older layout; it is rewritten after this run
+                fingerprints.clear();
+                similarities.clear();
+            }
+            loaded = true;
+        }
+    }
+
+    private void read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int fingerprintCount = in.readInt();
+            for (int i = 0; i < fingerprintCount; i++) {
+                long hash = in.readLong();
+                OpcodeHistogram histogram = OpcodeHistogram.readFrom(in);
+                long[] signature = null;
+                int signatureLength = in.readInt();
+                if (signatureLength < -1 || signatureLength > 1 << 16) {
+                    throw new IOException("Damaged signature");
+                }
+                if (signatureLength >= 0) {
+                    signature = new long[signatureLength];
+                    for (int k = 0; k < signatureLength; k++) {
+                        signature[k] = in.readLong();
+                    }
+                }
+                fingerprints.put(hash, new MethodFingerprint(hash, histogram, signature));
+            }
+            int similarityCount = in.readInt();
+            for (int i = 0; i < similarityCount; i++) {
+                PairKey key = new PairKey(in.readLong(), in.readLong());
+                similarities.put(key, new Similarity(in.readDouble(), in.readDouble()));
+            }
+        }
+    }
+
+    /**
+     * The file is written next to its final place and moved over it, so a reader never
+     * sees half a file.
+     */
+    private void write() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                List<Long> keptFingerprints = keep(fingerprints.keySet(), usedFingerprints, MAX_FINGERPRINTS);
+                out.writeInt(keptFingerprints.size());
+                for (long hash : keptFingerprints) {
+                    MethodFingerprint fingerprint = fingerprints.get(hash);
+                    out.writeLong(hash);
+                    fingerprint.getHistogram().writeTo(out);
+                    long[] signature = fingerprint.getSignature();
+                    out.writeInt(signature == null ? -1 : signature.length);
+                    if (signature != null) {
+                        for (long value : signature) {
+                            out.writeLong(value);
+                        }
+                    }
+                }
+                List<PairKey> keptSimilarities = keep(similarities.keySet(), usedSimilarities, MAX_SIMILARITIES);
+                out.writeInt(keptSimilarities.size());
+                for (PairKey key : keptSimilarities) {
+                    Similarity similarity = similarities.get(key);
+                    out.writeLong(key.first);
+                    out.writeLong(key.second);
+                    out.writeDouble(similarity.value);
+                    out.writeDouble(similarity.threshold);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // everything used in this run, then older entries while there is room
+    private static <K> List<K> keep(Set<K> all, Set<K> used, int max) {
+        List<K> kept = new ArrayList<>();
+        for (K key : all) {
+            if (used.contains(key)) {
+                kept.add(key);
+            }
+        }
+        for (K key : all) {
+            if (kept.size() >= max) {
+                break;
+            }
+            if (!used.contains(key)) {
+                kept.add(key);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Two fingerprint hashes in ascending order, since similarity is symmetric.
+     */
+    private static final class PairKey {
+        final long first;
+        final long second;
+
+        PairKey(long a, long b) {
+            this.first = Math.min(a, b);
+            this.second = Math.max(a, b);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PairKey)) {
+                return false;
+            }
+            PairKey pair = (PairKey) other;
+            return first == pair.first && second == pair.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(first * 31 + second);
+        }
+    }
+
+    private static final class Similarity {
+        final double value;
+        final double threshold;
+
+        Similarity(double value, double threshold) {
+            this.value = value;
+            this.threshold = threshold;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package Domain.Cache;
+
+import Domain.Category;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IProjectCheck;
+import Domain.Interfaces.ISummarizingCheck;
+import Domain.LintResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lint results kept on disk between runs, keyed by the SHA-256 of a class file.
+ *
+ * Each class gets one file holding the results of every check that has run on it, and the
+ * summaries project checks made of it. Inside the file both are keyed by the check's
+ * identity: its cache key, or its class name for a summary, the hash of its own class
+ * file, and the hash of the linter build. A check calls into shared code, so a change to
+ * any class of the linter, not just to the check itself, makes the old entries
+ * unreachable. An unreadable or outdated file counts as a miss.
+ */
+public class ResultCache {
+
+    /**
+     * Bump when the file layout or LintResult changes.
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path directory;
+    private final String buildHash;
+    private final Map<Class<?>, String> checkHashes = new ConcurrentHashMap<>();
+
+    public ResultCache(Path directory) {
+        this.directory = directory;
+        this.buildHash = hashCodeSource(ResultCache.class);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The method fingerprint store that lives next to the results.
+     */
+    public FingerprintStore openFingerprintStore() {
+        return new FingerprintStore(directory.resolve("fingerprints.bin"));
+    }
+
+    /**
+     * The identity results of this check are stored under, or null if they must not be
+     * cached.
+     */
+    public String identityOf(ICheck check) {
+        if (check instanceof IProjectCheck) {
+            return null;
+        }
+        String key = check.getCacheKey();
+        if (key == null) {
+            return null;
+        }
+        return key + "@" + checkHashes.computeIfAbsent(check.getClass(), ResultCache::hashClassFile)
+                + "@" + buildHash;
+    }
+
+    /**
+     * The identity the summaries of this check are stored under. Unlike results they only
+     * depend on the class they were made from.
+     */
+    public String summaryIdentityOf(ISummarizingCheck<?> check) {
+        return check.getClass().getName() + "@" + checkHashes.computeIfAbsent(check.getClass(), ResultCache::hashClassFile)
+                + "@" + buildHash;
+    }
+
+    /**
+     * The cached results for the class, by check identity. Empty when nothing is cached.
+     */
+    public Map<String, List<LintResult>> load(String classHash) {
+        return loadEntry(classHash).getResults();
+    }
+
+    /**
+     * The cached results and summaries of the class. Empty when nothing is cached.
+     */
+    public Entry loadEntry(String classHash) {
+        Map<String, List<LintResult>> entries = new LinkedHashMap<>();
+        Map<String, byte[]> summaries = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fileFor(classHash))))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return new Entry(entries, summaries);
+            }
+            int checkCount = in.readInt();
+            for (int i = 0; i < checkCount; i++) {
+                String identity = readString(in);
+                int resultCount = in.readInt();
+                List<LintResult> results = new ArrayList<>(resultCount);
+                for (int j = 0; j < resultCount; j++) {
+                    results.add(new LintResult(readString(in), Category.valueOf(in.readUTF()),
+                            readString(in), readString(in)));
+                }
+                entries.put(identity, results);
+            }
+            int summaryCount = in.readInt();
+            for (int i = 0; i < summaryCount; i++) {
+                String identity = readString(in);
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Damaged summary");
+                }
+                byte[] summary = new byte[length];
+                in.readFully(summary);
+                summaries.put(identity, summary);
+            }
+            return new Entry(entries, summaries);
+        } catch (NoSuchFileException e) {
+            return new Entry(entries, summaries);
+        } catch (IOException | IllegalArgumentException e) {
+            // damaged or from an older layout; it is rewritten after this run
+            return new Entry(new LinkedHashMap<>(), new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Replaces the cached results of the class, without any summaries.
+     */
+    public void store(String classHash, Map<String, List<LintResult>> entries) throws IOException {
+        store(classHash, entries, Map.of());
+    }
+
+    /**
+     * Replaces the cached results and summaries of the class. The file is written next to
+     * its final place and moved over it, so a reader never sees half a file.
+     */
+    public void store(String classHash, Map<String, List<LintResult>> entries, Map<String, byte[]> summaries)
+            throws IOException {
+        Path file = fileFor(classHash);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), classHash, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, List<LintResult>> entry : entries.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (LintResult result : entry.getValue()) {
+                        writeString(out, result.getCheckName());
+                        out.writeUTF(result.getCategory().name());
+                        writeString(out, result.getLocation());
+                        writeString(out, result.getMessage());
+                    }
+                }
+                out.writeInt(summaries.size());
+                for (Map.Entry<String, byte[]> entry : summaries.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hex SHA-256 of a class file.
+     */
+    public static String hash(byte[] classBytes) {
+        return toHex(sha256().digest(classBytes));
+    }
+
+    private Path fileFor(String classHash) {
+        // two-level layout keeps directories small on big projects
+        return directory.resolve(classHash.substring(0, 2)).resolve(classHash + ".results");
+    }
+
+    private static String hashClassFile(Class<?> type) {
+        String resource = type.getName().replace('.', '/') + ".class";
+        ClassLoader loader = type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            return in == null ? "unknown" : hash(in.readAllBytes());
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Hash of the JAR or class directory the type was loaded from: the file itself for a
+     * JAR, every class file with its relative path for a directory.
+     */
+    private static String hashCodeSource(Class<?> type) {
+        try {
+            CodeSource source = type.getProtectionDomain().getCodeSource();
+            if (source == null || source.getLocation() == null) {
+                return "unknown";
+            }
+            Path location = Paths.get(source.getLocation().toURI());
+            MessageDigest digest = sha256();
+            if (Files.isDirectory(location)) {
+                List<Path> classFiles;
+                try (Stream<Path> files = Files.walk(location)) {
+                    classFiles = files.filter(p -> p.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+                }
+                for (Path file : classFiles) {
+                    digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } else {
+                digest.update(Files.readAllBytes(location));
+            }
+            return toHex(digest.digest());
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return "unknown";
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * What is cached for one class: results and summaries, each by check identity.
+     */
+    public static final class Entry {
+        private final Map<String, List<LintResult>> results;
+        private final Map<String, byte[]> summaries;
+
+        Entry(Map<String, List<LintResult>> results, Map<String, byte[]> summaries) {
+            this.results = results;
+            this.summaries = summaries;
+        }
+
+        public Map<String, List<LintResult>> getResults() {
+            return results;
+        }
+
+        public Map<String, byte[]> getSummaries() {
+            return summaries;
+        }
+    }
+
+    // length-prefixed UTF-8, -1 for null; writeUTF cannot take strings over 64 KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
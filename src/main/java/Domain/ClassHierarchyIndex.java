@@ -0,0 +1,269 @@
+package Domain;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supertypes, access flags and member signatures of classes, read from class headers the
+ * first time a class is asked for and shared by every check after that.
+ *
+ * There are two kinds. A loader-backed index reads classes through a class loader and can
+ * be shared by any number of runs, since what a loader returns does not change. A run
+ * index holds the classes of one run, registered from their parsed nodes, and asks its
+ * parent for everything else; the run's own classes therefore win over any class of the
+ * same name on the classpath, and are dropped with the run.
+ *
+ * Classes are looked up by internal name (java/util/ArrayList). Lookups are safe from
+ * several threads at once; two threads asking for the same unknown class may both read
+ * it, but only one copy is kept. Classes that cannot be found are remembered too, so a
+ * missing class is only searched for once.
+ */
+public class ClassHierarchyIndex {
+
+    private static final ClassHierarchyIndex DEFAULT = new ClassHierarchyIndex(ClassLoader.getSystemClassLoader());
+
+    private static final TypeInfo MISSING = new TypeInfo(null, null, Collections.emptyList(), 0,
+            Collections.emptyList(), Collections.emptyList());
+
+    private static final int HEADER_FLAGS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private final ClassLoader loader;
+    private final ClassHierarchyIndex parent;
+    private final ConcurrentHashMap<String, TypeInfo> types = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> superInterfaces = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> allInterfaces = new ConcurrentHashMap<>();
+
+    /**
+     * An index that reads every class it is asked for through the loader.
+     */
+    public ClassHierarchyIndex(ClassLoader loader) {
+        this.loader = loader;
+        this.parent = null;
+    }
+
+    /**
+     * An index for one run: classes registered with it come first, and everything else is
+     * looked up in the parent.
+     */
+    public ClassHierarchyIndex(ClassHierarchyIndex parent) {
+        this.loader = null;
+        this.parent = parent;
+    }
+
+    /**
+     * The shared index over the system class loader. Runs use it as the parent of their
+     * own index; nothing is registered with it.
+     */
+    public static ClassHierarchyIndex getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Adds a class of the run that has already been parsed. It replaces whatever the index
+     * or its parent knew under that name. Register the classes before the first lookup;
+     * the interface sets are cached as they are computed.
+     */
+    public void register(ClassNode classNode) {
+        if (parent == null) {
+            throw new IllegalStateException("Classes are registered with a run index, not a loader-backed one");
+        }
+        if (classNode != null && classNode.name != null) {
+            types.put(classNode.name, TypeInfo.from(classNode));
+        }
+    }
+
+    /**
+     * The header of the class, or null if it cannot be found.
+     */
+    public TypeInfo get(String internalName) {
+        if (internalName == null) {
+            return null;
+        }
+        TypeInfo info = types.get(internalName);
+        if (info == null && parent != null) {
+            return parent.get(internalName);
+        }
+        if (info == null) {
+            // read outside the map so a slow read does not block lookups of other classes
+            TypeInfo loaded = load(internalName);
+            info = types.putIfAbsent(internalName, loaded);
+            if (info == null) {
+                info = loaded;
+            }
+        }
+        return info == MISSING ? null : info;
+    }
+
+    /**
+     * Every interface the interface extends, directly or indirectly, not including itself.
+     */
+    public Set<String> getSuperInterfaces(String interfaceName) {
+        Set<String> cached = superInterfaces.get(interfaceName);
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<String> out = new HashSet<>();
+        TypeInfo info = get(interfaceName);
+        if (info != null) {
+            for (String sup : info.getInterfaces()) {
+                if (out.add(sup)) {
+                    out.addAll(getSuperInterfaces(sup));
+                }
+            }
+        }
+
+        out = Collections.unmodifiableSet(out);
+        Set<String> raced = superInterfaces.putIfAbsent(interfaceName, out);
+        return raced != null ? raced : out;
+    }
+
+    /**
+     * Every interface the type implements, including the ones it gets from its
+     * superclasses and the ones those interfaces extend.
+     */
+    public Set<String> getAllInterfaces(String internalName) {
+        Set<String> cached = allInterfaces.get(internalName);
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<String> out = new HashSet<>();
+        TypeInfo info = get(internalName);
+        if (info != null) {
+            for (String itf : info.getInterfaces()) {
+                out.add(itf);
+                out.addAll(getSuperInterfaces(itf));
+            }
+            String sup = info.getSuperName();
+            if (sup != null && !"java/lang/Object".equals(sup)) {
+                out.addAll(getAllInterfaces(sup));
+            }
+        }
+
+        out = Collections.unmodifiableSet(out);
+        Set<String> raced = allInterfaces.putIfAbsent(internalName, out);
+        return raced != null ? raced : out;
+    }
+
+    private TypeInfo load(String internalName) {
+        try (InputStream in = loader.getResourceAsStream(internalName + ".class")) {
+            if (in == null) {
+                return MISSING;
+            }
+            ClassNode classNode = new ClassNode();
+            new ClassReader(in).accept(classNode, HEADER_FLAGS);
+            return TypeInfo.from(classNode);
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * What the index keeps of a class: its header and the signatures of its members.
+     */
+    public static final class TypeInfo {
+        private final String name;
+        private final String superName;
+        private final List<String> interfaces;
+        private final int access;
+        private final List<MemberInfo> methods;
+        private final List<MemberInfo> fields;
+
+        private TypeInfo(String name, String superName, List<String> interfaces, int access,
+                         List<MemberInfo> methods, List<MemberInfo> fields) {
+            this.name = name;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.access = access;
+            this.methods = methods;
+            this.fields = fields;
+        }
+
+        static TypeInfo from(ClassNode classNode) {
+            List<String> interfaces = new ArrayList<>();
+            if (classNode.interfaces != null) {
+                for (String itf : classNode.interfaces) {
+                    if (itf != null) interfaces.add(itf);
+                }
+            }
+            List<MemberInfo> methods = new ArrayList<>();
+            if (classNode.methods != null) {
+                for (MethodNode method : classNode.methods) {
+                    methods.add(new MemberInfo(method.name, method.desc, method.access));
+                }
+            }
+            List<MemberInfo> fields = new ArrayList<>();
+            if (classNode.fields != null) {
+                for (FieldNode field : classNode.fields) {
+                    fields.add(new MemberInfo(field.name, field.desc, field.access));
+                }
+            }
+            return new TypeInfo(classNode.name, classNode.superName,
+                    Collections.unmodifiableList(interfaces), classNode.access,
+                    Collections.unmodifiableList(methods), Collections.unmodifiableList(fields));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSuperName() {
+            return superName;
+        }
+
+        public List<String> getInterfaces() {
+            return interfaces;
+        }
+
+        public int getAccess() {
+            return access;
+        }
+
+        public List<MemberInfo> getMethods() {
+            return methods;
+        }
+
+        public List<MemberInfo> getFields() {
+            return fields;
+        }
+    }
+
+    /**
+     * Name, descriptor and access flags of a method or field.
+     */
+    public static final class MemberInfo {
+        private final String name;
+        private final String desc;
+        private final int access;
+
+        MemberInfo(String name, String desc, int access) {
+            this.name = name;
+            this.desc = desc;
+            this.access = access;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDesc() {
+            return desc;
+        }
+
+        public int getAccess() {
+            return access;
+        }
+    }
+}
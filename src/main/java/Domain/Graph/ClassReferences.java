@@ -0,0 +1,220 @@
+package Domain.Graph;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything of one class that can become an edge of a DependencyGraph: its name, and
+ * every class it refers to in edge order, whether or not that class is in the project.
+ * It depends on the class alone, so it can be kept with the hash of the class file and
+ * the graph built again without parsing the class.
+ */
+public final class ClassReferences {
+
+    private static final DependencyGraph.EdgeType[] EDGE_TYPES = DependencyGraph.EdgeType.values();
+
+    private final String name;
+    private final String[] targets;
+    private final byte[] types;
+    // for field references the field, for calls the calling method and the method called
+    private final String[] members;
+    private final String[] callees;
+
+    private ClassReferences(String name, String[] targets, byte[] types, String[] members, String[] callees) {
+        this.name = name;
+        this.targets = targets;
+        this.types = types;
+        this.members = members;
+        this.callees = callees;
+    }
+
+    /**
+     * The references of the class: supertypes other than Object, then the object types of
+     * its fields, then the owners of the methods it calls, in the order they appear.
+     */
+    public static ClassReferences of(ClassNode classNode) {
+        List<String> targets = new ArrayList<>();
+        List<DependencyGraph.EdgeType> types = new ArrayList<>();
+        List<String> members = new ArrayList<>();
+        List<String> callees = new ArrayList<>();
+        if (classNode.name != null) {
+            // every class extends Object, which says nothing about its dependencies
+            if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
+                add(targets, types, members, callees, classNode.superName, DependencyGraph.EdgeType.SUPERTYPE, null, null);
+            }
+            if (classNode.interfaces != null) {
+                for (String iface : classNode.interfaces) {
+                    add(targets, types, members, callees, iface, DependencyGraph.EdgeType.SUPERTYPE, null, null);
+                }
+            }
+            if (classNode.fields != null) {
+                for (FieldNode field : classNode.fields) {
+                    String desc = field.desc;
+                    // object types only; arrays and primitives do not count
+                    if (desc != null && desc.length() > 2 && desc.charAt(0) == 'L' && desc.endsWith(";")) {
+                        add(targets, types, members, callees, desc.substring(1, desc.length() - 1),
+                                DependencyGraph.EdgeType.FIELD, field.name, null);
+                    }
+                }
+            }
+            if (classNode.methods != null) {
+                for (MethodNode method : classNode.methods) {
+                    if (method.instructions == null) {
+                        continue;
+                    }
+                    for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                        if (insn instanceof MethodInsnNode) {
+                            MethodInsnNode call = (MethodInsnNode) insn;
+                            add(targets, types, members, callees, call.owner, DependencyGraph.EdgeType.CALL,
+                                    method.name, call.name);
+                        }
+                    }
+                }
+            }
+        }
+        byte[] typeCodes = new byte[types.size()];
+        for (int i = 0; i < typeCodes.length; i++) {
+            typeCodes[i] = (byte) types.get(i).ordinal();
+        }
+        return new ClassReferences(classNode.name, targets.toArray(new String[0]), typeCodes,
+                members.toArray(new String[0]), callees.toArray(new String[0]));
+    }
+
+    private static void add(List<String> targets, List<DependencyGraph.EdgeType> types, List<String> members,
+                            List<String> callees, String target, DependencyGraph.EdgeType type,
+                            String member, String callee) {
+        targets.add(target);
+        types.add(type);
+        members.add(member);
+        callees.add(callee);
+    }
+
+    /**
+     * The internal name of the class; null for a class without a name, which has no
+     * references.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * The internal name of the class the reference goes to.
+     */
+    public String getTarget(int reference) {
+        return targets[reference];
+    }
+
+    public DependencyGraph.EdgeType getType(int reference) {
+        return EDGE_TYPES[types[reference]];
+    }
+
+    /**
+     * The field of a field reference or the calling method of a call; null for supertypes.
+     */
+    public String getMember(int reference) {
+        return members[reference];
+    }
+
+    /**
+     * The method called by a call; null for other references.
+     */
+    public String getCallee(int reference) {
+        return callees[reference];
+    }
+
+    /**
+     * Writes the references with each distinct string once, since the same owners and
+     * methods come up again and again. Names in a class file fit in writeUTF.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] targetIds = new int[size()];
+        int[] memberIds = new int[size()];
+        int[] calleeIds = new int[size()];
+        int nameId = intern(ids, strings, name);
+        for (int i = 0; i < size(); i++) {
+            targetIds[i] = intern(ids, strings, targets[i]);
+            memberIds[i] = intern(ids, strings, members[i]);
+            calleeIds[i] = intern(ids, strings, callees[i]);
+        }
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+        out.writeInt(nameId);
+        out.writeInt(size());
+        for (int i = 0; i < size(); i++) {
+            out.writeInt(targetIds[i]);
+            out.writeByte(types[i]);
+            out.writeInt(memberIds[i]);
+            out.writeInt(calleeIds[i]);
+        }
+    }
+
+    public static ClassReferences readFrom(DataInput in) throws IOException {
+        int stringCount = in.readInt();
+        if (stringCount < 0) {
+            throw new IOException("Damaged references");
+        }
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = in.readUTF();
+        }
+        String name = string(strings, in.readInt());
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Damaged references");
+        }
+        String[] targets = new String[count];
+        byte[] types = new byte[count];
+        String[] members = new String[count];
+        String[] callees = new String[count];
+        for (int i = 0; i < count; i++) {
+            targets[i] = string(strings, in.readInt());
+            types[i] = in.readByte();
+            if (types[i] < 0 || types[i] >= EDGE_TYPES.length || targets[i] == null) {
+                throw new IOException("Damaged references");
+            }
+            members[i] = string(strings, in.readInt());
+            callees[i] = string(strings, in.readInt());
+        }
+        return new ClassReferences(name, targets, types, members, callees);
+    }
+
+    // -1 stands for null
+    private static int intern(Map<String, Integer> ids, List<String> strings, String string) {
+        if (string == null) {
+            return -1;
+        }
+        return ids.computeIfAbsent(string, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    private static String string(String[] strings, int id) throws IOException {
+        if (id == -1) {
+            return null;
+        }
+        if (id < 0 || id >= strings.length) {
+            throw new IOException("Damaged references");
+        }
+        return strings[id];
+    }
+}
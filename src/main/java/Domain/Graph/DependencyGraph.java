@@ -0,0 +1,248 @@
+package Domain.Graph;
+
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which classes of a project use which others, built in one pass over the classes.
+ *
+ * Every class is a node with an int ID, its position in the list the graph was built from.
+ * The edges of a node are its supertypes other than Object, then the types of its fields,
+ * then the owners of the methods it calls, in the order they appear in the class, and only
+ * those that are classes of the project. They are kept in compressed sparse row form: the edges of node n
+ * are the indices from getFirstEdge(n) up to getFirstEdge(n + 1), and each edge is a slot
+ * in a few parallel arrays. The member an edge comes from is kept as an ID into a shared
+ * name table, so no strings are built until a result is reported.
+ */
+public final class DependencyGraph {
+
+    /**
+     * What makes one class depend on another.
+     */
+    public enum EdgeType {
+        SUPERTYPE,
+        FIELD,
+        CALL
+    }
+
+    private static final EdgeType[] EDGE_TYPES = EdgeType.values();
+
+    private final String[] internalNames;
+    private final Map<String, Integer> idsByName;
+    private final Map<ClassNode, Integer> idsByNode;
+    private final int[] firstEdge;
+    private final int[] targets;
+    private final byte[] types;
+    // for field edges the field, for call edges the calling method and the method called
+    private final int[] members;
+    private final int[] callees;
+    private final String[] memberNames;
+
+    private DependencyGraph(Builder builder) {
+        this.internalNames = builder.internalNames;
+        this.idsByName = builder.idsByName;
+        this.idsByNode = builder.idsByNode;
+        this.firstEdge = builder.firstEdge;
+        this.targets = Arrays.copyOf(builder.targets, builder.edgeCount);
+        this.types = Arrays.copyOf(builder.types, builder.edgeCount);
+        this.members = Arrays.copyOf(builder.members, builder.edgeCount);
+        this.callees = Arrays.copyOf(builder.callees, builder.edgeCount);
+        this.memberNames = builder.memberNames.keySet().toArray(new String[0]);
+        for (Map.Entry<String, Integer> entry : builder.memberNames.entrySet()) {
+            memberNames[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    /**
+     * The graph of the classes. Classes without a name are nodes without edges; when two
+     * classes share a name, references to it go to the later one.
+     */
+    public static DependencyGraph build(List<ClassNode> classNodes) {
+        return build(classNodes, Collections.emptyList());
+    }
+
+    /**
+     * The same with further classes known only by internal name, which come after the
+     * parsed ones. They can be depended on but have no edges of their own, so their
+     * bodies never have to be read.
+     */
+    public static DependencyGraph build(List<ClassNode> classNodes, List<String> headerOnly) {
+        List<ClassReferences> references = new ArrayList<>(classNodes.size());
+        for (ClassNode classNode : classNodes) {
+            references.add(ClassReferences.of(classNode));
+        }
+        return build(classNodes, references, headerOnly);
+    }
+
+    /**
+     * The same with the references of each class already taken from it, for instance
+     * read back from a cache. The names and edges come from the references; the nodes
+     * are only tied to their IDs for idOf(ClassNode), so they need not be parsed.
+     */
+    public static DependencyGraph build(List<ClassNode> classNodes, List<ClassReferences> references,
+                                        List<String> headerOnly) {
+        return new DependencyGraph(new Builder(classNodes, references, headerOnly));
+    }
+
+    public int size() {
+        return internalNames.length;
+    }
+
+    /**
+     * The node of a class by internal name (java/util/List), or -1 if it is not in the
+     * graph.
+     */
+    public int idOf(String internalName) {
+        Integer id = idsByName.get(internalName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * The node this very ClassNode was built into, or -1.
+     */
+    public int idOf(ClassNode classNode) {
+        Integer id = idsByNode.get(classNode);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * The internal name of the node's class; null for a class without a name.
+     */
+    public String getInternalName(int node) {
+        return internalNames[node];
+    }
+
+    public int getFirstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    public int getEdgeEnd(int node) {
+        return firstEdge[node + 1];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public EdgeType getType(int edge) {
+        return EDGE_TYPES[types[edge]];
+    }
+
+    /**
+     * The field of a field edge or the calling method of a call edge; null for supertypes.
+     */
+    public String getMember(int edge) {
+        return members[edge] < 0 ? null : memberNames[members[edge]];
+    }
+
+    /**
+     * The method called by a call edge; null for other edges.
+     */
+    public String getCallee(int edge) {
+        return callees[edge] < 0 ? null : memberNames[callees[edge]];
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * The classes the class refers to, in edge order and without repeats, whether or not
+     * they are in any graph. A graph of the class and those of them in a project has the
+     * same edges for the class as the graph of the whole project.
+     */
+    public static Set<String> referencedNames(ClassNode classNode) {
+        ClassReferences references = ClassReferences.of(classNode);
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < references.size(); i++) {
+            names.add(references.getTarget(i));
+        }
+        return names;
+    }
+
+    private static final class Builder {
+        final String[] internalNames;
+        final Map<String, Integer> idsByName = new HashMap<>();
+        final Map<ClassNode, Integer> idsByNode = new IdentityHashMap<>();
+        final Map<String, Integer> memberNames = new HashMap<>();
+        final int[] firstEdge;
+        int[] targets = new int[64];
+        byte[] types = new byte[64];
+        int[] members = new int[64];
+        int[] callees = new int[64];
+        int edgeCount;
+
+        Builder(List<ClassNode> classNodes, List<ClassReferences> references, List<String> headerOnly) {
+            int parsed = classNodes.size();
+            int count = parsed + headerOnly.size();
+            internalNames = new String[count];
+            firstEdge = new int[count + 1];
+            for (int id = 0; id < count; id++) {
+                String name;
+                if (id < parsed) {
+                    idsByNode.put(classNodes.get(id), id);
+                    name = references.get(id).getName();
+                } else {
+                    name = headerOnly.get(id - parsed);
+                }
+                internalNames[id] = name;
+                if (name != null) {
+                    idsByName.put(name, id);
+                }
+            }
+            // names are all known now, so each class is scanned once
+            for (int id = 0; id < count; id++) {
+                firstEdge[id] = edgeCount;
+                if (id < parsed) {
+                    scan(references.get(id));
+                }
+            }
+            firstEdge[count] = edgeCount;
+        }
+
+        void scan(ClassReferences references) {
+            for (int i = 0; i < references.size(); i++) {
+                int target = target(references.getTarget(i));
+                if (target >= 0) {
+                    String member = references.getMember(i);
+                    String callee = references.getCallee(i);
+                    append(target, references.getType(i), member == null ? -1 : nameId(member),
+                            callee == null ? -1 : nameId(callee));
+                }
+            }
+        }
+
+        int target(String internalName) {
+            Integer id = idsByName.get(internalName);
+            return id == null ? -1 : id;
+        }
+
+        int nameId(String name) {
+            return memberNames.computeIfAbsent(name, n -> memberNames.size());
+        }
+
+        void append(int target, EdgeType type, int member, int callee) {
+            if (edgeCount == targets.length) {
+                int capacity = edgeCount * 2;
+                targets = Arrays.copyOf(targets, capacity);
+                types = Arrays.copyOf(types, capacity);
+                members = Arrays.copyOf(members, capacity);
+                callees = Arrays.copyOf(callees, capacity);
+            }
+            targets[edgeCount] = target;
+            types[edgeCount] = (byte) type.ordinal();
+            members[edgeCount] = member;
+            callees[edgeCount] = callee;
+            edgeCount++;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package Domain.Graph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The strongly connected components of a DependencyGraph, found with Tarjan's algorithm in
+ * O(V + E). The recursion is kept on explicit stacks, so deep dependency chains cannot
+ * overflow the thread's stack.
+ *
+ * Only the nodes and edges the filters accept take part; other nodes have component -1.
+ * Components are numbered in the order Tarjan's algorithm completes them, which is a
+ * reverse topological order of the condensed graph: every edge between two components
+ * leads to one with a lower number. Walking the components from 0 upwards therefore sees
+ * every component after all the components it depends on.
+ */
+public final class StronglyConnectedComponents {
+
+    private final int[] components;
+    private final int[] firstMember;
+    private final int[] members;
+
+    private StronglyConnectedComponents(int[] components, int count) {
+        this.components = components;
+        // members of each component in ascending node order, in compressed sparse row form
+        this.firstMember = new int[count + 1];
+        for (int component : components) {
+            if (component >= 0) {
+                firstMember[component + 1]++;
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            firstMember[c + 1] += firstMember[c];
+        }
+        this.members = new int[firstMember[count]];
+        int[] filled = Arrays.copyOf(firstMember, count);
+        for (int node = 0; node < components.length; node++) {
+            if (components[node] >= 0) {
+                members[filled[components[node]]++] = node;
+            }
+        }
+    }
+
+    public static StronglyConnectedComponents of(DependencyGraph graph, IntPredicate includeNode,
+                                                 IntPredicate includeEdge) {
+        int size = graph.size();
+        int[] components = new int[size];
+        Arrays.fill(components, -1);
+        int[] index = new int[size];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int stackSize = 0;
+        // the simulated call stack: a node and the next of its edges to look at
+        int[] callNodes = new int[size];
+        int[] callEdges = new int[size];
+        int depth = 0;
+        int counter = 0;
+        int count = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0 || !includeNode.test(root)) {
+                continue;
+            }
+            index[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callNodes[depth] = root;
+            callEdges[depth++] = graph.getFirstEdge(root);
+
+            while (depth > 0) {
+                int node = callNodes[depth - 1];
+                int edge = callEdges[depth - 1];
+                if (edge < graph.getEdgeEnd(node)) {
+                    callEdges[depth - 1]++;
+                    int target = graph.getTarget(edge);
+                    if (!includeEdge.test(edge) || !includeNode.test(target)) {
+                        continue;
+                    }
+                    if (index[target] < 0) {
+                        index[target] = lowLink[target] = counter++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callNodes[depth] = target;
+                        callEdges[depth++] = graph.getFirstEdge(target);
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                // all edges done: return to the caller
+                depth--;
+                if (depth > 0) {
+                    int caller = callNodes[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
+                if (lowLink[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = count;
+                    } while (member != node);
+                    count++;
+                }
+            }
+        }
+        return new StronglyConnectedComponents(components, count);
+    }
+
+    public int getCount() {
+        return firstMember.length - 1;
+    }
+
+    /**
+     * The component of the node, or -1 if the node was left out.
+     */
+    public int getComponent(int node) {
+        return components[node];
+    }
+
+    public int getSize(int component) {
+        return firstMember[component + 1] - firstMember[component];
+    }
+
+    /**
+     * The i-th member of the component, in ascending node order.
+     */
+    public int getMember(int component, int i) {
+        return members[firstMember[component] + i];
+    }
+}
@@ -0,0 +1,104 @@
+package Domain;
+
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Statistics.CheckStatistics;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks the instructions of a class once and feeds them to several instruction checks,
+ * so N checks cost one traversal instead of N.
+ */
+public final class InstructionMultiplexer {
+
+    private InstructionMultiplexer() {}
+
+    /**
+     * Runs all checks over one class and pushes the results into the sink check by check.
+     * The instruction checks share a single traversal; their results are held per check
+     * until it is their turn, so the order is the same as running each check on its own.
+     */
+    public static void runChecks(ClassNode classNode, List<? extends ICheck> checks, AnalysisContext context,
+                                 ILintResultSink sink) {
+        List<IInstructionCheck> instructionChecks = new ArrayList<>();
+        List<List<LintResult>> buffers = new ArrayList<>();
+        for (ICheck check : checks) {
+            if (check instanceof IInstructionCheck) {
+                instructionChecks.add((IInstructionCheck) check);
+                buffers.add(new ArrayList<>());
+            }
+        }
+        List<ILintResultSink> bufferSinks = new ArrayList<>();
+        for (List<LintResult> buffer : buffers) {
+            bufferSinks.add(buffer::add);
+        }
+        traverse(classNode, instructionChecks, context, bufferSinks);
+
+        int next = 0;
+        for (ICheck check : checks) {
+            if (check instanceof IInstructionCheck) {
+                for (LintResult result : buffers.get(next++)) {
+                    sink.accept(result);
+                }
+            } else {
+                check.execute(classNode, context, sink);
+            }
+        }
+    }
+
+    /**
+     * Runs the checks over the class. sinks.get(i) receives the results of checks.get(i).
+     */
+    public static void traverse(ClassNode classNode, List<? extends IInstructionCheck> checks,
+                                AnalysisContext context, List<? extends ILintResultSink> sinks) {
+        List<IInstructionListener> active = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            IInstructionListener listener = checks.get(i).beginClass(classNode, context, sinks.get(i));
+            if (listener != null) {
+                active.add(listener);
+            }
+        }
+        if (active.isEmpty()) {
+            return;
+        }
+
+        IInstructionListener[] listeners = active.toArray(new IInstructionListener[0]);
+        CheckStatistics statistics = context.get(CheckStatistics.KEY);
+        if (statistics != null) {
+            statistics.measureSharedPass(() -> walk(classNode, listeners));
+        } else {
+            walk(classNode, listeners);
+        }
+
+        for (IInstructionListener listener : listeners) {
+            listener.endClass();
+        }
+    }
+
+    private static void walk(ClassNode classNode, IInstructionListener[] listeners) {
+        if (classNode.methods != null) {
+            for (MethodNode method : classNode.methods) {
+                for (IInstructionListener listener : listeners) {
+                    listener.beginMethod(method);
+                }
+                if (method.instructions != null) {
+                    for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                        for (IInstructionListener listener : listeners) {
+                            listener.visitInsn(method, insn);
+                        }
+                    }
+                }
+                for (IInstructionListener listener : listeners) {
+                    listener.endMethod(method);
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,62 @@
 package Domain.Interfaces;
 
+import Domain.AnalysisContext;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ICheck {
     List<LintResult> execute(ClassNode classNode);
     String getName();
+
+    /**
+     * Pushes this check's results for the class into the sink. Checks that only implement
+     * the list-returning execute get this adapter; streaming checks override it.
+     */
+    default void execute(ClassNode classNode, ILintResultSink sink) {
+        for (LintResult result : execute(classNode)) {
+            sink.accept(result);
+        }
+    }
+
+    /**
+     * Runs the check as part of a run. Caches and models that outlive one class belong in
+     * the context, not in the check. Checks that need nothing from the context get this
+     * adapter.
+     */
+    default void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        execute(classNode, sink);
+    }
+
+    /**
+     * The parts of a class this check reads. The engine skips parsing whatever no selected
+     * check asks for, so a check must not touch anything outside this set. Defaults to
+     * everything.
+     */
+    default Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.all();
+    }
+
+    /**
+     * Identifies this check and its configuration in the on-disk result cache. The cache
+     * adds the hashes of the check's class file and of the linter build itself, so a
+     * changed check or linter does not reuse old results. Return null when the results for a class can depend on other classes; those
+     * results are never cached. Project checks are never cached either.
+     */
+    default String getCacheKey() {
+        return getClass().getName();
+    }
+
+    /**
+     * Whether one instance of this check can run execute on several classes at the same time.
+     * Checks that are not get all of their classes on a single worker, in order, so the
+     * default is false and a check has to opt in. The built-in checks keep their state in
+     * the AnalysisContext and all return true.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -0,0 +1,29 @@
+package Domain.Interfaces;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Somewhere compiled classes can be read from: a directory, a JAR, a classpath, the
+ * runtime image, or a list of class names.
+ *
+ * Entries are names that only mean something to the source that listed them, such as a
+ * path inside a directory or JAR. Sources that hold files open release them in close.
+ */
+public interface IClassSource extends Closeable {
+
+    /**
+     * The entries of every class in the source, in the same order every time.
+     */
+    List<String> getEntries() throws IOException;
+
+    /**
+     * The bytes of the class file for the entry, in an array of exactly that length.
+     */
+    byte[] read(String entry) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
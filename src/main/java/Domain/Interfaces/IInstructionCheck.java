@@ -0,0 +1,39 @@
+package Domain.Interfaces;
+
+import Domain.AnalysisContext;
+import Domain.InstructionMultiplexer;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.List;
+
+/**
+ * A check that looks at instructions through a shared traversal instead of walking
+ * method.instructions itself. The engine walks every method of a class once and hands
+ * each instruction to all subscribed checks.
+ */
+public interface IInstructionCheck extends IStreamingCheck {
+
+    /**
+     * Starts a pass over one class. Results for the class go into the sink, either while
+     * instructions arrive or from endClass. Return null to skip the class entirely.
+     */
+    IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink);
+
+    /**
+     * Starts a pass over one class as part of a run. Checks that keep anything between
+     * classes override this one and read it from the context.
+     */
+    default IInstructionListener beginClass(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        return beginClass(classNode, sink);
+    }
+
+    @Override
+    default void execute(ClassNode classNode, ILintResultSink sink) {
+        execute(classNode, AnalysisContext.standalone(classNode), sink);
+    }
+
+    @Override
+    default void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        InstructionMultiplexer.traverse(classNode, List.of(this), context, List.of(sink));
+    }
+}
@@ -0,0 +1,19 @@
+package Domain.Interfaces;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Receives the methods and instructions of one class during a shared traversal.
+ * Methods arrive in declaration order and instructions in list order.
+ */
+public interface IInstructionListener {
+
+    default void beginMethod(MethodNode method) {}
+
+    default void visitInsn(MethodNode method, AbstractInsnNode insn) {}
+
+    default void endMethod(MethodNode method) {}
+
+    default void endClass() {}
+}
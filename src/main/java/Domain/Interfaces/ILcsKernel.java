@@ -0,0 +1,20 @@
+package Domain.Interfaces;
+
+/**
+ * Computes the length of the longest common subsequence of two symbol sequences, such as
+ * the opcodes of two methods. Implementations must give exactly the same length; they
+ * only differ in speed and memory. Several threads may use one kernel at the same time.
+ */
+public interface ILcsKernel {
+    int lcsLength(int[] a, int[] b);
+
+    /**
+     * The LCS length when it is at least minLength, and otherwise any value below
+     * minLength. Callers that only care whether a threshold is reached let the kernel
+     * skip the part of the table no such alignment can pass through and stop once the
+     * threshold is out of reach. Kernels without such a shortcut compute the full length.
+     */
+    default int lcsLengthAtLeast(int[] a, int[] b, int minLength) {
+        return lcsLength(a, b);
+    }
+}
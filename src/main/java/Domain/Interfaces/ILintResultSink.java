@@ -0,0 +1,11 @@
+package Domain.Interfaces;
+
+import Domain.LintResult;
+
+/**
+ * Receives lint results one at a time as checks produce them, so they can be written,
+ * counted or filtered without building up a list first.
+ */
+public interface ILintResultSink {
+    void accept(LintResult result);
+}
@@ -0,0 +1,25 @@
+package Domain.Interfaces;
+
+import Domain.AnalysisContext;
+
+/**
+ * A check that looks at the whole program rather than one class at a time.
+ *
+ * The engine calls beginProject once with the context of the run, then execute for each
+ * class, then endProject. The check should build its model of the project from
+ * context.getClassNodes() in beginProject, keep it in the context, and only read it in
+ * execute, so the classes are not scanned again for every class that is checked. Several
+ * threads may call execute at the same time between the two hooks. A check whose model
+ * can be built from a summary of each class should be an ISummarizingCheck, so a cached
+ * run does not have to parse the classes that did not change.
+ */
+public interface IProjectCheck extends ICheck {
+
+    void beginProject(AnalysisContext context);
+
+    /**
+     * Called after the last class of the run.
+     */
+    default void endProject(AnalysisContext context) {
+    }
+}
@@ -0,0 +1,24 @@
+package Domain.Interfaces;
+
+import Domain.LintResult;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A check that pushes its results into a sink instead of returning a list.
+ * The list-returning execute is still available for callers that want one.
+ */
+public interface IStreamingCheck extends ICheck {
+
+    @Override
+    void execute(ClassNode classNode, ILintResultSink sink);
+
+    @Override
+    default List<LintResult> execute(ClassNode classNode) {
+        List<LintResult> results = new ArrayList<>();
+        execute(classNode, results::add);
+        return results;
+    }
+}
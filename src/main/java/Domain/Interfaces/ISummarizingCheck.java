@@ -0,0 +1,58 @@
+package Domain.Interfaces;
+
+import Domain.AnalysisContext;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A project check that builds its model from a summary of each class, such as the classes
+ * it refers to or the opcodes of its methods, which depends on that one class file alone.
+ *
+ * The results of a project check cannot be cached, since they depend on every class, but
+ * its summaries can: a cached run stores them by class hash, and a class whose other
+ * checks all hit the cache is then not parsed at all. In a run without a cache the
+ * summaries are made from the parsed classes every time.
+ *
+ * In execute a class not parsed for the run is a node with only its name; the check
+ * must find what it reports for the class in the model built in beginProject.
+ */
+public interface ISummarizingCheck<S> extends IProjectCheck {
+
+    /**
+     * What the check needs to know of the class, made from the class alone.
+     */
+    S summarize(ClassNode classNode);
+
+    void writeSummary(S summary, DataOutput out) throws IOException;
+
+    /**
+     * Reads back a summary written by writeSummary. Throws if the data is damaged.
+     */
+    S readSummary(DataInput in) throws IOException;
+
+    /**
+     * The summaries of the classes of the run, in the order of context.getClassNodes():
+     * the stored ones where the run has them, and made from the class otherwise. Meant for
+     * beginProject.
+     */
+    default List<S> getSummaries(AnalysisContext context) {
+        ISummaryStore store = context.get(ISummaryStore.KEY);
+        List<S> summaries = new ArrayList<>();
+        for (ClassNode classNode : context.getClassNodes()) {
+            S summary = store == null ? null : store.load(this, classNode);
+            if (summary == null) {
+                summary = summarize(classNode);
+                if (store != null) {
+                    store.store(this, classNode, summary);
+                }
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,23 @@
+package Domain.Interfaces;
+
+import Domain.AnalysisContext;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Where a run keeps the class summaries of its summarizing checks. A cached run puts one
+ * in the context; without one every summary is made from its class.
+ */
+public interface ISummaryStore {
+
+    AnalysisContext.Key<ISummaryStore> KEY = AnalysisContext.Key.of("summaryStore");
+
+    /**
+     * The stored summary of the class for the check, or null if there is none.
+     */
+    <S> S load(ISummarizingCheck<S> check, ClassNode classNode);
+
+    /**
+     * Keeps a summary made in this run.
+     */
+    <S> void store(ISummarizingCheck<S> check, ClassNode classNode, S summary);
+}
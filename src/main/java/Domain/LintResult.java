@@ -21,6 +21,10 @@ public class LintResult {
         return message;
     }
 
+    public String getLocation() {
+        return this.location;
+    }
+
     public String getCheckName() {
         return this.checkName;
     }
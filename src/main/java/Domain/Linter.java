@@ -1,14 +1,31 @@
 package Domain;
 
+import Domain.Cache.CachedRun;
+import Domain.Cache.FingerprintStore;
+import Domain.Cache.ResultCache;
 import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IClassSource;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IProjectCheck;
+import Domain.Interfaces.ISummaryStore;
+import Domain.PatternCheck.LayerRules;
+import Domain.PatternCheck.ThreeLayerPatternCheck;
+import Domain.PrincipleCheck.BytecodeCloneCheck;
+import Domain.PrincipleCheck.CodeDuplicationCheck;
+import Domain.PrincipleCheck.CrossClassDuplicationCheck;
+import Domain.Source.ClassHeaderReader;
+import Domain.Source.ClassNameSource;
+import Domain.Statistics.CheckStatistics;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class Linter {
 	
@@ -16,15 +33,41 @@ public class Linter {
     private final List<ICheck> allChecks;
     private List<ICheck> appliedChecks;
     private List<ClassNode> classNodes;
+    private final List<byte[]> classBytes;
     private List<LintResult> lintResults;
+    private Set<ParseRequirement> parsedFor;
+    private int parallelism = 1;
+    private final ResultCache resultCache;
+    private CheckStatistics statistics;
 
     public Linter(String[] input) throws IOException {
+        this(new ClassNameSource(input));
+    }
+
+    /**
+     * Lints every class in the source: a directory, JAR, classpath or the runtime image.
+     * The source can be closed once the constructor returns.
+     */
+    public Linter(IClassSource source) throws IOException {
+        this(source, null);
+    }
+
+    /**
+     * Like Linter(source), but reuses results stored in the cache by earlier runs. Classes
+     * are parsed when a run starts, with only what the checks that still have to run on
+     * them need; a class whose results, and whose summaries for the project checks, are
+     * all cached is not parsed at all.
+     */
+    public Linter(IClassSource source, ResultCache resultCache) throws IOException {
         this.allChecks = new ArrayList<ICheck>();
         this.appliedChecks = new ArrayList<ICheck>();
-        this.classNodes = new ArrayList<ClassNode>();
+        this.resultCache = resultCache;
+        // only the bytes are read here: a run parses them with just what its checks need,
+        // and parses them again if checks added later need more
+        this.classBytes = new ArrayList<byte[]>();
 
-        this.importClassNodes(input);
         this.setupChecks();
+        this.importClassNodes(source);
     }
 
     private void setupChecks() {
@@ -51,41 +94,283 @@ public class Linter {
     }
 
     public void importClassNodes(String[] input) throws IOException {
-        for (String className : input) {
-            // One way to read in a Java class with ASM:
-            // Step 1. ASM's ClassReader does the heavy lifting of parsing the compiled Java class.
-            ClassReader reader = new ClassReader(className);
+        this.importClassNodes(new ClassNameSource(input));
+    }
+
+    public void importClassNodes(IClassSource source) throws IOException {
+        for (String entry : source.getEntries()) {
+            byte[] bytes;
+            try {
+                bytes = source.read(entry);
+            } catch (IOException e) {
+                throw new IOException("Could not read " + entry + ": " + e.getMessage(), e);
+            }
+            this.classBytes.add(bytes);
+            if (this.classNodes != null) {
+                this.classNodes.add(this.readClassNode(bytes, ParseRequirement.toReaderFlags(this.parsedFor)));
+            }
+        }
+    }
+
+    /**
+     * Parses every class with what the checks about to run need, for the paths that do
+     * not go through the cache. Classes already parsed are parsed again only if the checks
+     * need parts the earlier parse skipped.
+     */
+    private void ensureParsed(List<ICheck> checks) {
+        Set<ParseRequirement> needed = ParseRequirement.union(checks);
+        if (this.classNodes != null && this.parsedFor.containsAll(needed)) {
+            return;
+        }
+        if (this.parsedFor != null) {
+            needed.addAll(this.parsedFor);
+        }
+
+        this.parsedFor = needed;
+        int flags = ParseRequirement.toReaderFlags(needed);
+        this.classNodes = new ArrayList<ClassNode>();
+        for (byte[] bytes : this.classBytes) {
+            this.classNodes.add(this.readClassNode(bytes, flags));
+        }
+    }
+
+    private ClassNode readClassNode(byte[] bytes, int flags) {
+        // One way to read in a Java class with ASM:
+        // Step 1. ASM's ClassReader does the heavy lifting of parsing the compiled Java class.
+        ClassReader reader = new ClassReader(bytes);
+
+        // Step 2. ClassNode is just a data container for the parsed class
+        ClassNode classNode = new ClassNode();
 
-            // Step 2. ClassNode is just a data container for the parsed class
-            ClassNode classNode = new ClassNode();
+        // Step 3. Tell the Reader to parse the specified class and store its data in our ClassNode.
+        // The flags skip code, debug info and frames when none of the checks look at them.
+        reader.accept(classNode, flags);
+        return classNode;
+    }
+
+    /**
+     * Sets how many worker threads run the checks. 1 (the default) runs them serially
+     * on the calling thread; anything higher uses a ForkJoinPool of that size.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Places classes in layers for the three layer check by these rules before the
+     * default keywords. Applies to the runs that follow.
+     */
+    public void setLayerRules(LayerRules layerRules) {
+        for (int i = 0; i < this.allChecks.size(); i++) {
+            if (this.allChecks.get(i) instanceof ThreeLayerPatternCheck) {
+                this.allChecks.set(i, new ThreeLayerPatternCheck(layerRules));
+            }
+        }
+    }
 
-            // Step 3. Tell the Reader to parse the specified class and store its data in our ClassNode.
-            // EXPAND_FRAMES means: I want my code to work. (Always pass this flag.)
-            reader.accept(classNode, ClassReader.EXPAND_FRAMES);
+    /**
+     * Adds CrossClassDuplicationCheck to the runs that follow, right after
+     * CodeDuplicationCheck. It is off by default: it compares methods across the whole
+     * project, so it changes what a run reports and makes every class parse its code.
+     */
+    public void setCrossClassDuplicationEnabled(boolean enabled) {
+        this.allChecks.removeIf(check -> check instanceof CrossClassDuplicationCheck);
+        if (enabled) {
+            this.allChecks.add(this.positionAfter(CodeDuplicationCheck.class), new CrossClassDuplicationCheck());
+        }
+    }
+
+    /**
+     * Adds BytecodeCloneCheck to the runs that follow, after the other duplication checks.
+     * It is off by default: most of the copied code it finds is already reported, method
+     * by method, by CodeDuplicationCheck and CrossClassDuplicationCheck.
+     */
+    public void setBytecodeClonesEnabled(boolean enabled) {
+        this.allChecks.removeIf(check -> check instanceof BytecodeCloneCheck);
+        if (enabled) {
+            this.allChecks.add(this.positionAfter(CodeDuplicationCheck.class, CrossClassDuplicationCheck.class),
+                    new BytecodeCloneCheck());
+        }
+    }
 
-            // store ClassNodes
-            classNodes.add(classNode);
+    /**
+     * The position just after the last check of any of the types, or the end if there is none.
+     */
+    private int positionAfter(Class<?>... types) {
+        for (int i = this.allChecks.size() - 1; i >= 0; i--) {
+            for (Class<?> type : types) {
+                if (type.isInstance(this.allChecks.get(i))) {
+                    return i + 1;
+                }
+            }
         }
+        return this.allChecks.size();
+    }
+
+    /**
+     * Turns on timing and allocation statistics for the runs that follow. Enabling starts
+     * from empty statistics; disabling drops them.
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        this.statistics = enabled ? new CheckStatistics() : null;
+    }
+
+    /**
+     * The statistics of every run since they were enabled, or null when they are off.
+     */
+    public CheckStatistics getCheckStatistics() {
+        return this.statistics;
+    }
+
+    public List<LintResult> getLintResults() {
+        if (this.lintResults == null) {
+            this.applyInitialChecks();
+        }
+        return this.lintResults;
     }
 
     public void addChecks(List<ICheck> checksToAdd) {
+        if (this.lintResults == null) {
+            this.applyInitialChecks();
+        }
+        this.ensureParsed(checksToAdd);
         for (ICheck check : checksToAdd) {
             if (!this.appliedChecks.contains(check)) {
                 this.appliedChecks.add(check);
-                for (ClassNode classNode : classNodes) {
-                    this.lintResults.addAll(check.execute(classNode));
+                this.runChecks(List.of(check), this.newContext(), this.lintResults::add);
+            }
+        }
+    }
+
+    /**
+     * Runs every check over every class and pushes the results straight into the sink
+     * instead of keeping them, in the same order getLintResults would list them: class by
+     * class, and within a class in check order. Instruction checks share one traversal
+     * of each class, and project checks see all classes before the first one is checked.
+     */
+    public void runChecks(ILintResultSink sink) {
+        if (this.resultCache != null) {
+            this.runCachedChecks(sink);
+            return;
+        }
+        this.ensureParsed(this.allChecks);
+        this.runChecks(allChecks, this.newContext(), sink);
+    }
+
+    private void runChecks(List<ICheck> checks, AnalysisContext context, ILintResultSink sink) {
+        // project hooks are measured separately, so the wrappers only go on for execute
+        List<ICheck> toRun = checks;
+        if (this.statistics != null) {
+            context.put(CheckStatistics.KEY, this.statistics);
+            toRun = this.statistics.instrument(checks);
+        }
+
+        this.beginProject(checks, context);
+        try {
+
+            if (this.parallelism > 1) {
+                new ParallelCheckExecutor(this.parallelism).execute(toRun, context, sink);
+                return;
+            }
+
+            for (ClassNode classNode : context.getClassNodes()) {
+                InstructionMultiplexer.runChecks(classNode, toRun, context, sink);
+            }
+        } finally {
+            this.endProject(checks, context);
+        }
+    }
+
+    /**
+     * Runs the checks through the result cache. Each class is parsed with only what its
+     * uncached checks need. A class with nothing left to run is not parsed: the checks
+     * only see a node with its name, which the cache wrappers answer from the cache and
+     * summarizing project checks find in their model.
+     */
+    private void runCachedChecks(ILintResultSink sink) {
+        CachedRun run = new CachedRun(this.resultCache, this.allChecks, this.classBytes);
+        List<ClassNode> nodes = new ArrayList<ClassNode>();
+        ClassHeaderReader headerReader = new ClassHeaderReader();
+        for (int i = 0; i < this.classBytes.size(); i++) {
+            List<ICheck> toRun = run.getChecksToRun(i);
+            ClassNode classNode;
+            if (toRun.isEmpty()) {
+                classNode = new ClassNode();
+                classNode.name = this.readClassName(headerReader, this.classBytes.get(i));
+            } else {
+                classNode = this.readClassNode(this.classBytes.get(i), ParseRequirement.toReaderFlags(toRun));
+            }
+            run.bind(i, classNode);
+            nodes.add(classNode);
+        }
+
+        // classes that changed still reuse what is known about their unchanged methods
+        AnalysisContext context = new AnalysisContext(nodes);
+        context.put(ISummaryStore.KEY, run);
+        FingerprintStore fingerprints = this.resultCache.openFingerprintStore();
+        context.put(FingerprintStore.KEY, fingerprints);
+
+        this.runChecks(run.getChecks(), context, sink);
+        run.save();
+        fingerprints.save();
+    }
+
+    private String readClassName(ClassHeaderReader headerReader, byte[] bytes) {
+        try {
+            return headerReader.readClassName(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            // not a class file; parsing it would have failed as well
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A fresh context per run, so nothing one run builds is seen by the next.
+     */
+    private AnalysisContext newContext() {
+        return new AnalysisContext(new ArrayList<ClassNode>(this.classNodes));
+    }
+
+    /**
+     * Lets the project checks build their model from the loaded classes before any class
+     * is checked.
+     */
+    private void beginProject(List<ICheck> checks, AnalysisContext context) {
+        for (ICheck check : checks) {
+            if (check instanceof IProjectCheck) {
+                IProjectCheck projectCheck = (IProjectCheck) check;
+                if (this.statistics != null) {
+                    this.statistics.measureSetup(check, () -> projectCheck.beginProject(context));
+                } else {
+                    projectCheck.beginProject(context);
                 }
             }
         }
     }
 
-    private void applyInitialChecks() {
-        List<LintResult> results = new ArrayList<LintResult>();
-        for (ICheck check : allChecks) {
-            for (ClassNode classNode : classNodes) {
-                results.addAll(check.execute(classNode));
+    private void endProject(List<ICheck> checks, AnalysisContext context) {
+        for (ICheck check : checks) {
+            if (check instanceof IProjectCheck) {
+                IProjectCheck projectCheck = (IProjectCheck) check;
+                if (this.statistics != null) {
+                    this.statistics.measureSetup(check, () -> projectCheck.endProject(context));
+                } else {
+                    projectCheck.endProject(context);
+                }
             }
         }
+    }
+
+    private void applyInitialChecks() {
+        List<LintResult> results = new ArrayList<LintResult>();
+        this.runChecks(results::add);
         this.lintResults = results;
     }
 }
@@ -0,0 +1,199 @@
+package Domain;
+
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.ILintResultSink;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs checks over classes on a ForkJoinPool.
+ *
+ * Every (class, check) pair is a separate unit of work, with two exceptions. The thread
+ * safe instruction checks of a class share one unit, so they still get a single
+ * traversal. Checks that are not thread safe get a single unit that visits all classes
+ * in order. Each unit writes into its own slots, and the slots are handed on class by
+ * class, check by check, so the output is the same as the serial loop in Linter.
+ */
+public class ParallelCheckExecutor {
+
+    private final int parallelism;
+
+    public ParallelCheckExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public List<LintResult> execute(List<ICheck> checks, AnalysisContext context) {
+        List<LintResult> results = new ArrayList<>();
+        execute(checks, context, results::add);
+        return results;
+    }
+
+    /**
+     * Runs the checks and pushes their results into the sink in serial order. A slot is
+     * handed to the sink as soon as it and every slot before it are done, so only the
+     * out-of-order part of the run is ever held in memory. The sink is only called by one
+     * thread at a time.
+     */
+    public void execute(List<ICheck> checks, AnalysisContext context, ILintResultSink sink) {
+        List<ClassNode> classNodes = context.getClassNodes();
+        int classCount = classNodes.size();
+
+        List<Integer> sharedTraversal = new ArrayList<>();
+        for (int c = 0; c < checks.size(); c++) {
+            if (checks.get(c).isThreadSafe() && checks.get(c) instanceof IInstructionCheck) {
+                sharedTraversal.add(c);
+            }
+        }
+
+        List<WorkUnit> units = new ArrayList<>();
+        for (int k = 0; k < classCount; k++) {
+            if (!sharedTraversal.isEmpty()) {
+                units.add(new WorkUnit(toArray(sharedTraversal), k, k + 1));
+            }
+            for (int c = 0; c < checks.size(); c++) {
+                if (checks.get(c).isThreadSafe() && !sharedTraversal.contains(c)) {
+                    units.add(new WorkUnit(new int[] {c}, k, k + 1));
+                }
+            }
+        }
+        for (int c = 0; c < checks.size(); c++) {
+            if (!checks.get(c).isThreadSafe() && classCount > 0) {
+                units.add(new WorkUnit(new int[] {c}, 0, classCount));
+            }
+        }
+
+        OrderedSlots slots = new OrderedSlots(classCount * checks.size(), sink);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new UnitRangeTask(units, 0, units.size(), checks, context, slots));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = values.get(i);
+        }
+        return out;
+    }
+
+    /**
+     * Result buffers for every (check, class) pair, flushed to the sink in order.
+     */
+    private static final class OrderedSlots {
+        private final List<LintResult>[] slots;
+        private final ILintResultSink sink;
+        private int cursor;
+
+        @SuppressWarnings("unchecked")
+        OrderedSlots(int size, ILintResultSink sink) {
+            this.slots = (List<LintResult>[]) new List<?>[size];
+            this.sink = sink;
+        }
+
+        synchronized void complete(int index, List<LintResult> results) {
+            slots[index] = results;
+            while (cursor < slots.length && slots[cursor] != null) {
+                for (LintResult result : slots[cursor]) {
+                    sink.accept(result);
+                }
+                slots[cursor] = null;
+                cursor++;
+            }
+        }
+    }
+
+    /**
+     * One check, or several instruction checks sharing a traversal, over a contiguous run
+     * of classes.
+     */
+    private static final class WorkUnit {
+        final int[] checkIndices;
+        final int fromClass;
+        final int toClass;
+
+        WorkUnit(int[] checkIndices, int fromClass, int toClass) {
+            this.checkIndices = checkIndices;
+            this.fromClass = fromClass;
+            this.toClass = toClass;
+        }
+    }
+
+    /**
+     * Splits the unit list in half until a single unit is left, then runs it.
+     */
+    @SuppressWarnings("serial")
+    private static final class UnitRangeTask extends RecursiveAction {
+        private final List<WorkUnit> units;
+        private final int from;
+        private final int to;
+        private final List<ICheck> checks;
+        private final AnalysisContext context;
+        private final OrderedSlots slots;
+
+        UnitRangeTask(List<WorkUnit> units, int from, int to, List<ICheck> checks,
+                      AnalysisContext context, OrderedSlots slots) {
+            this.units = units;
+            this.from = from;
+            this.to = to;
+            this.checks = checks;
+            this.context = context;
+            this.slots = slots;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    run(units.get(from));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new UnitRangeTask(units, from, mid, checks, context, slots),
+                    new UnitRangeTask(units, mid, to, checks, context, slots));
+        }
+
+        private void run(WorkUnit unit) {
+            int checkCount = checks.size();
+            for (int k = unit.fromClass; k < unit.toClass; k++) {
+                ClassNode classNode = context.getClassNodes().get(k);
+                List<List<LintResult>> buffers = new ArrayList<>();
+                List<ILintResultSink> bufferSinks = new ArrayList<>();
+                for (int ignored : unit.checkIndices) {
+                    List<LintResult> buffer = new ArrayList<>();
+                    buffers.add(buffer);
+                    bufferSinks.add(buffer::add);
+                }
+
+                if (unit.checkIndices.length == 1) {
+                    checks.get(unit.checkIndices[0]).execute(classNode, context, bufferSinks.get(0));
+                } else {
+                    List<IInstructionCheck> shared = new ArrayList<>();
+                    for (int c : unit.checkIndices) {
+                        shared.add((IInstructionCheck) checks.get(c));
+                    }
+                    InstructionMultiplexer.traverse(classNode, shared, context, bufferSinks);
+                }
+
+                for (int i = 0; i < unit.checkIndices.length; i++) {
+                    slots.complete(k * checkCount + unit.checkIndices[i], buffers.get(i));
+                }
+            }
+        }
+    }
+}
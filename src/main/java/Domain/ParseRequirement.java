@@ -0,0 +1,68 @@
+package Domain;
+
+import Domain.Interfaces.ICheck;
+import org.objectweb.asm.ClassReader;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What a check needs from a parsed class. The engine parses each class with the cheapest
+ * ClassReader flags that cover every selected check.
+ */
+public enum ParseRequirement {
+    /** Name, access flags, superclass and interfaces. */
+    HEADER,
+    /** Fields and method signatures. */
+    MEMBERS,
+    /** Method instructions and try/catch blocks. */
+    CODE,
+    /** Line numbers, local variable names and the source file. */
+    DEBUG_INFO,
+    /** Stack map frames, expanded. */
+    FRAMES;
+
+    public static Set<ParseRequirement> all() {
+        return EnumSet.allOf(ParseRequirement.class);
+    }
+
+    public static Set<ParseRequirement> of(ParseRequirement first, ParseRequirement... rest) {
+        return EnumSet.of(first, rest);
+    }
+
+    /**
+     * Combines the requirements of the given checks.
+     */
+    public static Set<ParseRequirement> union(Collection<? extends ICheck> checks) {
+        Set<ParseRequirement> needed = EnumSet.noneOf(ParseRequirement.class);
+        for (ICheck check : checks) {
+            needed.addAll(check.getParseRequirements());
+        }
+        return needed;
+    }
+
+    /**
+     * Returns the ClassReader.accept flags that parse no more than the given requirements need.
+     * Debug info and frames live inside method code, so either of them keeps the code.
+     */
+    public static int toReaderFlags(Set<ParseRequirement> needed) {
+        int flags = 0;
+        if (!needed.contains(CODE) && !needed.contains(DEBUG_INFO) && !needed.contains(FRAMES)) {
+            flags |= ClassReader.SKIP_CODE;
+        }
+        if (!needed.contains(DEBUG_INFO)) {
+            flags |= ClassReader.SKIP_DEBUG;
+        }
+        if (needed.contains(FRAMES)) {
+            flags |= ClassReader.EXPAND_FRAMES;
+        } else {
+            flags |= ClassReader.SKIP_FRAMES;
+        }
+        return flags;
+    }
+
+    public static int toReaderFlags(Collection<? extends ICheck> checks) {
+        return toReaderFlags(union(checks));
+    }
+}
@@ -1,12 +1,17 @@
 package Domain.PatternCheck;
 
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IPatternCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -24,18 +29,15 @@ import java.util.Set;
  * - Constructor parameters are not stored/used
  * - Methods don't delegate to the wrapped component
  */
-public class DecoratorPatternCheck implements IPatternCheck {
+public class DecoratorPatternCheck implements IPatternCheck, IInstructionCheck {
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> lintResults = new ArrayList<>();
-
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
         // Check if this class looks like a decorator
-        if (isLikelyDecorator(classNode)) {
-            checkDecoratorQuality(classNode, lintResults);
+        if (!isLikelyDecorator(classNode)) {
+            return null;
         }
-
-        return lintResults;
+        return new DecoratorQualityListener(classNode, sink);
     }
 
     /**
@@ -114,50 +116,116 @@ public class DecoratorPatternCheck implements IPatternCheck {
     }
 
     /**
-     * Check the quality of decorator implementation
+     * Check the quality of decorator implementation while the instructions of the class
+     * go by, then report constructor problems followed by component field problems.
      */
-    private void checkDecoratorQuality(ClassNode classNode, List<LintResult> lintResults) {
-        // Find potential component fields (fields of interface/abstract types)
-        List<FieldNode> componentFields = findComponentFields(classNode);
-
-        // Get the expected component type (from interfaces or superclass)
-        Set<String> expectedComponentTypes = new HashSet<>();
-        if (classNode.interfaces != null) {
-            for (Object interfaceName : classNode.interfaces) {
-                expectedComponentTypes.add((String) interfaceName);
+    private class DecoratorQualityListener implements IInstructionListener {
+        private final ClassNode classNode;
+        private final ILintResultSink sink;
+        private final Set<String> expectedComponentTypes = new HashSet<>();
+        private final List<FieldNode> componentFields;
+        private final List<LintResult> constructorResults = new ArrayList<>();
+
+        // per component field: referenced at all, has a method called on it, loaded in the current method
+        private final boolean[] fieldUsed;
+        private final boolean[] fieldDelegated;
+        private final boolean[] fieldLoaded;
+
+        private boolean constructorStoresField;
+
+        DecoratorQualityListener(ClassNode classNode, ILintResultSink sink) {
+            this.classNode = classNode;
+            this.sink = sink;
+
+            // Find potential component fields (fields of interface/abstract types)
+            this.componentFields = findComponentFields(classNode);
+            this.fieldUsed = new boolean[componentFields.size()];
+            this.fieldDelegated = new boolean[componentFields.size()];
+            this.fieldLoaded = new boolean[componentFields.size()];
+
+            // Get the expected component type (from interfaces or superclass)
+            if (classNode.interfaces != null) {
+                for (Object interfaceName : classNode.interfaces) {
+                    expectedComponentTypes.add((String) interfaceName);
+                }
+            }
+            if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
+                expectedComponentTypes.add(classNode.superName);
             }
         }
-        if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-            expectedComponentTypes.add(classNode.superName);
+
+        @Override
+        public void beginMethod(MethodNode method) {
+            constructorStoresField = false;
+            Arrays.fill(fieldLoaded, false);
         }
 
-        // Check if constructor parameters match expected types but aren't stored
-        checkUnusedConstructorParameters(classNode, expectedComponentTypes, lintResults);
+        @Override
+        public void visitInsn(MethodNode method, AbstractInsnNode instruction) {
+            // Look for PUTFIELD instructions in the constructor
+            if (instruction instanceof FieldInsnNode && instruction.getOpcode() == Opcodes.PUTFIELD) {
+                constructorStoresField = true;
+            }
+
+            for (int i = 0; i < componentFields.size(); i++) {
+                String fieldName = componentFields.get(i).name;
+
+                if (instruction instanceof FieldInsnNode) {
+                    FieldInsnNode fieldInsn = (FieldInsnNode) instruction;
+                    if (fieldInsn.name.equals(fieldName)) {
+                        // Check if the component field is actually used
+                        if (fieldInsn.getOpcode() == Opcodes.GETFIELD ||
+                                fieldInsn.getOpcode() == Opcodes.PUTFIELD) {
+                            fieldUsed[i] = true;
+                        }
+                        // Check if field is loaded (GETFIELD)
+                        if (fieldInsn.getOpcode() == Opcodes.GETFIELD) {
+                            fieldLoaded[i] = true;
+                        }
+                    }
+                }
+
+                // Check if a method is called after field is loaded
+                if (fieldLoaded[i] && instruction instanceof MethodInsnNode) {
+                    fieldDelegated[i] = true; // Field is used to call a method (delegation)
+                }
 
-        // If we have component fields, check if they're used properly
-        if (componentFields.isEmpty()) {
-            return; // Already flagged by checkUnusedConstructorParameters if applicable
+                // If we store to a local variable, reset
+                if (instruction.getOpcode() == Opcodes.ASTORE) {
+                    fieldLoaded[i] = false;
+                }
+            }
         }
 
-        for (FieldNode componentField : componentFields) {
-            // Check if the component field is actually used
-            boolean fieldUsed = isFieldUsedInMethods(classNode, componentField.name);
-
-            if (!fieldUsed) {
-                lintResults.add(new LintResult(
-                        getName(),
-                        Category.PATTERN,
-                        "Decorator field '" + componentField.name + "' in class " + classNode.name + " is never used",
-                        "The decorator pattern requires the wrapped component to be used. " +
-                                "The field '" + componentField.name + "' appears to be a component field but is never referenced in any methods. " +
-                                "This suggests a poor decorator implementation where the decorator doesn't delegate to the wrapped object."
-                ));
-            } else {
-                // Check if field is used meaningfully (not just assigned)
-                boolean fieldUsedMeaningfully = isFieldDelegatedTo(classNode, componentField.name);
+        @Override
+        public void endMethod(MethodNode method) {
+            // Only check constructors
+            if (method.name.equals("<init>")) {
+                checkUnusedConstructorParameters(method, constructorStoresField && method.instructions != null);
+            }
+        }
+
+        @Override
+        public void endClass() {
+            for (LintResult result : constructorResults) {
+                sink.accept(result);
+            }
 
-                if (!fieldUsedMeaningfully) {
-                    lintResults.add(new LintResult(
+            for (int i = 0; i < componentFields.size(); i++) {
+                FieldNode componentField = componentFields.get(i);
+
+                if (!fieldUsed[i]) {
+                    sink.accept(new LintResult(
+                            getName(),
+                            Category.PATTERN,
+                            "Decorator field '" + componentField.name + "' in class " + classNode.name + " is never used",
+                            "The decorator pattern requires the wrapped component to be used. " +
+                                    "The field '" + componentField.name + "' appears to be a component field but is never referenced in any methods. " +
+                                    "This suggests a poor decorator implementation where the decorator doesn't delegate to the wrapped object."
+                    ));
+                } else if (!fieldDelegated[i]) {
+                    // Field is assigned but not used meaningfully
+                    sink.accept(new LintResult(
                             getName(),
                             Category.PATTERN,
                             "Decorator field '" + componentField.name + "' in class " + classNode.name + " is not properly delegated to",
@@ -168,6 +236,30 @@ public class DecoratorPatternCheck implements IPatternCheck {
                 }
             }
         }
+
+        /**
+         * Check for constructor parameters that are never stored
+         */
+        private void checkUnusedConstructorParameters(MethodNode method, boolean parameterStored) {
+            // Parse parameter types from descriptor
+            List<String> paramTypes = extractParameterTypes(method.desc);
+
+            // Check if any parameter matches the expected component type
+            for (String paramType : paramTypes) {
+                if (expectedComponentTypes.contains(paramType) && !parameterStored) {
+                    constructorResults.add(new LintResult(
+                            getName(),
+                            Category.PATTERN,
+                            "Constructor in decorator class " + classNode.name + " takes component parameter but doesn't store it",
+                            "The decorator pattern typically stores the wrapped component passed to the constructor. " +
+                                    "This constructor takes a parameter of type '" + getSimpleClassName(paramType) + "' " +
+                                    "but doesn't assign it to any field, which suggests the decorator is not properly " +
+                                    "storing the component to wrap."
+                    ));
+                    break; // Only report once per constructor
+                }
+            }
+        }
     }
 
     /**
@@ -201,129 +293,6 @@ public class DecoratorPatternCheck implements IPatternCheck {
         return componentFields;
     }
 
-    /**
-     * Check if a field is used anywhere in the class methods
-     */
-    private boolean isFieldUsedInMethods(ClassNode classNode, String fieldName) {
-        for (MethodNode method : classNode.methods) {
-            if (method.instructions == null) {
-                continue;
-            }
-
-            for (AbstractInsnNode instruction : method.instructions) {
-                if (instruction instanceof FieldInsnNode) {
-                    FieldInsnNode fieldInsn = (FieldInsnNode) instruction;
-                    if (fieldInsn.name.equals(fieldName) &&
-                            (fieldInsn.getOpcode() == Opcodes.GETFIELD ||
-                                    fieldInsn.getOpcode() == Opcodes.PUTFIELD)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Check if a field has method calls made on it (delegation)
-     */
-    private boolean isFieldDelegatedTo(ClassNode classNode, String fieldName) {
-        for (MethodNode method : classNode.methods) {
-            if (method.instructions == null) {
-                continue;
-            }
-
-            boolean fieldLoaded = false;
-
-            for (AbstractInsnNode instruction : method.instructions) {
-                // Check if field is loaded (GETFIELD)
-                if (instruction instanceof FieldInsnNode) {
-                    FieldInsnNode fieldInsn = (FieldInsnNode) instruction;
-                    if (fieldInsn.name.equals(fieldName) &&
-                            fieldInsn.getOpcode() == Opcodes.GETFIELD) {
-                        fieldLoaded = true;
-                    }
-                }
-
-                // Check if a method is called after field is loaded
-                if (fieldLoaded && instruction instanceof MethodInsnNode) {
-                    return true; // Field is used to call a method (delegation)
-                }
-
-                // Reset if we hit a label or other control flow
-                if (instruction instanceof LabelNode || instruction instanceof LineNumberNode) {
-                    continue;
-                }
-
-                // If we store to a local variable or call a different field, reset
-                if (instruction.getOpcode() == Opcodes.ASTORE) {
-                    fieldLoaded = false;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Check for constructor parameters that are never used
-     */
-    private void checkUnusedConstructorParameters(ClassNode classNode, Set<String> expectedComponentTypes, List<LintResult> lintResults) {
-        for (MethodNode method : classNode.methods) {
-            // Only check constructors
-            if (!method.name.equals("<init>")) {
-                continue;
-            }
-
-            // Parse parameter types from descriptor
-            List<String> paramTypes = extractParameterTypes(method.desc);
-
-            // Check if any parameter matches the expected component type
-            for (String paramType : paramTypes) {
-                if (expectedComponentTypes.contains(paramType)) {
-                    // This constructor takes the component type as parameter
-                    // Check if it's stored in a field
-                    boolean parameterStored = isParameterStoredInField(method, classNode.fields);
-
-                    if (!parameterStored) {
-                        lintResults.add(new LintResult(
-                                getName(),
-                                Category.PATTERN,
-                                "Constructor in decorator class " + classNode.name + " takes component parameter but doesn't store it",
-                                "The decorator pattern typically stores the wrapped component passed to the constructor. " +
-                                        "This constructor takes a parameter of type '" + getSimpleClassName(paramType) + "' " +
-                                        "but doesn't assign it to any field, which suggests the decorator is not properly " +
-                                        "storing the component to wrap."
-                        ));
-                        break; // Only report once per constructor
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Check if a constructor parameter is stored in a field
-     */
-    private boolean isParameterStoredInField(MethodNode constructor, List<FieldNode> fields) {
-        if (constructor.instructions == null) {
-            return false;
-        }
-
-        // Look for PUTFIELD instructions in the constructor
-        for (AbstractInsnNode instruction : constructor.instructions) {
-            if (instruction instanceof FieldInsnNode) {
-                FieldInsnNode fieldInsn = (FieldInsnNode) instruction;
-                if (fieldInsn.getOpcode() == Opcodes.PUTFIELD) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
     /**
      * Extract parameter types from method descriptor
      */
@@ -405,4 +374,14 @@ public class DecoratorPatternCheck implements IPatternCheck {
     public String getName() {
         return "DecoratorPatternCheck";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
@@ -0,0 +1,488 @@
+package Domain.PatternCheck;
+
+import Domain.PatternCheck.ThreeLayerPatternCheck.Layer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides which layer a class belongs to from its name.
+ *
+ * Rules come one per line, as layer, kind and pattern; # starts a comment:
+ *
+ *   presentation package com.shop.web         the package and its subpackages
+ *   data         suffix  Repository           classes whose name ends with it
+ *   domain       glob    com.shop.*.core.**   * within a name part, ** any number of parts
+ *
+ * The first rule that matches decides, and unknown can be used to keep classes out of the
+ * layers. A class no rule matches falls back to the keywords the check has always used,
+ * like "controller" or "dao" in its package or name.
+ *
+ * The rules are compiled once: package prefixes into a trie walked forwards over the
+ * package, suffixes into one walked backwards over the simple name, globs into their name
+ * parts, and the keywords into an Aho-Corasick automaton over folded letters. A name is
+ * classified in one pass over its characters, on the internal name as it is, without
+ * allocating. A Classifier also keeps what the package of a name led to, so the rest of
+ * the package's classes only look at their simple name.
+ */
+public final class LayerRules {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private static final LayerRules DEFAULTS = new LayerRules(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+    private final Layer[] layers;
+    private final Trie packages;
+    private final Trie suffixes;
+    private final String[][] globs;
+    private final int[] globRules;
+
+    private LayerRules(List<Layer> layers, List<String[]> patterns, List<String> kinds) {
+        this.layers = layers.toArray(new Layer[0]);
+        this.packages = new Trie();
+        this.suffixes = new Trie();
+        List<String[]> globs = new ArrayList<>();
+        List<Integer> globRules = new ArrayList<>();
+        for (int rule = 0; rule < kinds.size(); rule++) {
+            String[] parts = patterns.get(rule);
+            switch (kinds.get(rule)) {
+                case "package":
+                    packages.add(String.join("/", parts), rule, false);
+                    break;
+                case "suffix":
+                    suffixes.add(parts[0], rule, true);
+                    break;
+                default:
+                    globs.add(parts);
+                    globRules.add(rule);
+            }
+        }
+        this.globs = globs.toArray(new String[0][]);
+        this.globRules = globRules.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Only the keywords.
+     */
+    public static LayerRules defaults() {
+        return DEFAULTS;
+    }
+
+    public static LayerRules load(Path file) throws IOException {
+        try {
+            return parse(Files.readAllLines(file));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles the rules, one per line. Throws IllegalArgumentException naming the line of
+     * the first rule that cannot be read.
+     */
+    public static LayerRules parse(List<String> lines) {
+        List<Layer> layers = new ArrayList<>();
+        List<String[]> patterns = new ArrayList<>();
+        List<String> kinds = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": expected layer, kind and pattern, got '" + line + "'");
+            }
+            try {
+                layers.add(parseLayer(fields[0]));
+                kinds.add(fields[1]);
+                patterns.add(parsePattern(fields[1], fields[2]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return new LayerRules(layers, patterns, kinds);
+    }
+
+    private static Layer parseLayer(String name) {
+        for (Layer layer : Layer.values()) {
+            if (layer.name().equalsIgnoreCase(name)) {
+                return layer;
+            }
+        }
+        throw new IllegalArgumentException("unknown layer '" + name + "', expected one of "
+                + Arrays.toString(Layer.values()).toLowerCase(Locale.ROOT));
+    }
+
+    // the pattern split into its name parts; a suffix is a single part
+    private static String[] parsePattern(String kind, String pattern) {
+        String[] parts = pattern.split("\\.", -1);
+        for (String part : parts) {
+            if (part.isEmpty()) {
+                throw new IllegalArgumentException("empty name part in '" + pattern + "'");
+            }
+        }
+        switch (kind) {
+            case "package":
+            case "suffix":
+                if (pattern.indexOf('*') >= 0) {
+                    throw new IllegalArgumentException("a " + kind + " cannot contain *, use a glob");
+                }
+                if (kind.equals("suffix") && parts.length > 1) {
+                    throw new IllegalArgumentException("a suffix is part of a simple name and cannot contain '.'");
+                }
+                return parts;
+            case "glob":
+                for (String part : parts) {
+                    if (part.contains("**") && !part.equals("**")) {
+                        throw new IllegalArgumentException("** must be a whole name part in '" + pattern + "'");
+                    }
+                }
+                return parts;
+            default:
+                throw new IllegalArgumentException("unknown kind '" + kind + "', expected package, suffix or glob");
+        }
+    }
+
+    /**
+     * The layer of a class by internal name (com/shop/web/CartView).
+     */
+    public Layer classify(String internalName) {
+        int slash = internalName.lastIndexOf('/');
+        return classify(internalName, slash, packageVerdict(internalName, Math.max(0, slash)));
+    }
+
+    /**
+     * Classifies names one after another, remembering per package what the package led
+     * to. Not safe for several threads; take one per run.
+     */
+    public Classifier newClassifier() {
+        return new Classifier();
+    }
+
+    /**
+     * What the package alone says: the first package rule that matches it in the upper
+     * bits, and the layers whose keywords it contains in the lower three.
+     */
+    private long packageVerdict(String name, int packageEnd) {
+        int rule = NONE;
+        if (layers.length > 0) {
+            int node = 0;
+            for (int i = 0; node >= 0; i++) {
+                // a package prefix only matches whole name parts
+                if (i == packageEnd || name.charAt(i) == '/') {
+                    rule = Math.min(rule, packages.rule[node]);
+                }
+                if (i == packageEnd) {
+                    break;
+                }
+                node = packages.child(node, name.charAt(i));
+            }
+        }
+        int keywords = Keywords.scan(name, 0, packageEnd);
+        return (long) rule << 32 | (keywords | keywords >>> 3) & 7;
+    }
+
+    // slash is the last one in the name, or -1 in the default package
+    private Layer classify(String name, int slash, long packageVerdict) {
+        int nameStart = slash + 1;
+        int rule = (int) (packageVerdict >>> 32);
+        if (layers.length > 0) {
+            int node = 0;
+            for (int i = name.length() - 1; i >= nameStart - 1 && node >= 0; i--) {
+                rule = Math.min(rule, suffixes.rule[node]);
+                node = i >= nameStart ? suffixes.child(node, name.charAt(i)) : -1;
+            }
+            for (int g = 0; g < globs.length && globRules[g] < rule; g++) {
+                if (matchGlob(globs[g], 0, name, 0)) {
+                    rule = globRules[g];
+                }
+            }
+        }
+        if (rule != NONE) {
+            return layers[rule];
+        }
+
+        // the keywords for the whole name also count in the package, the package ones only there
+        int found = (int) packageVerdict & 7 | Keywords.scan(name, nameStart, name.length()) >>> 3;
+        for (Layer layer : Keywords.PRECEDENCE) {
+            if ((found & 1 << layer.ordinal()) != 0) {
+                return layer;
+            }
+        }
+        return Layer.UNKNOWN;
+    }
+
+    // whether the name parts of the glob from part match the name from index from on
+    private static boolean matchGlob(String[] parts, int part, String name, int from) {
+        if (part == parts.length) {
+            return from > name.length();
+        }
+        if (parts[part].equals("**")) {
+            for (int at = from; ; ) {
+                if (matchGlob(parts, part + 1, name, at)) {
+                    return true;
+                }
+                if (at > name.length()) {
+                    return false;
+                }
+                int slash = name.indexOf('/', at);
+                at = slash < 0 ? name.length() + 1 : slash + 1;
+            }
+        }
+        if (from > name.length()) {
+            return false;
+        }
+        int end = name.indexOf('/', from);
+        if (end < 0) {
+            end = name.length();
+        }
+        return matchPart(parts[part], name, from, end) && matchGlob(parts, part + 1, name, end + 1);
+    }
+
+    // * matches any run of characters within one name part
+    private static boolean matchPart(String pattern, String name, int from, int end) {
+        int p = 0;
+        int n = from;
+        int star = -1;
+        int starMatch = from;
+        while (n < end) {
+            if (p < pattern.length() && pattern.charAt(p) == '*') {
+                star = p++;
+                starMatch = n;
+            } else if (p < pattern.length() && pattern.charAt(p) == name.charAt(n)) {
+                p++;
+                n++;
+            } else if (star >= 0) {
+                p = star + 1;
+                n = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    /**
+     * A LayerRules with a cache of package verdicts. Names of the same package only pay
+     * for hashing their package and looking at their simple name.
+     */
+    public final class Classifier {
+        private String[] packageNames = new String[64];
+        private long[] verdicts = new long[64];
+        private int count;
+
+        private Classifier() {
+        }
+
+        public Layer classify(String internalName) {
+            int slash = internalName.lastIndexOf('/');
+            int packageEnd = Math.max(0, slash);
+            int hash = 0;
+            for (int i = 0; i < packageEnd; i++) {
+                hash = 31 * hash + internalName.charAt(i);
+            }
+            int mask = packageNames.length - 1;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (packageNames[slot] != null) {
+                String known = packageNames[slot];
+                if (known.length() == packageEnd && internalName.regionMatches(0, known, 0, packageEnd)) {
+                    return LayerRules.this.classify(internalName, slash, verdicts[slot]);
+                }
+                slot = (slot + 1) & mask;
+            }
+            long verdict = packageVerdict(internalName, packageEnd);
+            packageNames[slot] = internalName.substring(0, packageEnd);
+            verdicts[slot] = verdict;
+            if (++count * 2 > packageNames.length) {
+                grow();
+            }
+            return LayerRules.this.classify(internalName, slash, verdict);
+        }
+
+        private void grow() {
+            String[] oldNames = packageNames;
+            long[] oldVerdicts = verdicts;
+            packageNames = new String[oldNames.length * 2];
+            verdicts = new long[oldNames.length * 2];
+            int mask = packageNames.length - 1;
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    int hash = oldNames[i].hashCode();
+                    int slot = (hash ^ hash >>> 16) & mask;
+                    while (packageNames[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    packageNames[slot] = oldNames[i];
+                    verdicts[slot] = oldVerdicts[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * A character trie marking, at the node a pattern ends on, the first rule with that
+     * pattern. Children are few, so they are kept in small arrays and searched in order.
+     */
+    private static final class Trie {
+        int[] rule = {NONE};
+        char[][] labels = {new char[0]};
+        int[][] children = {new int[0]};
+
+        void add(String pattern, int ruleIndex, boolean backwards) {
+            int node = 0;
+            for (int k = 0; k < pattern.length(); k++) {
+                char c = pattern.charAt(backwards ? pattern.length() - 1 - k : k);
+                int next = child(node, c);
+                if (next < 0) {
+                    next = rule.length;
+                    rule = Arrays.copyOf(rule, next + 1);
+                    rule[next] = NONE;
+                    labels = Arrays.copyOf(labels, next + 1);
+                    labels[next] = new char[0];
+                    children = Arrays.copyOf(children, next + 1);
+                    children[next] = new int[0];
+                    int width = labels[node].length;
+                    labels[node] = Arrays.copyOf(labels[node], width + 1);
+                    labels[node][width] = c;
+                    children[node] = Arrays.copyOf(children[node], width + 1);
+                    children[node][width] = next;
+                }
+                node = next;
+            }
+            rule[node] = Math.min(rule[node], ruleIndex);
+        }
+
+        int child(int node, char c) {
+            char[] label = labels[node];
+            for (int i = 0; i < label.length; i++) {
+                if (label[i] == c) {
+                    return children[node][i];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * The default keywords in one Aho-Corasick automaton over the letters a to z, upper
+     * and lower case alike. Each state knows the layers of the keywords that end there:
+     * package keywords in bits 0 to 2, keywords for the whole name in bits 3 to 5, by
+     * layer ordinal.
+     */
+    private static final class Keywords {
+        static final Layer[] PRECEDENCE = {Layer.PRESENTATION, Layer.DATA, Layer.DOMAIN};
+
+        private static final String[][] PACKAGE_KEYWORDS = {
+                {"presentation", "controller", "view", "ui"},
+                {"persistence", "repository", "dao", "data"},
+                {"service", "business", "logic", "domain"}
+        };
+        private static final String[][] NAME_KEYWORDS = {
+                {"controller", "view", "frame", "panel"},
+                {"repository", "dao", "mapper", "query"},
+                {"service", "manager", "processor", "handler"}
+        };
+
+        private static final int[] NEXT;
+        private static final int[] OUTPUT;
+
+        static {
+            // the trie, with room for every letter of every keyword
+            int capacity = 1;
+            for (String[][] keywords : new String[][][]{PACKAGE_KEYWORDS, NAME_KEYWORDS}) {
+                for (String[] group : keywords) {
+                    for (String keyword : group) {
+                        capacity += keyword.length();
+                    }
+                }
+            }
+            int[] next = new int[capacity * 26];
+            int[] output = new int[capacity];
+            int states = 1;
+            for (int scope = 0; scope < 2; scope++) {
+                String[][] keywords = scope == 0 ? PACKAGE_KEYWORDS : NAME_KEYWORDS;
+                for (int group = 0; group < keywords.length; group++) {
+                    for (String keyword : keywords[group]) {
+                        int state = 0;
+                        for (int i = 0; i < keyword.length(); i++) {
+                            int letter = keyword.charAt(i) - 'a';
+                            if (next[state * 26 + letter] == 0) {
+                                next[state * 26 + letter] = states++;
+                            }
+                            state = next[state * 26 + letter];
+                        }
+                        output[state] |= 1 << (PRECEDENCE[group].ordinal() + 3 * scope);
+                    }
+                }
+            }
+
+            // failure links, breadth first, folded into the transitions
+            int[] fail = new int[states];
+            int[] queue = new int[states];
+            int tail = 0;
+            for (int letter = 0; letter < 26; letter++) {
+                if (next[letter] != 0) {
+                    queue[tail++] = next[letter];
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int state = queue[head];
+                output[state] |= output[fail[state]];
+                for (int letter = 0; letter < 26; letter++) {
+                    int child = next[state * 26 + letter];
+                    if (child != 0) {
+                        fail[child] = next[fail[state] * 26 + letter];
+                        queue[tail++] = child;
+                    } else {
+                        next[state * 26 + letter] = next[fail[state] * 26 + letter];
+                    }
+                }
+            }
+            NEXT = Arrays.copyOf(next, states * 26);
+            OUTPUT = Arrays.copyOf(output, states);
+        }
+
+        /**
+         * The layer bits of every keyword found between from and to.
+         */
+        static int scan(String name, int from, int to) {
+            int found = 0;
+            int state = 0;
+            for (int i = from; i < to; i++) {
+                int letter = letter(name.charAt(i));
+                // no keyword has anything but letters, so anything else starts over
+                state = letter < 0 ? 0 : NEXT[state * 26 + letter];
+                found |= OUTPUT[state];
+            }
+            return found;
+        }
+
+        private static int letter(char c) {
+            if (c >= 'a' && c <= 'z') {
+                return c - 'a';
+            }
+            if (c >= 'A' && c <= 'Z') {
+                return c - 'A';
+            }
+            if (c < 128) {
+                return -1;
+            }
+            char lower = Character.toLowerCase(c);
+            return lower >= 'a' && lower <= 'z' ? lower - 'a' : -1;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package Domain.PatternCheck;
 import Domain.Category;
 import Domain.Interfaces.IPatternCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class checks for the Strategy Pattern in a given class node.
@@ -141,4 +143,15 @@ public class StrategyPatternCheck implements IPatternCheck {
     public String getName() {
         return "StrategyPattern";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers for the reported location
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
@@ -1,15 +1,24 @@
 package Domain.PatternCheck;
 
+import Domain.AnalysisContext;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IPatternCheck;
+import Domain.Interfaces.ISummarizingCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.Source.ClassHeaderReader;
 import Domain.Category;
-import org.objectweb.asm.ClassReader;
+import Domain.Graph.ClassReferences;
+import Domain.Graph.DependencyGraph;
+import Domain.Graph.StronglyConnectedComponents;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.MethodNode;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,20 +26,42 @@ import java.nio.file.Paths;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.Set;
+import java.util.function.IntPredicate;
 
 /**
  * This class checks for the Three Layer Pattern in a given class node.
  */
 
-public class ThreeLayerPatternCheck implements IPatternCheck {
+public class ThreeLayerPatternCheck implements IPatternCheck, ISummarizingCheck<ClassReferences> {
+    private static final AnalysisContext.Key<ProjectModel> PROJECT_MODEL =
+            AnalysisContext.Key.of("ThreeLayerPattern.projectModel");
+
+    private final LayerRules layerRules;
+
     /**
-     * Enum representing the three layers of architecture.
+     * Places classes in layers by the keywords in their package and name.
      */
-    private Map<String, ClassInfo> analyzedClasses = new HashMap<>();
-    private List<LintResult> results = new ArrayList<>();
+    public ThreeLayerPatternCheck() {
+        this(LayerRules.defaults());
+    }
+
+    /**
+     * Places classes in layers by the given rules first, then by the keywords.
+     */
+    public ThreeLayerPatternCheck(LayerRules layerRules) {
+        this.layerRules = layerRules;
+    }
+
+    public LayerRules getLayerRules() {
+        return layerRules;
+    }
 
     /**
      * Finds the classes directory (e.g., target/classes or target/test-classes)
@@ -38,11 +69,6 @@ public class ThreeLayerPatternCheck implements IPatternCheck {
      */
     private String findClassesDirectory(ClassNode classNode) {
         String resourcePath = classNode.name + ".class"; // classNode.name uses slashes
-        String path = resourcePath.substring(0, resourcePath.lastIndexOf('.'));
-        File currentDirFile = new File(path);
-        String helper = currentDirFile.getAbsolutePath();
-//        System.out.println(helper + " " + resourcePath);
-//        System.out.println(helper + resourcePath);
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
         URL resource = loader.getResource(resourcePath);
         if (resource == null) {
@@ -79,286 +105,504 @@ public class ThreeLayerPatternCheck implements IPatternCheck {
         }
         return null;
     }
+    @Override
+    public void beginProject(AnalysisContext context) {
+        ProjectModel model = new ProjectModel(context.getClassNodes(), getSummaries(context), List.of());
+        model.findIndirectViolations();
+        context.put(PROJECT_MODEL, model);
+    }
+
+    /**
+     * The model only needs what each class refers to; the layers come from the names.
+     */
+    @Override
+    public ClassReferences summarize(ClassNode classNode) {
+        return ClassReferences.of(classNode);
+    }
+
+    @Override
+    public void writeSummary(ClassReferences summary, DataOutput out) throws IOException {
+        summary.writeTo(out);
+    }
+
+    @Override
+    public ClassReferences readSummary(DataInput in) throws IOException {
+        return ClassReferences.readFrom(in);
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        // Inside a run the model was built once in beginProject
+        ProjectModel model = context.get(PROJECT_MODEL);
+        List<LintResult> results;
+        if (model == null) {
+            results = execute(classNode);
+        } else if (model.graph.idOf(classNode) >= 0) {
+            int node = model.graph.idOf(classNode);
+            results = evaluatePattern(model, node);
+            results.addAll(model.indirectResults.getOrDefault(node, List.of()));
+        } else {
+            // not part of the project model, but its own references can still be checked
+            results = evaluatePattern(model.around(classNode), 0);
+        }
+        for (LintResult result : results) {
+            sink.accept(result);
+        }
+    }
+
     @Override
     public List<LintResult> execute(ClassNode classNode) {
-        String className = classNode.name.replace('/', '.');
+        // Called on its own, the check scans the classes directory the class came from.
+        // Only this class's references are judged, so the others are only named.
+        List<String> otherClasses = scanClassesDirectory(classNode);
+        if (otherClasses == null) {
+            return new ArrayList<>();
+        }
 
-//        System.out.println("Starting analysis from main class: " + className);
+        return evaluatePattern(new ProjectModel(List.of(classNode), otherClasses), 0);
+    }
 
+    /**
+     * The internal names of every class in the classes directory of the given class, read
+     * from the class file headers. Returns null if the directory cannot be found or
+     * walked. Class files that cannot be read are left out.
+     */
+    private List<String> scanClassesDirectory(ClassNode classNode) {
         // Derive the classes directory from the ClassNode
         String classesDirectory = findClassesDirectory(classNode);
-
         if (classesDirectory == null) {
-            System.out.println("Classes directory not found: " + classesDirectory);
-            return results;
+            return null;
         }
 
         Path classesPath = Paths.get(classesDirectory);
-
         if (!Files.exists(classesPath)) {
-           System.out.println("Classes directory not found: " + classesDirectory);
-            return results;
+            return null;
         }
 
-//        System.out.println("Analyzing classes in: " + classesDirectory);
-//        System.out.println("=".repeat(80));
+        List<String> classNames = new ArrayList<>();
 
-        // First, analyze the main class from the provided ClassNode
-        analyzeClassNode(classNode);
-
-        // Then find and analyze all other .class files
+        // Find and name all .class files
         try (Stream<Path> paths = Files.walk(classesPath)) {
             List<Path> classFiles = paths
                     .filter(Files::isRegularFile)
                     .filter(p -> p.toString().endsWith(".class"))
                     .collect(Collectors.toList());
 
-            System.out.println("Found " + classFiles.size() + " class files\n");
-
+            ClassHeaderReader headerReader = new ClassHeaderReader();
             for (Path classFile : classFiles) {
-                analyzeClass(classFile);
+                String className = readClassName(headerReader, classFile);
+                if (className != null) {
+                    classNames.add(className);
+                }
             }
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+        } catch (IOException | UncheckedIOException e) {
+            return null;
         }
 
-        List<Reference> references = getReferences(classNode);
-
-        evaluatePattern(references);
-
-        return results;
+        return classNames;
     }
 
-    private void evaluatePattern(List<Reference> references) {
-        // Check each reference for three-layer pattern violations
-        for (Reference ref : references) {
-            String violation = checkLayerViolation(ref.sourceClass, ref.targetClass);
+    /**
+     * Judges the field and call edges of one node; supertypes are not judged.
+     */
+    private List<LintResult> evaluatePattern(ProjectModel model, int node) {
+        List<LintResult> results = new ArrayList<>();
+        DependencyGraph graph = model.graph;
+        for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+            DependencyGraph.EdgeType type = graph.getType(edge);
+            if (type == DependencyGraph.EdgeType.SUPERTYPE) {
+                continue;
+            }
+            int target = graph.getTarget(edge);
+            String violation = checkLayerViolation(model.layers[node], model.layers[target], model.names[target]);
             if (violation != null) {
+                String source = describeEdge(graph, edge);
                 LintResult result = new LintResult(
                     "ThreeLayerPattern",
                     Category.PATTERN,
-                    ref.sourceClass.name + " (" + ref.source + ")",
+                    model.names[node] + " (" + source + ")",
                     violation
                 );
                 results.add(result);
             }
         }
+        return results;
     }
     
     /**
      * Checks if there is a three-layer pattern violation between two classes.
      * Returns null if no violation, or a violation description if one exists.
      */
-    private String checkLayerViolation(ClassInfo sourceClass, ClassInfo targetClass) {
-        Layer sourceLayer = sourceClass.layer;
-        Layer targetLayer = targetClass.layer;
-        
+    private String checkLayerViolation(Layer sourceLayer, Layer targetLayer, String targetName) {
         // PRESENTATION should only reference DOMAIN or other PRESENTATION
         if (sourceLayer == Layer.PRESENTATION) {
             if (targetLayer == Layer.DATA) {
-                return "Presentation layer class references Data layer class directly: " + targetClass.name;
+                return "Presentation layer class references Data layer class directly: " + targetName;
             }
             if (targetLayer == Layer.UNKNOWN) {
-                return "Presentation layer class references unknown layer class: " + targetClass.name;
+                return "Presentation layer class references unknown layer class: " + targetName;
             }
         }
         
         // DATA should not reference PRESENTATION or DOMAIN
         if (sourceLayer == Layer.DATA) {
             if (targetLayer == Layer.PRESENTATION) {
-                return "Data layer class references Presentation layer class: " + targetClass.name;
+                return "Data layer class references Presentation layer class: " + targetName;
             }
             if (targetLayer == Layer.DOMAIN) {
-                return "Data layer class references Domain layer class: " + targetClass.name;
+                return "Data layer class references Domain layer class: " + targetName;
             }
         }
         
         // DOMAIN can reference DATA and DOMAIN, but not PRESENTATION
         if (sourceLayer == Layer.DOMAIN) {
             if (targetLayer == Layer.PRESENTATION) {
-                return "Domain layer class references Presentation layer class: " + targetClass.name;
+                return "Domain layer class references Presentation layer class: " + targetName;
             }
         }
         
         return null;
     }
-    private List<Reference> getReferences(ClassNode classNode) {
-        List<Reference> refList = new ArrayList<>();
-        ClassInfo classInfo = analyzedClasses.get(classNode.name.replace('/', '.'));
-        // For each analyzed class, find and link its referenced classes
-            if (classNode != null && classNode.fields != null) {
-                for (Object fieldObj : classNode.fields) {
-                    org.objectweb.asm.tree.FieldNode field = (org.objectweb.asm.tree.FieldNode) fieldObj;
-                    String fieldType = extractClassNameFromDescriptor(field.desc);
-                    if (fieldType != null) {
-                        ClassInfo referencedClass = analyzedClasses.get(fieldType);
-                        if (referencedClass != null) {
-                            // Record this specific field reference
-                            refList.add(new Reference(classInfo, referencedClass, "field: " + field.name));
+
+    private String readClassName(ClassHeaderReader headerReader, Path classFile) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+            return headerReader.readClassName(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private boolean isAllowed(Layer sourceLayer, Layer targetLayer) {
+        return checkLayerViolation(sourceLayer, targetLayer, "") == null;
+    }
+
+    private static String layerName(Layer layer) {
+        switch (layer) {
+            case PRESENTATION:
+                return "Presentation";
+            case DOMAIN:
+                return "Domain";
+            case DATA:
+                return "Data";
+            default:
+                return "unknown";
+        }
+    }
+
+    private static String describeEdge(DependencyGraph graph, int edge) {
+        return graph.getType(edge) == DependencyGraph.EdgeType.FIELD
+                ? "field: " + graph.getMember(edge)
+                : "method " + graph.getMember(edge) + " calls: " + graph.getCallee(edge);
+    }
+
+    @Override
+    public String getName() {
+        return "ThreeLayerPattern";
+    }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * The dependency graph of a run, with the layer and dotted name of every node worked
+     * out once. Layers only depend on the name, so classes known only by name get one too.
+     *
+     * In a run the model also looks past direct references, over the field and call edges
+     * of the whole graph, in time linear in its size:
+     * - a class that reaches a class of a layer it must not use through classes that are
+     *   in no layer. The unlayered classes are condensed into their strongly connected
+     *   components; walking the condensed DAG from its sinks gives each component the
+     *   layers it leads to, and a breadth-first pass inside each component leaves every
+     *   node a next step towards each of them, so a witness path is only a walk.
+     * - classes of different layers that depend on each other in a cycle: a strongly
+     *   connected component of the whole graph with more than one layer in it. It is
+     *   reported once, at its first layered class, with a closed walk through two of
+     *   its layers made of two shortest paths.
+     */
+    private final class ProjectModel {
+        final DependencyGraph graph;
+        final Layer[] layers;
+        final String[] names;
+        final Map<Integer, List<LintResult>> indirectResults = new HashMap<>();
+
+        ProjectModel(List<ClassNode> classNodes, List<String> headerOnly) {
+            this(DependencyGraph.build(classNodes, headerOnly));
+        }
+
+        ProjectModel(List<ClassNode> classNodes, List<ClassReferences> references, List<String> headerOnly) {
+            this(DependencyGraph.build(classNodes, references, headerOnly));
+        }
+
+        private ProjectModel(DependencyGraph graph) {
+            this.graph = graph;
+            layers = new Layer[graph.size()];
+            names = new String[graph.size()];
+            LayerRules.Classifier classifier = layerRules.newClassifier();
+            for (int node = 0; node < graph.size(); node++) {
+                String internalName = graph.getInternalName(node);
+                if (internalName == null) {
+                    internalName = "";
+                }
+                names[node] = internalName.replace('/', '.');
+                layers[node] = classifier.classify(internalName);
+            }
+        }
+
+        /**
+         * A model of a class that is not in this one, with just the classes of this one
+         * it refers to, so its references can be judged without building the whole
+         * project again. The class is node 0.
+         */
+        ProjectModel around(ClassNode classNode) {
+            List<String> known = new ArrayList<>();
+            for (String name : DependencyGraph.referencedNames(classNode)) {
+                if (!name.equals(classNode.name) && graph.idOf(name) >= 0) {
+                    known.add(name);
+                }
+            }
+            return new ProjectModel(List.of(classNode), known);
+        }
+
+        void findIndirectViolations() {
+            IntPredicate dependency = edge -> graph.getType(edge) != DependencyGraph.EdgeType.SUPERTYPE;
+            findLeaksThroughUnlayeredClasses(dependency);
+            findLayerCycles(dependency);
+        }
+
+        private void findLeaksThroughUnlayeredClasses(IntPredicate dependency) {
+            StronglyConnectedComponents unlayered = StronglyConnectedComponents.of(
+                    graph, node -> layers[node] == Layer.UNKNOWN, dependency);
+            int count = unlayered.getCount();
+
+            // the layers each component leads to; components only lead to lower numbers
+            int[] reach = new int[count];
+            for (int c = 0; c < count; c++) {
+                for (int i = 0; i < unlayered.getSize(c); i++) {
+                    int node = unlayered.getMember(c, i);
+                    for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+                        if (dependency.test(edge)) {
+                            reach[c] |= reachOf(unlayered, reach, graph.getTarget(edge));
                         }
                     }
                 }
             }
 
-            if (classNode != null) {
-                for(MethodNode method : classInfo.methods){
-                    if(method.instructions != null) {
-                        for (Object insnObj : method.instructions) {
-                            if (insnObj instanceof org.objectweb.asm.tree.MethodInsnNode) {
-                                org.objectweb.asm.tree.MethodInsnNode methodCall = (org.objectweb.asm.tree.MethodInsnNode) insnObj;
-                                String calledClass = methodCall.owner.replace('/', '.');
-                                ClassInfo referencedClass = analyzedClasses.get(calledClass);
-                                if (referencedClass != null) {
-                                    // Record this specific method call reference
-                                    refList.add(new Reference(classInfo, referencedClass, "method " + method.name + " calls: " + methodCall.name));
-                                }
+            // edges inside a component, by target, so the component can be searched backwards
+            int size = graph.size();
+            int[] firstInner = new int[size + 1];
+            forEachInnerEdge(unlayered, dependency, (source, edge) -> firstInner[graph.getTarget(edge) + 1]++);
+            for (int node = 0; node < size; node++) {
+                firstInner[node + 1] += firstInner[node];
+            }
+            int[] innerEdges = new int[firstInner[size]];
+            int[] innerSources = new int[firstInner[size]];
+            int[] filled = Arrays.copyOf(firstInner, size);
+            forEachInnerEdge(unlayered, dependency, (source, edge) -> {
+                int slot = filled[graph.getTarget(edge)]++;
+                innerEdges[slot] = edge;
+                innerSources[slot] = source;
+            });
+
+            // for each layer, the edge each unlayered node takes towards it
+            Layer[] targets = {Layer.PRESENTATION, Layer.DOMAIN, Layer.DATA};
+            int[][] next = new int[targets.length][size];
+            int[] queue = new int[size];
+            for (int t = 0; t < targets.length; t++) {
+                int bit = 1 << targets[t].ordinal();
+                int[] step = next[t];
+                Arrays.fill(step, -1);
+                for (int c = 0; c < count; c++) {
+                    if ((reach[c] & bit) == 0) {
+                        continue;
+                    }
+                    // members with an edge out of the component that leads to the layer
+                    int tail = 0;
+                    for (int i = 0; i < unlayered.getSize(c); i++) {
+                        int node = unlayered.getMember(c, i);
+                        for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+                            int target = graph.getTarget(edge);
+                            if (dependency.test(edge) && unlayered.getComponent(target) != c
+                                    && (reachOf(unlayered, reach, target) & bit) != 0) {
+                                step[node] = edge;
+                                queue[tail++] = node;
+                                break;
+                            }
+                        }
+                    }
+                    // then the members that reach those inside the component
+                    for (int head = 0; head < tail; head++) {
+                        int node = queue[head];
+                        for (int slot = firstInner[node]; slot < firstInner[node + 1]; slot++) {
+                            int source = innerSources[slot];
+                            if (step[source] < 0) {
+                                step[source] = innerEdges[slot];
+                                queue[tail++] = source;
                             }
                         }
                     }
                 }
             }
-        
-        return refList;
-    }
 
-    private void analyzeClass(Path classFile) {
-        try {
-            byte[] classData = Files.readAllBytes(classFile);
-            ClassReader reader = new ClassReader(classData);
-            ClassNode classNode = new ClassNode();
-            reader.accept(classNode, ClassReader.EXPAND_FRAMES);
-            analyzeClassNode(classNode);
-        } catch (IOException e) {
-            System.err.println("Failed to analyze class file: " + classFile);
-            e.printStackTrace();
+            for (int node = 0; node < size; node++) {
+                if (layers[node] == Layer.UNKNOWN) {
+                    continue;
+                }
+                for (int t = 0; t < targets.length; t++) {
+                    if (isAllowed(layers[node], targets[t])) {
+                        continue;
+                    }
+                    // the first reference into the unlayered classes that leads there
+                    for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+                        int target = graph.getTarget(edge);
+                        if (dependency.test(edge) && layers[target] == Layer.UNKNOWN
+                                && (reach[unlayered.getComponent(target)] & 1 << targets[t].ordinal()) != 0) {
+                            StringBuilder path = new StringBuilder(names[node]);
+                            int current = target;
+                            while (layers[current] == Layer.UNKNOWN) {
+                                path.append(" -> ").append(names[current]);
+                                current = graph.getTarget(next[t][current]);
+                            }
+                            path.append(" -> ").append(names[current]);
+                            report(node, names[node] + " (" + describeEdge(graph, edge) + ")",
+                                    layerName(layers[node]) + " layer class reaches " + layerName(targets[t])
+                                            + " layer class through classes outside the layers: " + path);
+                            break;
+                        }
+                    }
+                }
+            }
         }
-    }
 
-    private void analyzeClassNode(ClassNode classNode) {
-        String className = classNode.name.replace('/', '.');
-        ClassInfo classInfo = new ClassInfo(className, determineLayer(className, classNode));
-        classInfo.node = classNode;
-        
-        // Extract superclass
-        if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-            classInfo.superClasses.add(classNode.superName.replace('/', '.'));
-        }
-        
-        // Extract interfaces
-        if (classNode.interfaces != null) {
-            for (Object iface : classNode.interfaces) {
-                classInfo.superClasses.add(((String) iface).replace('/', '.'));
+        // the layer bit of a layered node, or the layers its unlayered component leads to
+        private int reachOf(StronglyConnectedComponents unlayered, int[] reach, int node) {
+            if (layers[node] != Layer.UNKNOWN) {
+                return 1 << layers[node].ordinal();
             }
+            return reach[unlayered.getComponent(node)];
         }
 
-        if(classNode.methods != null) {
-            for (Object methodObj : classNode.methods) {
-                MethodNode method = (MethodNode) methodObj;
-                classInfo.methods.add(method);
+        private void forEachInnerEdge(StronglyConnectedComponents components, IntPredicate dependency,
+                                      EdgeAction action) {
+            for (int node = 0; node < graph.size(); node++) {
+                int component = components.getComponent(node);
+                if (component < 0) {
+                    continue;
+                }
+                for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+                    if (dependency.test(edge) && components.getComponent(graph.getTarget(edge)) == component) {
+                        action.accept(node, edge);
+                    }
+                }
             }
         }
-        
-        // Store in the map
-        analyzedClasses.put(className, classInfo);
-    }
-    
-    /**
-     * Converts an ASM type descriptor to a class name.
-     * Examples: "Ljava/lang/String;" -> "java.lang.String", "I" -> null
-     */
-    private String extractClassNameFromDescriptor(String descriptor) {
-        if (descriptor == null || descriptor.isEmpty()) {
-            return null;
-        }
-        if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
-            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
-        }
-        // Primitive types (I, Z, V, etc.) return null
-        return null;
-    }
-    
-    /**
-     * Determines which layer a class belongs to based on package name and class name.
-     * The three layers are: Presentation, Business Logic (Service), and Data Access (Persistence).
-     */
-    private Layer determineLayer(String className, ClassNode classNode) {
-        String lowerClassName = className.toLowerCase();
-        String lowerPackage = className.substring(0, Math.max(0, className.lastIndexOf('.'))).toLowerCase();
-        
-        // Check for Presentation layer indicators
-        if (lowerPackage.contains("presentation") || lowerPackage.contains("controller") || 
-            lowerPackage.contains("view") || lowerPackage.contains("ui") ||
-            lowerClassName.contains("controller") || lowerClassName.contains("view") || 
-            lowerClassName.contains("frame") || lowerClassName.contains("panel")) {
-            return Layer.PRESENTATION;
-        }
-        
-        // Check for Data Access layer indicators
-        if (lowerPackage.contains("persistence") || lowerPackage.contains("repository") || 
-            lowerPackage.contains("dao") || lowerPackage.contains("data") ||
-            lowerClassName.contains("repository") || lowerClassName.contains("dao") || 
-            lowerClassName.contains("mapper") || lowerClassName.contains("query")) {
-            return Layer.DATA;
-        }
-        
-        // Check for Business Logic layer indicators
-        if (lowerPackage.contains("service") || lowerPackage.contains("business") || 
-            lowerPackage.contains("logic") || lowerPackage.contains("domain") ||
-            lowerClassName.contains("service") || lowerClassName.contains("manager") || 
-            lowerClassName.contains("processor") || lowerClassName.contains("handler")) {
-            return Layer.DOMAIN;
+
+        private void findLayerCycles(IntPredicate dependency) {
+            StronglyConnectedComponents all = StronglyConnectedComponents.of(graph, node -> true, dependency);
+            int[] parent = new int[graph.size()];
+            Arrays.fill(parent, -1);
+            for (int c = 0; c < all.getCount(); c++) {
+                int first = -1;
+                int other = -1;
+                for (int i = 0; i < all.getSize(c) && other < 0; i++) {
+                    int node = all.getMember(c, i);
+                    if (layers[node] == Layer.UNKNOWN) {
+                        continue;
+                    }
+                    if (first < 0) {
+                        first = node;
+                    } else if (layers[node] != layers[first]) {
+                        other = node;
+                    }
+                }
+                if (other < 0) {
+                    continue;
+                }
+
+                List<Integer> cycle = pathWithin(all, c, first, other, parent);
+                List<Integer> back = pathWithin(all, c, other, first, parent);
+                cycle.addAll(back.subList(1, back.size()));
+                StringBuilder path = new StringBuilder();
+                Set<Layer> cycleLayers = EnumSet.noneOf(Layer.class);
+                for (int node : cycle) {
+                    if (path.length() > 0) {
+                        path.append(" -> ");
+                    }
+                    path.append(names[node]);
+                    if (layers[node] != Layer.UNKNOWN) {
+                        cycleLayers.add(layers[node]);
+                    }
+                }
+                StringBuilder layerNames = new StringBuilder();
+                int listed = 0;
+                for (Layer layer : cycleLayers) {
+                    if (listed > 0) {
+                        layerNames.append(++listed == cycleLayers.size() ? " and " : ", ");
+                    } else {
+                        listed++;
+                    }
+                    layerNames.append(layerName(layer));
+                }
+                report(first, names[first],
+                        "Classes of the " + layerNames + " layers depend on each other in a cycle: " + path);
+            }
         }
-        
-        // Default to unknown if no indicators found
-        return Layer.UNKNOWN;
-    }
-    @Override
-    public String getName() {
-        // TODO Auto-generated method stub
-        return "ThreeLayerPattern";
-    }
 
-    private class ClassInfo {
-        String name;
-        Layer layer;
-        ClassNode node;
-        List<String> superClasses = new ArrayList<>();
-        List<MethodNode> methods = new ArrayList<>();
-        List<ClassInfo> vars = new ArrayList<>();
-
-        public ClassInfo(String name, Layer layer) {
-            this.name = name;
-            this.layer = layer;
+        /**
+         * A shortest path from one member of the component to another, by breadth-first
+         * search inside it. parent must be all -1 and is left that way.
+         */
+        private List<Integer> pathWithin(StronglyConnectedComponents components, int component,
+                                         int from, int to, int[] parent) {
+            List<Integer> visited = new ArrayList<>();
+            parent[from] = from;
+            visited.add(from);
+            for (int head = 0; head < visited.size() && parent[to] < 0; head++) {
+                int node = visited.get(head);
+                for (int edge = graph.getFirstEdge(node); edge < graph.getEdgeEnd(node); edge++) {
+                    int target = graph.getTarget(edge);
+                    if (graph.getType(edge) != DependencyGraph.EdgeType.SUPERTYPE
+                            && components.getComponent(target) == component && parent[target] < 0) {
+                        parent[target] = node;
+                        visited.add(target);
+                    }
+                }
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int node = to; node != from; node = parent[node]) {
+                path.add(node);
+            }
+            path.add(from);
+            Collections.reverse(path);
+            for (int node : visited) {
+                parent[node] = -1;
+            }
+            return path;
         }
 
-        public void addVar(ClassInfo var) {
-            vars.add(var);
+        private void report(int node, String location, String message) {
+            indirectResults.computeIfAbsent(node, n -> new ArrayList<>())
+                    .add(new LintResult("ThreeLayerPattern", Category.PATTERN, location, message));
         }
     }
 
-    enum Layer {
+    private interface EdgeAction {
+        void accept(int source, int edge);
+    }
+
+    /**
+     * The three layers of the architecture, and UNKNOWN for classes outside them.
+     */
+    public enum Layer {
         PRESENTATION,
         DOMAIN,
         DATA,
         UNKNOWN
     }
-    
-    /**
-     * Inner class to track individual references between classes.
-     * Records which class references which other class and the source (field/method).
-     */
-    private class Reference {
-        ClassInfo sourceClass;
-        ClassInfo targetClass;
-        String source;  // e.g., "field: userList" or "method doCalculation calls: getValue"
-        
-        Reference(ClassInfo sourceClass, ClassInfo targetClass, String source) {
-            this.sourceClass = sourceClass;
-            this.targetClass = targetClass;
-            this.source = source;
-        }
-    }
 }
-
-
@@ -0,0 +1,225 @@
+package Domain.PrincipleCheck;
+
+import Domain.AnalysisContext;
+import Domain.Category;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IPrincipleCheck;
+import Domain.Interfaces.IProjectCheck;
+import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.Similarity.InstructionTokenizer;
+import Domain.Similarity.SuffixArray;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class checks for copied runs of instructions anywhere in the project.
+ *
+ * Every method is tokenized with InstructionTokenizer and all methods are concatenated,
+ * each followed by a separator token of its own so no match runs from one method into the
+ * next. A suffix array and LCP array over the concatenation give, for each pair of
+ * neighbouring suffixes, how far they match; every such match of at least MIN_CLONE_TOKENS
+ * tokens that cannot be extended to the left is a maximal clone candidate. Normalized
+ * tokens do not say which local an instruction uses, so a candidate is only a clone where
+ * the locals of one run map one to one onto those of the other; it is cut where they do
+ * not. Identical exact tokens make it a Type-1 clone, otherwise it is a Type-2 clone
+ * (renamed locals, constants or members). The whole search is O(tokens * log tokens).
+ */
+public class BytecodeCloneCheck implements IPrincipleCheck, IProjectCheck {
+
+    private static final AnalysisContext.Key<Map<String, List<LintResult>>> RESULTS =
+            AnalysisContext.Key.of("BytecodeClone.results");
+
+    private static final int MIN_CLONE_TOKENS = 40; // about eight to ten lines of source
+
+    @Override
+    public void beginProject(AnalysisContext context) {
+        context.put(RESULTS, findClones(context.getClassNodes()));
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        Map<String, List<LintResult>> results = context.get(RESULTS);
+        List<LintResult> classResults = results != null
+                ? results.getOrDefault(classNode.name, List.of())
+                : execute(classNode);
+        for (LintResult result : classResults) {
+            sink.accept(result);
+        }
+    }
+
+    @Override
+    public List<LintResult> execute(ClassNode classNode) {
+        // Called on its own, the check finds the clones within the class
+        return findClones(List.of(classNode)).getOrDefault(classNode.name, new ArrayList<>());
+    }
+
+    private Map<String, List<LintResult>> findClones(List<ClassNode> classNodes) {
+        InstructionTokenizer tokenizer = new InstructionTokenizer();
+        List<ClassNode> owners = new ArrayList<>();
+        List<MethodNode> methods = new ArrayList<>();
+        List<InstructionTokenizer.TokenizedMethod> tokenized = new ArrayList<>();
+        int total = 0;
+        for (ClassNode classNode : classNodes) {
+            if (classNode.methods == null) continue;
+            for (MethodNode method : classNode.methods) {
+                // compiler-generated code is not anybody's copy and paste
+                if ((method.access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) continue;
+                if (method.instructions == null || method.instructions.size() < MIN_CLONE_TOKENS) continue;
+                InstructionTokenizer.TokenizedMethod tokens = tokenizer.tokenize(method);
+                if (tokens.getNormalized().length < MIN_CLONE_TOKENS) continue;
+                owners.add(classNode);
+                methods.add(method);
+                tokenized.add(tokens);
+                total += tokens.getNormalized().length + 1;
+            }
+        }
+
+        // all methods in one sequence, each closed by a separator of its own
+        int[] sequence = new int[total];
+        int[] starts = new int[methods.size()];
+        int separator = tokenizer.getNormalizedTokenCount();
+        int position = 0;
+        for (int m = 0; m < methods.size(); m++) {
+            int[] tokens = tokenized.get(m).getNormalized();
+            starts[m] = position;
+            System.arraycopy(tokens, 0, sequence, position, tokens.length);
+            position += tokens.length;
+            sequence[position++] = separator++;
+        }
+
+        int[] sa = SuffixArray.build(sequence);
+        int[] lcp = SuffixArray.lcp(sequence, sa);
+
+        List<long[]> clones = new ArrayList<>(); // {first position, second position, length}
+        for (int i = 1; i < sa.length; i++) {
+            int length = lcp[i];
+            if (length < MIN_CLONE_TOKENS) continue;
+            int p = Math.min(sa[i - 1], sa[i]);
+            int q = Math.max(sa[i - 1], sa[i]);
+            // a match that extends to the left is part of a longer clone found elsewhere
+            if (p > 0 && sequence[p - 1] == sequence[q - 1]) continue;
+            int mp = methodAt(starts, p);
+            if (mp == methodAt(starts, q) && q < p + length) {
+                // a run repeating within one method; keep the part that does not overlap
+                length = q - p;
+                if (length < MIN_CLONE_TOKENS) continue;
+            }
+            int mq = methodAt(starts, q);
+            addConsistentRuns(clones, tokenized.get(mp).getLocals(), p - starts[mp],
+                    tokenized.get(mq).getLocals(), q - starts[mq], p, q, length);
+        }
+        clones.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        Map<String, List<LintResult>> results = new HashMap<>();
+        for (long[] clone : clones) {
+            int p = (int) clone[0];
+            int q = (int) clone[1];
+            int length = (int) clone[2];
+            int mp = methodAt(starts, p);
+            int mq = methodAt(starts, q);
+            int from1 = p - starts[mp];
+            int from2 = q - starts[mq];
+            boolean exact = Arrays.equals(tokenized.get(mp).getExact(), from1, from1 + length,
+                    tokenized.get(mq).getExact(), from2, from2 + length);
+
+            String second = owners.get(mq) == owners.get(mp)
+                    ? methods.get(mq).name
+                    : owners.get(mq).name.replace('/', '.') + "." + methods.get(mq).name;
+            int[] lines = tokenized.get(mp).getLines();
+            results.computeIfAbsent(owners.get(mp).name, k -> new ArrayList<>()).add(new LintResult(
+                    getName(),
+                    Category.PRINCIPLE,
+                    String.valueOf(lines[from1]),
+                    "Methods '" + methods.get(mp).name + "' (" + range(lines, from1, length) + ") and '" +
+                            second + "' (" + range(tokenized.get(mq).getLines(), from2, length) +
+                            ") share a Type-" + (exact ? 1 : 2) + " clone of " + length + " instructions"
+            ));
+        }
+        return results;
+    }
+
+    /**
+     * Adds the parts of a candidate in which every local of the first run stands for the
+     * same local of the second and the other way round, as long as they are long enough.
+     * At a use that breaks the mapping a new part starts with a fresh one.
+     */
+    private static void addConsistentRuns(List<long[]> clones, int[] locals1, int from1, int[] locals2, int from2,
+                                          int p, int q, int length) {
+        Map<Integer, Integer> forward = new HashMap<>();
+        Map<Integer, Integer> backward = new HashMap<>();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            int a = locals1[from1 + i];
+            int b = locals2[from2 + i];
+            if (a < 0) continue; // the tokens match, so b is no local either
+            Integer mappedA = forward.get(a);
+            Integer mappedB = backward.get(b);
+            if ((mappedA != null && mappedA != b) || (mappedB != null && mappedB != a)) {
+                if (i - start >= MIN_CLONE_TOKENS) {
+                    clones.add(new long[] {p + start, q + start, i - start});
+                }
+                start = i;
+                forward.clear();
+                backward.clear();
+            }
+            forward.put(a, b);
+            backward.put(b, a);
+        }
+        if (length - start >= MIN_CLONE_TOKENS) {
+            clones.add(new long[] {p + start, q + start, length - start});
+        }
+    }
+
+    // the method a position of the concatenation falls in
+    private static int methodAt(int[] starts, int position) {
+        int index = Arrays.binarySearch(starts, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // the source lines of a run of instructions, or their indices without line numbers
+    private static String range(int[] lines, int from, int length) {
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (int i = from; i < from + length; i++) {
+            if (lines[i] >= 0) {
+                first = Math.min(first, lines[i]);
+                last = Math.max(last, lines[i]);
+            }
+        }
+        if (last < 0) {
+            return "instructions " + (from + 1) + "-" + (from + length);
+        }
+        return first == last ? "line " + first : "lines " + first + "-" + last;
+    }
+
+    @Override
+    public String getName() {
+        return "BytecodeClone";
+    }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers for the reported ranges
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public String getCacheKey() {
+        // the results for a class depend on every other class
+        return null;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
@@ -1,107 +1,265 @@
 package Domain.PrincipleCheck;
 
+import Domain.AnalysisContext;
+import Domain.Cache.FingerprintStore;
 import Domain.Category;
+import Domain.Interfaces.ILcsKernel;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IPrincipleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.Similarity.BitParallelLcs;
+import Domain.Similarity.CloneClasses;
+import Domain.Similarity.MethodOpcodes;
+import Domain.Similarity.MinHashLsh;
+import Domain.Similarity.MethodFingerprint;
+import Domain.Similarity.SimilarityPruning;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * This class checks for code duplication within a class.
+ * This class checks for code duplication within a class. Methods that are similar to each
+ * other, directly or through other methods, are reported together as one clone class.
  */
 public class CodeDuplicationCheck implements IPrincipleCheck {
 
     private static final double SIMILARITY_THRESHOLD = 0.8; // 80% similarity
 
+    /**
+     * The default recall/speed setting: enough bands that pairs at the 80% threshold are
+     * almost always found.
+     */
+    public static final int DEFAULT_LSH_BANDS = 32;
+    private static final int LSH_ROWS_PER_BAND = 2;
+    // below this many methods comparing every pair is cheap, and exact
+    private static final int LSH_MIN_METHODS = 64;
+    // classes with this many pairs to compare split them over the threads of the run
+    private static final int PARALLEL_MIN_PAIRS = 128;
+    private static final int PAIRS_PER_BLOCK = 32;
+
+    private final ILcsKernel lcsKernel;
+    private final int lshBands;
+    private final MinHashLsh lsh;
+
+    public CodeDuplicationCheck() {
+        this(new BitParallelLcs());
+    }
+
+    /**
+     * Uses the given kernel to compare opcode sequences. Every kernel gives the same
+     * scores, so this only changes speed. The kernel is called from several threads when
+     * the check runs in a parallel run.
+     */
+    public CodeDuplicationCheck(ILcsKernel lcsKernel) {
+        this(lcsKernel, DEFAULT_LSH_BANDS);
+    }
+
+    /**
+     * In classes with many methods, only pairs that MinHash/LSH picks as likely
+     * near-duplicates are compared. More bands find more of them and cost more; 0 compares
+     * every pair. Reported similarities are always exact.
+     */
+    public CodeDuplicationCheck(ILcsKernel lcsKernel, int lshBands) {
+        if (lshBands < 0) {
+            throw new IllegalArgumentException("LSH bands must not be negative, got " + lshBands);
+        }
+        this.lcsKernel = lcsKernel;
+        this.lshBands = lshBands;
+        this.lsh = lshBands == 0 ? null : new MinHashLsh(lshBands, LSH_ROWS_PER_BAND);
+    }
+
     @Override
     public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> lintResults = new ArrayList<>();
+        return findDuplicates(classNode, new SimilarityPruning(SIMILARITY_THRESHOLD), null);
+    }
+
+    /**
+     * With a FingerprintStore in the context, similarities already known from earlier runs
+     * are reused, so only pairs with a method that changed are compared.
+     */
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        SimilarityPruning pruning = new SimilarityPruning(SIMILARITY_THRESHOLD);
+        FingerprintStore store = context.get(FingerprintStore.KEY);
+        for (LintResult result : findDuplicates(classNode, pruning, store)) {
+            sink.accept(result);
+        }
+        pruning.report(context, this);
+    }
+
+    private List<LintResult> findDuplicates(ClassNode classNode, SimilarityPruning pruning, FingerprintStore store) {
         List<MethodNode> methods = classNode.methods;
 
-        // Compare each pair of methods
-        for (int i = 0; i < methods.size(); i++) {
-            for (int j = i + 1; j < methods.size(); j++) {
-                MethodNode method1 = methods.get(i);
-                MethodNode method2 = methods.get(j);
-
-                // Skip constructors and small methods
-                if (isConstructor(method1) || isConstructor(method2)) continue;
-                if (isMethodTooSmall(method1) || isMethodTooSmall(method2)) continue;
-
-                double similarity = calculateSimilarity(method1, method2);
-
-                if (similarity > SIMILARITY_THRESHOLD) {
-                    lintResults.add(new LintResult(
-                            getName(),
-                            Category.PRINCIPLE,
-                            String.valueOf(getLineNumber(method1)),
-                            "Methods '" + method1.name + "' and '" + method2.name +
-                                    "' have high code duplication (" +
-                                    String.format("%.0f", similarity * 100) + "% similar)"
-                    ));
+        // Extract each opcode sequence once instead of once per pair,
+        // skipping constructors and small methods
+        List<MethodNode> eligible = new ArrayList<>();
+        List<int[]> opcodes = new ArrayList<>();
+        List<MethodFingerprint> fingerprints = new ArrayList<>();
+        for (MethodNode method : methods) {
+            if (!MethodOpcodes.isConstructor(method) && !isMethodTooSmall(method)) {
+                int[] sequence = MethodOpcodes.of(method);
+                eligible.add(method);
+                opcodes.add(sequence);
+                fingerprints.add(store == null ? MethodFingerprint.of(sequence) : store.fingerprint(sequence));
+            }
+        }
+
+        // Pick the pairs worth an LCS, packed as a << 32 | b in the order they are visited
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        if (lsh == null || eligible.size() < LSH_MIN_METHODS) {
+            // Compare each pair of methods
+            for (int a = 0; a < eligible.size(); a++) {
+                for (int b = a + 1; b < eligible.size(); b++) {
+                    if (pruning.mayExceed(fingerprints.get(a).getHistogram(), fingerprints.get(b).getHistogram())) {
+                        pairs = append(pairs, pairCount++, (long) a << 32 | b);
+                    }
+                }
+            }
+        } else {
+            // Compare only the likely near-duplicates, in the same order
+            long[][] signatures = new long[eligible.size()][];
+            for (int m = 0; m < signatures.length; m++) {
+                signatures[m] = fingerprints.get(m).getSignature(lsh, opcodes.get(m));
+            }
+            for (long pair : lsh.candidatePairs(signatures)) {
+                int a = (int) (pair >>> 32);
+                int b = (int) pair;
+                if (pruning.mayExceed(fingerprints.get(a).getHistogram(), fingerprints.get(b).getHistogram())) {
+                    pairs = append(pairs, pairCount++, pair);
                 }
             }
         }
 
-        return lintResults;
-    }
+        // Take what the store knows; the rest of the pairs, by slot, are left to compare
+        double[] similarities = new double[pairCount];
+        int[] pending = new int[pairCount];
+        int pendingCount = 0;
+        for (int k = 0; k < pairCount; k++) {
+            Double known = store == null ? null : store.getSimilarity(
+                    fingerprints.get((int) (pairs[k] >>> 32)), fingerprints.get((int) pairs[k]), SIMILARITY_THRESHOLD);
+            if (known != null) {
+                similarities[k] = known;
+                pruning.countStored();
+            } else {
+                pending[pendingCount++] = k;
+            }
+        }
 
-    private double calculateSimilarity(MethodNode method1, MethodNode method2) {
-        if (method1.instructions == null || method2.instructions == null) {
-            return 0.0;
+        // Each pair writes only its own slot, so blocks of pairs can run on any thread
+        // and the results are read back in the serial order
+        if (pendingCount >= PARALLEL_MIN_PAIRS && ForkJoinTask.inForkJoinPool()) {
+            new PairBlockTask(lcsKernel, pairs, pending, 0, pendingCount, opcodes, similarities).invoke();
+        } else {
+            compare(lcsKernel, pairs, pending, 0, pendingCount, opcodes, similarities);
+        }
+        if (store != null) {
+            for (int p = 0; p < pendingCount; p++) {
+                int k = pending[p];
+                store.putSimilarity(fingerprints.get((int) (pairs[k] >>> 32)), fingerprints.get((int) pairs[k]),
+                        SIMILARITY_THRESHOLD, similarities[k]);
+            }
         }
 
-        List<Integer> opcodes1 = getOpcodeSequence(method1);
-        List<Integer> opcodes2 = getOpcodeSequence(method2);
+        CloneClasses cloneClasses = new CloneClasses(eligible.size());
+        for (int k = 0; k < pairCount; k++) {
+            if (similarities[k] > SIMILARITY_THRESHOLD) {
+                cloneClasses.link((int) (pairs[k] >>> 32), (int) pairs[k], similarities[k]);
+            }
+        }
 
-        if (opcodes1.isEmpty() || opcodes2.isEmpty()) {
-            return 0.0;
+        List<LintResult> lintResults = new ArrayList<>();
+        for (CloneClasses.CloneClass cloneClass : cloneClasses.getClasses()) {
+            lintResults.add(report(cloneClass, eligible));
         }
+        return lintResults;
+    }
 
-        // Calculate similarity using Longest Common Subsequence (LCS)
-        int lcsLength = longestCommonSubsequence(opcodes1, opcodes2);
-        int maxLength = Math.max(opcodes1.size(), opcodes2.size());
+    private static long[] append(long[] pairs, int count, long pair) {
+        if (count == pairs.length) {
+            pairs = Arrays.copyOf(pairs, count * 2);
+        }
+        pairs[count] = pair;
+        return pairs;
+    }
 
-        return (double) lcsLength / maxLength;
+    private static void compare(ILcsKernel lcsKernel, long[] pairs, int[] pending, int from, int to,
+                                List<int[]> opcodes, double[] similarities) {
+        for (int p = from; p < to; p++) {
+            int k = pending[p];
+            int a = (int) (pairs[k] >>> 32);
+            int b = (int) pairs[k];
+            similarities[k] = SimilarityPruning.similarity(lcsKernel, opcodes.get(a), opcodes.get(b),
+                    SIMILARITY_THRESHOLD);
+        }
     }
 
-    private List<Integer> getOpcodeSequence(MethodNode method) {
-        List<Integer> opcodes = new ArrayList<>();
+    /**
+     * Halves a range of pending pairs until it is one block, then compares the pairs of the block.
+     * Runs in the pool of the calling thread, so a huge class spreads over the threads
+     * the run already has.
+     */
+    @SuppressWarnings("serial")
+    private static final class PairBlockTask extends RecursiveAction {
+        private final ILcsKernel lcsKernel;
+        private final long[] pairs;
+        private final int[] pending;
+        private final int from;
+        private final int to;
+        private final List<int[]> opcodes;
+        private final double[] similarities;
 
-        for (AbstractInsnNode insn : method.instructions) {
-            int opcode = insn.getOpcode();
-            if (opcode != -1) { // Skip pseudo-instructions (labels, line numbers, etc.)
-                opcodes.add(opcode);
-            }
+        PairBlockTask(ILcsKernel lcsKernel, long[] pairs, int[] pending, int from, int to, List<int[]> opcodes,
+                      double[] similarities) {
+            this.lcsKernel = lcsKernel;
+            this.pairs = pairs;
+            this.pending = pending;
+            this.from = from;
+            this.to = to;
+            this.opcodes = opcodes;
+            this.similarities = similarities;
         }
 
-        return opcodes;
+        @Override
+        protected void compute() {
+            if (to - from <= PAIRS_PER_BLOCK) {
+                compare(lcsKernel, pairs, pending, from, to, opcodes, similarities);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PairBlockTask(lcsKernel, pairs, pending, from, mid, opcodes, similarities),
+                    new PairBlockTask(lcsKernel, pairs, pending, mid, to, opcodes, similarities));
+        }
     }
 
-    private int longestCommonSubsequence(List<Integer> seq1, List<Integer> seq2) {
-        int m = seq1.size();
-        int n = seq2.size();
-        int[][] dp = new int[m + 1][n + 1];
-
-        for (int i = 1; i <= m; i++) {
-            for (int j = 1; j <= n; j++) {
-                if (seq1.get(i - 1).equals(seq2.get(j - 1))) {
-                    dp[i][j] = dp[i - 1][j - 1] + 1;
-                } else {
-                    dp[i][j] = Math.max(dp[i - 1][j], dp[i][j - 1]);
-                }
+    private LintResult report(CloneClasses.CloneClass cloneClass, List<MethodNode> eligible) {
+        int[] members = cloneClass.getMembers();
+        StringBuilder names = new StringBuilder("Methods ");
+        for (int m = 0; m < members.length; m++) {
+            if (m > 0) {
+                names.append(m == members.length - 1 ? " and " : ", ");
             }
+            names.append('\'').append(eligible.get(members[m]).name).append('\'');
         }
 
-        return dp[m][n];
-    }
+        String low = String.format("%.0f", cloneClass.getMinSimilarity() * 100);
+        String high = String.format("%.0f", cloneClass.getMaxSimilarity() * 100);
+        String range = low.equals(high) ? low : low + "-" + high;
 
-    private boolean isConstructor(MethodNode method) {
-        return method.name.equals("<init>") || method.name.equals("<clinit>");
+        return new LintResult(
+                getName(),
+                Category.PRINCIPLE,
+                String.valueOf(MethodOpcodes.firstLine(eligible.get(members[0]))),
+                names + " have high code duplication (" + range + "% similar)"
+        );
     }
 
     private boolean isMethodTooSmall(MethodNode method) {
@@ -117,20 +275,25 @@ public class CodeDuplicationCheck implements IPrincipleCheck {
         return instructionCount < 5; // Skip methods with fewer than 5 instructions
     }
 
-    private int getLineNumber(MethodNode method) {
-        if (method.instructions == null) return -1;
+    @Override
+    public String getName() {
+        return "CodeDuplication";
+    }
 
-        for (AbstractInsnNode insn : method.instructions) {
-            if (insn instanceof org.objectweb.asm.tree.LineNumberNode) {
-                return ((org.objectweb.asm.tree.LineNumberNode) insn).line;
-            }
-        }
+    @Override
+    public String getCacheKey() {
+        // the LSH setting decides which pairs are found
+        return getClass().getName() + ":lshBands=" + lshBands;
+    }
 
-        return -1;
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers for the reported location
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
     }
 
     @Override
-    public String getName() {
-        return "CodeDuplication";
+    public boolean isThreadSafe() {
+        return true;
     }
-}
\ No newline at end of file
+}
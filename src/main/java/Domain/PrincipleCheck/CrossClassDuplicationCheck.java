@@ -0,0 +1,396 @@
+package Domain.PrincipleCheck;
+
+import Domain.AnalysisContext;
+import Domain.Category;
+import Domain.Interfaces.ILcsKernel;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IPrincipleCheck;
+import Domain.Interfaces.ISummarizingCheck;
+import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.Similarity.BitParallelLcs;
+import Domain.Similarity.CloneClasses;
+import Domain.Similarity.MethodOpcodes;
+import Domain.Similarity.OpcodeHistogram;
+import Domain.Similarity.SimilarityPruning;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class checks for methods duplicated across different classes of the project.
+ *
+ * Comparing every method with every other method does not scale, so each method is cut
+ * into shingles, runs of SHINGLE_LENGTH consecutive opcodes, and an inverted index maps
+ * every shingle to the methods that contain it. Only pairs that share a good part of
+ * their shingles are compared with the exact LCS similarity CodeDuplicationCheck uses.
+ * Methods linked by similar pairs, directly or through other methods, form one clone class
+ * and are reported together, once. Duplicates within one class are left to
+ * CodeDuplicationCheck.
+ *
+ * The index is built from a summary of each class, the opcodes of the methods worth
+ * comparing, so a cached run does not parse the classes that did not change.
+ */
+public class CrossClassDuplicationCheck implements IPrincipleCheck, ISummarizingCheck<CrossClassDuplicationCheck.ClassMethods> {
+
+    private static final AnalysisContext.Key<Map<String, List<LintResult>>> RESULTS =
+            AnalysisContext.Key.of("CrossClassDuplication.results");
+
+    private static final double SIMILARITY_THRESHOLD = 0.8; // 80% similarity
+    private static final int SHINGLE_LENGTH = 5; // 5 opcodes of 8 bits pack into one long
+    private static final int MIN_OPCODES = 20; // shorter methods are too small to be worth extracting
+    private static final double MIN_SHARED_SHINGLES = 0.5; // of the smaller method's shingles
+    private static final int MAX_POSTINGS = 1000; // shingles in more methods than this tell nothing apart
+    private static final int METHOD_BITS = 24;
+    private static final int MAX_NAMED_METHODS = 10; // per clone class; the rest are counted
+
+    private final ILcsKernel lcsKernel;
+
+    public CrossClassDuplicationCheck() {
+        this(new BitParallelLcs());
+    }
+
+    public CrossClassDuplicationCheck(ILcsKernel lcsKernel) {
+        this.lcsKernel = lcsKernel;
+    }
+
+    @Override
+    public void beginProject(AnalysisContext context) {
+        SimilarityPruning pruning = new SimilarityPruning(SIMILARITY_THRESHOLD);
+        context.put(RESULTS, findClones(context.getClassNodes(), getSummaries(context), pruning));
+        pruning.report(context, this);
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        Map<String, List<LintResult>> results = context.get(RESULTS);
+        if (results == null) {
+            return;
+        }
+        for (LintResult result : results.getOrDefault(classNode.name, List.of())) {
+            sink.accept(result);
+        }
+    }
+
+    @Override
+    public List<LintResult> execute(ClassNode classNode) {
+        // On its own a class has no other classes to share code with
+        return new ArrayList<>();
+    }
+
+    @Override
+    public ClassMethods summarize(ClassNode classNode) {
+        List<MethodNode> compared = new ArrayList<>();
+        List<int[]> opcodes = new ArrayList<>();
+        if (classNode.methods != null) {
+            for (MethodNode method : classNode.methods) {
+                if (MethodOpcodes.isConstructor(method)) continue;
+                int[] sequence = MethodOpcodes.of(method);
+                if (sequence.length >= MIN_OPCODES) {
+                    compared.add(method);
+                    opcodes.add(sequence);
+                }
+            }
+        }
+        String[] names = new String[compared.size()];
+        int[] firstLines = new int[compared.size()];
+        for (int m = 0; m < names.length; m++) {
+            names[m] = compared.get(m).name;
+            firstLines[m] = MethodOpcodes.firstLine(compared.get(m));
+        }
+        return new ClassMethods(names, firstLines, opcodes.toArray(new int[0][]));
+    }
+
+    @Override
+    public void writeSummary(ClassMethods summary, DataOutput out) throws IOException {
+        summary.writeTo(out);
+    }
+
+    @Override
+    public ClassMethods readSummary(DataInput in) throws IOException {
+        return ClassMethods.readFrom(in);
+    }
+
+    /**
+     * Finds the cross-class clones of the project and groups the results by the class of
+     * the first method of each clone class.
+     */
+    private Map<String, List<LintResult>> findClones(List<ClassNode> classNodes, List<ClassMethods> summaries,
+                                                     SimilarityPruning pruning) {
+        long total = 0;
+        for (ClassMethods summary : summaries) {
+            total += summary.size();
+        }
+        if (total >= 1 << METHOD_BITS) {
+            throw new IllegalStateException("Too many methods to index: " + total);
+        }
+        // every method by the class it is in and its position in that class's summary
+        int[] owners = new int[(int) total];
+        int[] positions = new int[(int) total];
+        List<int[]> opcodes = new ArrayList<>();
+        for (int c = 0; c < summaries.size(); c++) {
+            ClassMethods summary = summaries.get(c);
+            for (int m = 0; m < summary.size(); m++) {
+                owners[opcodes.size()] = c;
+                positions[opcodes.size()] = m;
+                opcodes.add(summary.opcodes[m]);
+            }
+        }
+
+        List<OpcodeHistogram> histograms = new ArrayList<>();
+        for (int[] sequence : opcodes) {
+            histograms.add(OpcodeHistogram.of(sequence));
+        }
+
+        ShingleIndex index = new ShingleIndex(opcodes);
+        CloneClasses cloneClasses = new CloneClasses(opcodes.size());
+        int[] shared = new int[opcodes.size()];
+        int[] touched = new int[opcodes.size()];
+
+        for (int i = 0; i < opcodes.size(); i++) {
+            // count the shingles every later method of another class shares with method i
+            int count = 0;
+            for (int shingle : index.methodShingles[i]) {
+                int from = index.postingStart[shingle];
+                int to = index.postingStart[shingle + 1];
+                if (to - from > MAX_POSTINGS) continue;
+                for (int p = from; p < to; p++) {
+                    int j = index.postingMethods[p];
+                    if (j <= i || owners[j] == owners[i]) continue;
+                    if (shared[j]++ == 0) {
+                        touched[count++] = j;
+                    }
+                }
+            }
+
+            Arrays.sort(touched, 0, count);
+            for (int t = 0; t < count; t++) {
+                int j = touched[t];
+                int sharedShingles = shared[j];
+                shared[j] = 0;
+
+                int smaller = Math.min(index.indexedCount[i], index.indexedCount[j]);
+                if (sharedShingles < MIN_SHARED_SHINGLES * smaller) continue;
+                if (!pruning.mayExceed(histograms.get(i), histograms.get(j))) continue;
+
+                double similarity = SimilarityPruning.similarity(lcsKernel, opcodes.get(i), opcodes.get(j),
+                        SIMILARITY_THRESHOLD);
+                if (similarity > SIMILARITY_THRESHOLD) {
+                    cloneClasses.link(i, j, similarity);
+                }
+            }
+        }
+
+        Map<String, List<LintResult>> results = new HashMap<>();
+        for (CloneClasses.CloneClass cloneClass : cloneClasses.getClasses()) {
+            String owner = classNodes.get(owners[cloneClass.getMembers()[0]]).name;
+            results.computeIfAbsent(owner, k -> new ArrayList<>())
+                    .add(report(cloneClass, classNodes, summaries, owners, positions));
+        }
+        return results;
+    }
+
+    private LintResult report(CloneClasses.CloneClass cloneClass, List<ClassNode> classNodes,
+                              List<ClassMethods> summaries, int[] owners, int[] positions) {
+        int[] members = cloneClass.getMembers();
+        ClassMethods first = summaries.get(owners[members[0]]);
+        int firstPosition = positions[members[0]];
+        // the first method is in the reported class; the others are named with theirs
+        StringBuilder names = new StringBuilder("Methods '").append(first.names[firstPosition]).append('\'');
+        int named = Math.min(members.length, MAX_NAMED_METHODS);
+        for (int m = 1; m < named; m++) {
+            int owner = owners[members[m]];
+            names.append(m == members.length - 1 ? " and " : ", ");
+            names.append('\'').append(classNodes.get(owner).name.replace('/', '.'))
+                    .append('.').append(summaries.get(owner).names[positions[members[m]]]).append('\'');
+        }
+        if (named < members.length) {
+            names.append(" and ").append(members.length - named).append(" more");
+        }
+
+        String low = String.format("%.0f", cloneClass.getMinSimilarity() * 100);
+        String high = String.format("%.0f", cloneClass.getMaxSimilarity() * 100);
+        String range = low.equals(high) ? low : low + "-" + high;
+
+        return new LintResult(
+                getName(),
+                Category.PRINCIPLE,
+                String.valueOf(first.firstLines[firstPosition]),
+                names + " have high code duplication (" + range + "% similar)"
+        );
+    }
+
+    /**
+     * The methods of one class worth comparing, constructors and short methods left out:
+     * their names, the lines they start at, and their opcodes.
+     */
+    public static final class ClassMethods {
+        private final String[] names;
+        private final int[] firstLines;
+        private final int[][] opcodes;
+
+        ClassMethods(String[] names, int[] firstLines, int[][] opcodes) {
+            this.names = names;
+            this.firstLines = firstLines;
+            this.opcodes = opcodes;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * Opcodes fit in a byte, so each takes one.
+         */
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(names.length);
+            for (int m = 0; m < names.length; m++) {
+                out.writeUTF(names[m]);
+                out.writeInt(firstLines[m]);
+                out.writeInt(opcodes[m].length);
+                for (int opcode : opcodes[m]) {
+                    out.writeByte(opcode);
+                }
+            }
+        }
+
+        static ClassMethods readFrom(DataInput in) throws IOException {
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Damaged method summary");
+            }
+            String[] names = new String[count];
+            int[] firstLines = new int[count];
+            int[][] opcodes = new int[count][];
+            for (int m = 0; m < count; m++) {
+                names[m] = in.readUTF();
+                firstLines[m] = in.readInt();
+                int length = in.readInt();
+                if (length < MIN_OPCODES) {
+                    throw new IOException("Damaged method summary");
+                }
+                opcodes[m] = new int[length];
+                for (int k = 0; k < length; k++) {
+                    opcodes[m][k] = in.readUnsignedByte();
+                }
+            }
+            return new ClassMethods(names, firstLines, opcodes);
+        }
+    }
+
+    /**
+     * Inverted index from shingles to methods. Every (shingle, method) pair is packed into
+     * one long and the lot is sorted, which puts each shingle's posting list in one run
+     * without boxing anything.
+     */
+    private static final class ShingleIndex {
+        // postingMethods[postingStart[s] .. postingStart[s + 1]) are the methods with shingle s
+        final int[] postingStart;
+        final int[] postingMethods;
+        // the distinct shingles of each method, as indices into postingStart
+        final int[][] methodShingles;
+        // how many of a method's shingles are rare enough to be used for candidates
+        final int[] indexedCount;
+
+        ShingleIndex(List<int[]> opcodes) {
+            int methodCount = opcodes.size();
+            long[][] shingles = new long[methodCount][];
+            int total = 0;
+            for (int m = 0; m < methodCount; m++) {
+                shingles[m] = distinctShingles(opcodes.get(m));
+                total += shingles[m].length;
+            }
+
+            long[] entries = new long[total];
+            int e = 0;
+            for (int m = 0; m < methodCount; m++) {
+                for (long shingle : shingles[m]) {
+                    entries[e++] = shingle << METHOD_BITS | m;
+                }
+            }
+            Arrays.sort(entries);
+
+            methodShingles = new int[methodCount][];
+            for (int m = 0; m < methodCount; m++) {
+                methodShingles[m] = new int[shingles[m].length];
+            }
+            int[] filled = new int[methodCount];
+            postingMethods = new int[total];
+            int[] starts = new int[total + 1];
+            int distinct = -1;
+            long previous = 0;
+            for (int p = 0; p < total; p++) {
+                long shingle = entries[p] >>> METHOD_BITS;
+                int m = (int) (entries[p] & ((1L << METHOD_BITS) - 1));
+                if (p == 0 || shingle != previous) {
+                    starts[++distinct] = p;
+                    previous = shingle;
+                }
+                postingMethods[p] = m;
+                methodShingles[m][filled[m]++] = distinct;
+            }
+            starts[distinct + 1] = total;
+            postingStart = Arrays.copyOf(starts, distinct + 2);
+
+            indexedCount = new int[methodCount];
+            for (int m = 0; m < methodCount; m++) {
+                for (int shingle : methodShingles[m]) {
+                    if (postingStart[shingle + 1] - postingStart[shingle] <= MAX_POSTINGS) {
+                        indexedCount[m]++;
+                    }
+                }
+            }
+        }
+
+        private static long[] distinctShingles(int[] opcodes) {
+            int count = Math.max(0, opcodes.length - SHINGLE_LENGTH + 1);
+            long[] shingles = new long[count];
+            for (int i = 0; i < count; i++) {
+                long shingle = 0;
+                for (int k = 0; k < SHINGLE_LENGTH; k++) {
+                    shingle = shingle << 8 | opcodes[i + k];
+                }
+                shingles[i] = shingle;
+            }
+            Arrays.sort(shingles);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || shingles[i] != shingles[distinct - 1]) {
+                    shingles[distinct++] = shingles[i];
+                }
+            }
+            return Arrays.copyOf(shingles, distinct);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "CrossClassDuplication";
+    }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers for the reported location
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public String getCacheKey() {
+        // the results for a class depend on every other class
+        return null;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
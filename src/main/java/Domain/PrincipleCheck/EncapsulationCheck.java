@@ -3,12 +3,14 @@ package Domain.PrincipleCheck;
 import Domain.Category;
 import Domain.Interfaces.IPrincipleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class EncapsulationCheck implements IPrincipleCheck {
 
@@ -36,4 +38,14 @@ public class EncapsulationCheck implements IPrincipleCheck {
     public String getName(){
         return "EncapsulationCheck";
     }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -1,9 +1,16 @@
 package Domain.PrincipleCheck;
 
+import Domain.AnalysisContext;
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IPrincipleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.SymbolTable;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
@@ -32,7 +39,7 @@ import java.util.Set;
  * - Use of INVOKESTATIC or INVOKEVIRTUAL on parent/framework classes
  *   outside of constructors
  */
-public class HollywoodPrincipleCheck implements IPrincipleCheck {
+public class HollywoodPrincipleCheck implements IPrincipleCheck, IInstructionCheck {
 
     // Framework and high-level class indicators
     private static final Set<String> FRAMEWORK_KEYWORDS = new HashSet<>(Arrays.asList(
@@ -45,46 +52,82 @@ public class HollywoodPrincipleCheck implements IPrincipleCheck {
     ));
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> results = new ArrayList<>();
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        return beginClass(classNode, AnalysisContext.standalone(classNode), sink);
+    }
 
+    @Override
+    public IInstructionListener beginClass(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
         // Skip interfaces and abstract classes
         if ((classNode.access & Opcodes.ACC_INTERFACE) != 0 ||
                 (classNode.access & Opcodes.ACC_ABSTRACT) != 0) {
-            return results;
+            return null;
         }
 
-        String className = classNode.name.replace('/', '.');
-        boolean isLowLevelClass = isLowLevelImplementation(className);
+        // names are interned once per run; calls compare and read them without building strings
+        SymbolTable symbols = context.getSymbols();
+        int classId = symbols.intern(classNode.name);
+        boolean isLowLevelClass = isLowLevelImplementation(symbols.getSimpleName(classId));
 
-        // Check each method for Hollywood Principle violations
-        for (MethodNode method : classNode.methods) {
-            if (method.instructions == null) {
-                continue;
+        // If parent is abstract/template, check for template method pattern violations
+        String superName = classNode.superName;
+        int superId = superName == null ? -1 : symbols.intern(superName);
+        boolean checkSuperCalls = superName != null && !superName.equals("java/lang/Object") &&
+                isTemplateClass(symbols.getSimpleName(superId));
+
+        return new IInstructionListener() {
+            // superclass call results are reported after all method call results
+            private final List<LintResult> superCallResults = new ArrayList<>();
+            private boolean callsSuperNonConstructor;
+
+            @Override
+            public void beginMethod(MethodNode method) {
+                callsSuperNonConstructor = false;
             }
 
-            // Analyze method calls
-            method.instructions.forEach(instruction -> {
-                if (instruction instanceof MethodInsnNode) {
-                    MethodInsnNode methodCall = (MethodInsnNode) instruction;
-                    checkMethodCall(classNode, method, methodCall, isLowLevelClass, results);
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode instruction) {
+                if (!(instruction instanceof MethodInsnNode)) {
+                    return;
                 }
-            });
-        }
+                MethodInsnNode methodCall = (MethodInsnNode) instruction;
+
+                // Analyze method calls
+                checkMethodCall(symbols, classId, method, methodCall, isLowLevelClass, sink);
 
-        // Check for inappropriate calls to superclass methods
-        checkSuperclassCalls(classNode, results);
+                // Check if calling super class method (not constructor)
+                if (checkSuperCalls &&
+                        symbols.intern(methodCall.owner) == superId &&
+                        !methodCall.name.equals("<init>") &&
+                        methodCall.getOpcode() == Opcodes.INVOKESPECIAL) {
+                    callsSuperNonConstructor = true;
+                }
+            }
+
+            @Override
+            public void endMethod(MethodNode method) {
+                if (checkSuperCalls && method.instructions != null) {
+                    checkSuperclassCall(symbols, classId, superId, method, callsSuperNonConstructor, superCallResults);
+                }
+            }
 
-        return results;
+            @Override
+            public void endClass() {
+                // Check for inappropriate calls to superclass methods
+                for (LintResult result : superCallResults) {
+                    sink.accept(result);
+                }
+            }
+        };
     }
 
-    private void checkMethodCall(ClassNode classNode,
+    private void checkMethodCall(SymbolTable symbols,
+                                 int classId,
                                  MethodNode method,
                                  MethodInsnNode methodCall,
                                  boolean isLowLevelClass,
-                                 List<LintResult> results) {
+                                 ILintResultSink sink) {
 
-        String calledClass = methodCall.owner.replace('/', '.');
         String calledMethod = methodCall.name;
 
         // Skip constructor calls - they're expected
@@ -92,117 +135,87 @@ public class HollywoodPrincipleCheck implements IPrincipleCheck {
             return;
         }
 
+        int calledId = symbols.intern(methodCall.owner);
+        String calledSimpleName = symbols.getSimpleName(calledId);
+
         // Skip calls to standard library and common utilities
-        if (isStandardLibrary(calledClass)) {
+        if (isStandardLibrary(symbols.getDottedName(calledId))) {
             return;
         }
 
         // Check if calling a framework/high-level class
-        if (isFrameworkClass(calledClass)) {
+        if (isFrameworkClass(calledSimpleName)) {
             String message = String.format(
                     "Hollywood Principle violation: Low-level class '%s' is calling framework/high-level class '%s.%s()' directly. " +
                             "The framework should call you, not the other way around.",
-                    getSimpleName(classNode.name),
-                    getSimpleName(calledClass),
+                    symbols.getSimpleName(classId),
+                    calledSimpleName,
                     calledMethod
             );
 
-            results.add(new LintResult(
+            sink.accept(new LintResult(
                     getName(),
                     Category.STYLE,
-                    classNode.name.replace('/', '.'),
+                    symbols.getDottedName(classId),
                     message
             ));
         }
 
         // Check for low-level calling high-level based on naming
-        if (isLowLevelClass && isHighLevelClass(calledClass)) {
+        if (isLowLevelClass && isHighLevelClass(calledSimpleName)) {
             String message = String.format(
                     "Hollywood Principle violation in method '%s': Implementation class '%s' is calling high-level class '%s.%s()'. " +
                             "Consider using dependency injection or callbacks instead.",
                     method.name,
-                    getSimpleName(classNode.name),
-                    getSimpleName(calledClass),
+                    symbols.getSimpleName(classId),
+                    calledSimpleName,
                     calledMethod
             );
 
-            results.add(new LintResult(
+            sink.accept(new LintResult(
                     getName(),
                     Category.STYLE,
-                    classNode.name.replace('/', '.'),
+                    symbols.getDottedName(classId),
                     message
             ));
         }
     }
 
-    private void checkSuperclassCalls(ClassNode classNode, List<LintResult> results) {
-        String superName = classNode.superName;
-
-        // Skip if no superclass or only extends Object
-        if (superName == null || superName.equals("java/lang/Object")) {
-            return;
-        }
-
-        // If parent is abstract/template, check for template method pattern violations
-        if (isTemplateClass(superName)) {
-            for (MethodNode method : classNode.methods) {
-                if (method.instructions == null) {
-                    continue;
-                }
+    private void checkSuperclassCall(SymbolTable symbols, int classId, int superId, MethodNode method,
+                                     boolean callsSuperNonConstructor, List<LintResult> results) {
+        if (callsSuperNonConstructor && !method.name.equals("<init>")) {
+            String message = String.format(
+                    "Possible Hollywood Principle violation: Method '%s' in class '%s' calls parent template class '%s' directly. " +
+                            "In Template Method pattern, the parent should call your overridden methods.",
+                    method.name,
+                    symbols.getSimpleName(classId),
+                    symbols.getSimpleName(superId)
+            );
 
-                final boolean[] callsSuperNonConstructor = {false};
-
-                method.instructions.forEach(instruction -> {
-                    if (instruction instanceof MethodInsnNode) {
-                        MethodInsnNode methodCall = (MethodInsnNode) instruction;
-
-                        // Check if calling super class method (not constructor)
-                        if (methodCall.owner.equals(superName) &&
-                                !methodCall.name.equals("<init>") &&
-                                methodCall.getOpcode() == Opcodes.INVOKESPECIAL) {
-                            callsSuperNonConstructor[0] = true;
-                        }
-                    }
-                });
-
-                if (callsSuperNonConstructor[0] && !method.name.equals("<init>")) {
-                    String message = String.format(
-                            "Possible Hollywood Principle violation: Method '%s' in class '%s' calls parent template class '%s' directly. " +
-                                    "In Template Method pattern, the parent should call your overridden methods.",
-                            method.name,
-                            getSimpleName(classNode.name),
-                            getSimpleName(superName)
-                    );
-
-                    results.add(new LintResult(
-                            getName(),
-                            Category.STYLE,
-                            classNode.name.replace('/', '.'),
-                            message
-                    ));
-                }
-            }
+            results.add(new LintResult(
+                    getName(),
+                    Category.STYLE,
+                    symbols.getDottedName(classId),
+                    message
+            ));
         }
     }
 
-    private boolean isLowLevelImplementation(String className) {
-        String simpleName = getSimpleName(className);
+    private boolean isLowLevelImplementation(String simpleName) {
         for (String kw : IMPLEMENTATION_KEYWORDS) {
             if (simpleName.contains(kw)) return true;
         }
         return false;
     }
 
-    private boolean isFrameworkClass(String className) {
-        String simpleName = getSimpleName(className);
+    private boolean isFrameworkClass(String simpleName) {
         for (String kw : FRAMEWORK_KEYWORDS) {
             if (simpleName.contains(kw)) return true;
         }
         return false;
     }
 
-    private boolean isHighLevelClass(String className) {
-        String simpleName = getSimpleName(className);
+    private boolean isHighLevelClass(String simpleName) {
         return simpleName.endsWith("Manager") ||
                 simpleName.endsWith("Controller") ||
                 simpleName.endsWith("Service") ||
@@ -210,8 +223,7 @@ public class HollywoodPrincipleCheck implements IPrincipleCheck {
                 simpleName.endsWith("Coordinator");
     }
 
-    private boolean isTemplateClass(String className) {
-        String simpleName = getSimpleName(className);
+    private boolean isTemplateClass(String simpleName) {
         return simpleName.contains("Template") ||
                 simpleName.startsWith("Abstract") ||
                 simpleName.startsWith("Base");
@@ -224,14 +236,18 @@ public class HollywoodPrincipleCheck implements IPrincipleCheck {
                 className.startsWith("com.sun.");
     }
 
-    private String getSimpleName(String fullName) {
-        String cleaned = fullName.replace('/', '.');
-        int lastDot = cleaned.lastIndexOf('.');
-        return lastDot >= 0 ? cleaned.substring(lastDot + 1) : cleaned;
-    }
-
     @Override
     public String getName() {
         return "HollywoodPrinciple";
     }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
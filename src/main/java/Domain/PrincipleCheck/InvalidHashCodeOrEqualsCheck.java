@@ -3,11 +3,13 @@ package Domain.PrincipleCheck;
 import Domain.Category;
 import Domain.Interfaces.IPrincipleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class checks for invalid equals() or hashCode() overrides.
@@ -61,4 +63,14 @@ public class InvalidHashCodeOrEqualsCheck implements IPrincipleCheck {
     public String getName() {
         return "InvalidHashCodeOrEqualsCheck";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
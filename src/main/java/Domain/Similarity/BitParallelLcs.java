@@ -0,0 +1,138 @@
+package Domain.Similarity;
+
+import Domain.Interfaces.ILcsKernel;
+
+import java.util.Arrays;
+
+/**
+ * Bit-vector LCS after Allison-Dix and Hyyrö: one row of the dynamic program is kept as
+ * bits, 64 cells per long, and a whole row is advanced with a few word operations. Time
+ * is O(m * ceil(n / 64)) for the longer and shorter lengths m and n.
+ *
+ * With a minimum length L only the bit words that an alignment with L matches can reach
+ * are advanced: such an alignment skips at most n - L symbols of b, so in row i no match
+ * lies beyond column i + n - L. Words past that column have never been touched and stay
+ * all ones, which is exactly what they would hold if their matches were ignored, so the
+ * carry out of the last active word can be dropped. Every EXIT_CHECK_ROWS rows the run
+ * also stops if the LCS so far plus the rows left cannot reach L.
+ *
+ * Symbols must lie in [0, 256), which covers every JVM opcode. The match vectors and the
+ * row are kept per thread and reused from call to call.
+ */
+public class BitParallelLcs implements ILcsKernel {
+
+    private static final int ALPHABET = 256;
+    private static final int EXIT_CHECK_ROWS = 64;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    @Override
+    public int lcsLength(int[] a, int[] b) {
+        return lcsLengthAtLeast(a, b, 0);
+    }
+
+    @Override
+    public int lcsLengthAtLeast(int[] a, int[] b, int minLength) {
+        // the shorter sequence becomes the bit vector
+        if (b.length > a.length) {
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+        int m = a.length;
+        int n = b.length;
+        if (n == 0 || minLength > n) {
+            return n; // nothing to match, or even all of b is too short
+        }
+        int words = (n + 63) >>> 6;
+        int above = n - Math.max(minLength, 0);
+
+        // matches[s] has bit j set where b[j] == s; symbols not in b are not current
+        Buffers buffers = BUFFERS.get();
+        if (++buffers.call == 0) {
+            // the numbers wrapped around; old stamps must not match new calls
+            Arrays.fill(buffers.stamps, 0);
+            buffers.call = 1;
+        }
+        int call = buffers.call;
+        long[][] matches = buffers.matches;
+        for (int j = 0; j < n; j++) {
+            int symbol = b[j];
+            if (symbol < 0 || symbol >= ALPHABET) {
+                throw new IllegalArgumentException("Symbol out of range: " + symbol);
+            }
+            if (buffers.stamps[symbol] != call) {
+                buffers.stamps[symbol] = call;
+                if (matches[symbol] == null || matches[symbol].length < words) {
+                    matches[symbol] = new long[words];
+                } else {
+                    Arrays.fill(matches[symbol], 0, words, 0L);
+                }
+            }
+            matches[symbol][j >>> 6] |= 1L << j;
+        }
+
+        // a zero bit in v marks a column where the LCS grows
+        if (buffers.v.length < words) {
+            buffers.v = new long[words];
+        }
+        long[] v = buffers.v;
+        Arrays.fill(v, 0, words, -1L);
+        for (int i = 0; i < m; i++) {
+            int symbol = a[i];
+            if (symbol < 0 || symbol >= ALPHABET) {
+                throw new IllegalArgumentException("Symbol out of range: " + symbol);
+            }
+            if (minLength > 0 && i > 0 && i % EXIT_CHECK_ROWS == 0) {
+                int bound = countZeros(v, words, n) + (m - i);
+                if (bound < minLength) {
+                    return bound;
+                }
+            }
+            if (buffers.stamps[symbol] != call) {
+                continue; // v + 0 | v & ~0 leaves v as it is
+            }
+            long[] match = matches[symbol];
+            // row i + 1 can only match up to column i + above (0-based)
+            int activeWords = (int) Math.min(words, ((long) i + above >>> 6) + 1);
+            long carry = 0;
+            for (int w = 0; w < activeWords; w++) {
+                long vw = v[w];
+                long u = vw & match[w];
+                long sum = vw + u;
+                long carryOut = Long.compareUnsigned(sum, vw) < 0 ? 1 : 0;
+                long total = sum + carry;
+                if (Long.compareUnsigned(total, sum) < 0) {
+                    carryOut = 1;
+                }
+                carry = carryOut;
+                v[w] = total | (vw - u);
+            }
+        }
+
+        return countZeros(v, words, n);
+    }
+
+    // the LCS so far: the zero bits among the first n
+    private static int countZeros(long[] v, int words, int n) {
+        int zeros = 0;
+        for (int w = 0; w < words - 1; w++) {
+            zeros += Long.bitCount(~v[w]);
+        }
+        int tail = n - ((words - 1) << 6);
+        long tailMask = tail == 64 ? -1L : (1L << tail) - 1;
+        zeros += Long.bitCount(~v[words - 1] & tailMask);
+        return zeros;
+    }
+
+    /**
+     * One thread's match vectors and row. A symbol's vector belongs to the current call
+     * only when its stamp is the call's number.
+     */
+    private static final class Buffers {
+        final long[][] matches = new long[ALPHABET][];
+        final int[] stamps = new int[ALPHABET];
+        long[] v = new long[0];
+        int call;
+    }
+}
@@ -0,0 +1,125 @@
+package Domain.Similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups items that were found similar in pairs into clone classes: the connected
+ * components of the similarity graph, kept in a union-find forest. Each class remembers
+ * the lowest and highest similarity of the pairs that joined it.
+ */
+public final class CloneClasses {
+
+    private final int[] parent;
+    private final int[] rank;
+    // by root; NaN while the item has not been linked to anything
+    private final double[] minSimilarity;
+    private final double[] maxSimilarity;
+
+    public CloneClasses(int size) {
+        parent = new int[size];
+        rank = new int[size];
+        minSimilarity = new double[size];
+        maxSimilarity = new double[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        Arrays.fill(minSimilarity, Double.NaN);
+        Arrays.fill(maxSimilarity, Double.NaN);
+    }
+
+    /**
+     * Records that items a and b are similar.
+     */
+    public void link(int a, int b, double similarity) {
+        int rootA = find(a);
+        int rootB = find(b);
+        int root = rootA;
+        if (rootA != rootB) {
+            if (rank[rootA] < rank[rootB]) {
+                root = rootB;
+            } else if (rank[rootA] == rank[rootB]) {
+                rank[rootA]++;
+            }
+            int child = root == rootA ? rootB : rootA;
+            parent[child] = root;
+            minSimilarity[root] = min(minSimilarity[root], minSimilarity[child]);
+            maxSimilarity[root] = max(maxSimilarity[root], maxSimilarity[child]);
+        }
+        minSimilarity[root] = min(minSimilarity[root], similarity);
+        maxSimilarity[root] = max(maxSimilarity[root], similarity);
+    }
+
+    /**
+     * The classes with at least two members, ordered by their first member. Members are
+     * in ascending order.
+     */
+    public List<CloneClass> getClasses() {
+        int size = parent.length;
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            counts[find(i)]++;
+        }
+        // the first member of a class is reached first, so classes come out in that order
+        List<CloneClass> classes = new ArrayList<>();
+        int[][] members = new int[size][];
+        int[] filled = new int[size];
+        for (int i = 0; i < size; i++) {
+            int root = find(i);
+            if (counts[root] < 2) {
+                continue;
+            }
+            if (members[root] == null) {
+                members[root] = new int[counts[root]];
+                classes.add(new CloneClass(members[root], minSimilarity[root], maxSimilarity[root]));
+            }
+            members[root][filled[root]++] = i;
+        }
+        return classes;
+    }
+
+    private int find(int item) {
+        while (parent[item] != item) {
+            parent[item] = parent[parent[item]];
+            item = parent[item];
+        }
+        return item;
+    }
+
+    private static double min(double current, double value) {
+        return Double.isNaN(current) ? value : Math.min(current, value);
+    }
+
+    private static double max(double current, double value) {
+        return Double.isNaN(current) ? value : Math.max(current, value);
+    }
+
+    /**
+     * One group of similar items. Members that are only similar through another member
+     * were not compared directly, so the range covers the pairs that were.
+     */
+    public static final class CloneClass {
+        private final int[] members;
+        private final double minSimilarity;
+        private final double maxSimilarity;
+
+        private CloneClass(int[] members, double minSimilarity, double maxSimilarity) {
+            this.members = members;
+            this.minSimilarity = minSimilarity;
+            this.maxSimilarity = maxSimilarity;
+        }
+
+        public int[] getMembers() {
+            return members.clone();
+        }
+
+        public double getMinSimilarity() {
+            return minSimilarity;
+        }
+
+        public double getMaxSimilarity() {
+            return maxSimilarity;
+        }
+    }
+}
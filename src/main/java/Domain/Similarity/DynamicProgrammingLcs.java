@@ -0,0 +1,87 @@
+package Domain.Similarity;
+
+import Domain.Interfaces.ILcsKernel;
+
+import java.util.Arrays;
+
+/**
+ * The textbook LCS dynamic program, O(m * n) time. Only two rows of the table are kept,
+ * laid along the shorter sequence, so memory is O(min(m, n)).
+ *
+ * With a minimum length L the program is banded: an alignment with L matches skips
+ * m - L symbols of a and n - L of b, so it never strays further than that from the
+ * diagonal, and only cells with -(m - L) <= j - i <= n - L are computed. That is
+ * O(m * k) for a band of width k. It also stops once no cell of the current row can
+ * still reach L.
+ *
+ * The two rows are kept per thread and reused from call to call.
+ */
+public class DynamicProgrammingLcs implements ILcsKernel {
+
+    // how many rows go by between checks whether L is still reachable
+    private static final int EXIT_CHECK_ROWS = 32;
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][0]);
+
+    @Override
+    public int lcsLength(int[] a, int[] b) {
+        return lcsLengthAtLeast(a, b, 0);
+    }
+
+    @Override
+    public int lcsLengthAtLeast(int[] a, int[] b, int minLength) {
+        if (b.length > a.length) {
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+        int m = a.length;
+        int n = b.length;
+        if (minLength > n) {
+            return n; // even all of b is too short
+        }
+        int below = m - Math.max(minLength, 0); // how far left of the diagonal a match may lie
+        int above = n - Math.max(minLength, 0); // and how far right
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n + 1) {
+            rows[0] = new int[n + 1];
+            rows[1] = new int[n + 1];
+        }
+        // cells right of the band are read as 0 before the band reaches them
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        Arrays.fill(previous, 0, n + 1, 0);
+        Arrays.fill(current, 0, n + 1, 0);
+
+        for (int i = 1; i <= m; i++) {
+            int lo = Math.max(1, i - below);
+            int hi = Math.min(n, i + above);
+            // cells outside the band count as 0; the row array still holds an older row there
+            current[lo - 1] = 0;
+            int symbol = a[i - 1];
+            for (int j = lo; j <= hi; j++) {
+                if (symbol == b[j - 1]) {
+                    current[j] = previous[j - 1] + 1;
+                } else {
+                    current[j] = Math.max(previous[j], current[j - 1]);
+                }
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+
+            if (minLength > 0 && i % EXIT_CHECK_ROWS == 0) {
+                // each remaining row adds at most one to any cell
+                int best = 0;
+                for (int j = lo; j <= hi; j++) {
+                    best = Math.max(best, previous[j]);
+                }
+                if (best + (m - i) < minLength) {
+                    return best + (m - i);
+                }
+            }
+        }
+
+        return previous[n];
+    }
+}
@@ -0,0 +1,245 @@
+package Domain.Similarity;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns method bodies into token sequences for clone detection. Every real instruction
+ * becomes two tokens:
+ *
+ * - a normalized token, the opcode plus the class of its operand, which matches across
+ *   Type-2 clones: local variables other than parameters lose their slot, constants only
+ *   keep their type, and member references only keep the shape of their descriptor;
+ * - an exact token with all operands, which only matches across Type-1 clones.
+ *
+ * Numbering the locals within the token would tie it to the code before it: a run copied
+ * into the middle of a method with more locals in front gets other numbers. So the slot
+ * of each local is kept beside the tokens instead, and a match of normalized tokens is
+ * only a clone where the slots of one run map one to one onto those of the other.
+ *
+ * Jump and switch targets become offsets relative to the instruction in both, so the
+ * control flow has to match too. Token ids are small non-negative ints, shared by all
+ * methods tokenized with the same instance. Not thread safe.
+ */
+public class InstructionTokenizer {
+
+    private final Map<String, Integer> normalizedIds = new HashMap<>();
+    private final Map<String, Integer> exactIds = new HashMap<>();
+
+    public TokenizedMethod tokenize(MethodNode method) {
+        // index of every real instruction, and of the one each label points at
+        Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+        int count = 0;
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LabelNode) {
+                labels.put((LabelNode) insn, count);
+            } else if (insn.getOpcode() != -1) {
+                count++;
+            }
+        }
+
+        int[] normalized = new int[count];
+        int[] exact = new int[count];
+        int[] lines = new int[count];
+        int[] locals = new int[count];
+        int parameterSlots = (Type.getArgumentsAndReturnSizes(method.desc) >> 2)
+                - ((method.access & Opcodes.ACC_STATIC) != 0 ? 1 : 0);
+        int line = -1;
+        int index = 0;
+        StringBuilder norm = new StringBuilder();
+        StringBuilder full = new StringBuilder();
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LineNumberNode) {
+                line = ((LineNumberNode) insn).line;
+                continue;
+            }
+            int opcode = insn.getOpcode();
+            if (opcode == -1) {
+                continue;
+            }
+            norm.setLength(0);
+            full.setLength(0);
+            locals[index] = describe(insn, index, labels, parameterSlots, norm, full);
+            normalized[index] = normalizedIds.computeIfAbsent(norm.toString(), k -> normalizedIds.size());
+            exact[index] = exactIds.computeIfAbsent(full.toString(), k -> exactIds.size());
+            lines[index] = line;
+            index++;
+        }
+        return new TokenizedMethod(normalized, exact, lines, locals);
+    }
+
+    /**
+     * How many distinct normalized tokens were handed out so far.
+     */
+    public int getNormalizedTokenCount() {
+        return normalizedIds.size();
+    }
+
+    // describes the instruction, and returns the slot of the local it uses other than a parameter, or -1
+    private static int describe(AbstractInsnNode insn, int index, Map<LabelNode, Integer> labels,
+                                int parameterSlots, StringBuilder norm, StringBuilder full) {
+        int opcode = insn.getOpcode();
+        if (insn instanceof VarInsnNode || insn instanceof IincInsnNode) {
+            int var = insn instanceof VarInsnNode ? ((VarInsnNode) insn).var : ((IincInsnNode) insn).var;
+            // parameters are positional; which other local it is goes in the returned slot
+            norm.append(opcode).append(' ').append(var < parameterSlots ? "p" + var : "v");
+            full.append(opcode).append(' ').append(var);
+            if (insn instanceof IincInsnNode) {
+                norm.append(" +c");
+                full.append(" +").append(((IincInsnNode) insn).incr);
+            }
+            return var < parameterSlots ? -1 : var;
+        } else if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5
+                || opcode == Opcodes.BIPUSH || opcode == Opcodes.SIPUSH) {
+            norm.append("const I");
+            full.append(opcode);
+            if (insn instanceof IntInsnNode) {
+                full.append(' ').append(((IntInsnNode) insn).operand);
+            }
+        } else if (opcode == Opcodes.LCONST_0 || opcode == Opcodes.LCONST_1) {
+            norm.append("const J");
+            full.append(opcode);
+        } else if (opcode >= Opcodes.FCONST_0 && opcode <= Opcodes.FCONST_2) {
+            norm.append("const F");
+            full.append(opcode);
+        } else if (opcode == Opcodes.DCONST_0 || opcode == Opcodes.DCONST_1) {
+            norm.append("const D");
+            full.append(opcode);
+        } else if (insn instanceof LdcInsnNode) {
+            Object constant = ((LdcInsnNode) insn).cst;
+            norm.append("const ").append(constantKind(constant));
+            full.append(opcode).append(' ').append(constantKind(constant)).append(' ').append(constant);
+        } else if (insn instanceof FieldInsnNode) {
+            FieldInsnNode field = (FieldInsnNode) insn;
+            norm.append(opcode).append(' ').append(Type.getType(field.desc).getSort());
+            full.append(opcode).append(' ').append(field.owner).append('.').append(field.name).append(' ').append(field.desc);
+        } else if (insn instanceof MethodInsnNode) {
+            MethodInsnNode call = (MethodInsnNode) insn;
+            norm.append(opcode).append(' ').append(descriptorShape(call.desc));
+            full.append(opcode).append(' ').append(call.owner).append('.').append(call.name).append(call.desc);
+        } else if (insn instanceof InvokeDynamicInsnNode) {
+            InvokeDynamicInsnNode call = (InvokeDynamicInsnNode) insn;
+            norm.append(opcode).append(' ').append(descriptorShape(call.desc));
+            full.append(opcode).append(' ').append(call.name).append(call.desc).append(' ').append(call.bsm);
+        } else if (insn instanceof TypeInsnNode) {
+            norm.append(opcode);
+            full.append(opcode).append(' ').append(((TypeInsnNode) insn).desc);
+        } else if (insn instanceof MultiANewArrayInsnNode) {
+            MultiANewArrayInsnNode array = (MultiANewArrayInsnNode) insn;
+            norm.append(opcode).append(' ').append(array.dims);
+            full.append(opcode).append(' ').append(array.desc).append(' ').append(array.dims);
+        } else if (insn instanceof IntInsnNode) {
+            // NEWARRAY; the operand is the element type
+            norm.append(opcode).append(' ').append(((IntInsnNode) insn).operand);
+            full.append(opcode).append(' ').append(((IntInsnNode) insn).operand);
+        } else if (insn instanceof JumpInsnNode) {
+            int offset = labels.get(((JumpInsnNode) insn).label) - index;
+            norm.append(opcode).append(' ').append(offset);
+            full.append(opcode).append(' ').append(offset);
+        } else if (insn instanceof TableSwitchInsnNode) {
+            TableSwitchInsnNode table = (TableSwitchInsnNode) insn;
+            StringBuilder targets = targets(table.dflt, table.labels, index, labels);
+            norm.append(opcode).append(targets);
+            full.append(opcode).append(' ').append(table.min).append(' ').append(table.max).append(targets);
+        } else if (insn instanceof LookupSwitchInsnNode) {
+            LookupSwitchInsnNode lookup = (LookupSwitchInsnNode) insn;
+            StringBuilder targets = targets(lookup.dflt, lookup.labels, index, labels);
+            norm.append(opcode).append(targets);
+            full.append(opcode).append(' ').append(lookup.keys).append(targets);
+        } else {
+            norm.append(opcode);
+            full.append(opcode);
+        }
+        return -1;
+    }
+
+    private static StringBuilder targets(LabelNode dflt, List<LabelNode> cases, int index, Map<LabelNode, Integer> labels) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(' ').append(labels.get(dflt) - index);
+        for (LabelNode label : cases) {
+            sb.append(',').append(labels.get(label) - index);
+        }
+        return sb;
+    }
+
+    private static String constantKind(Object constant) {
+        if (constant instanceof Integer) return "I";
+        if (constant instanceof Long) return "J";
+        if (constant instanceof Float) return "F";
+        if (constant instanceof Double) return "D";
+        if (constant instanceof String) return "String";
+        if (constant instanceof Type) return "Type";
+        return constant.getClass().getSimpleName();
+    }
+
+    // the sorts of the parameter and return types, without any names
+    private static String descriptorShape(String desc) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Type argument : Type.getArgumentTypes(desc)) {
+            sb.append(argument.getSort()).append(',');
+        }
+        return sb.append(')').append(Type.getReturnType(desc).getSort()).toString();
+    }
+
+    /**
+     * The tokens of one method. Index i in each array is the method's i-th real
+     * instruction, not counting labels, line numbers and frames.
+     */
+    public static final class TokenizedMethod {
+        private final int[] normalized;
+        private final int[] exact;
+        private final int[] lines;
+        private final int[] locals;
+
+        TokenizedMethod(int[] normalized, int[] exact, int[] lines, int[] locals) {
+            this.normalized = normalized;
+            this.exact = exact;
+            this.lines = lines;
+            this.locals = locals;
+        }
+
+        public int[] getNormalized() {
+            return normalized;
+        }
+
+        public int[] getExact() {
+            return exact;
+        }
+
+        /**
+         * The source line of each instruction, -1 where the class has no line numbers.
+         */
+        public int[] getLines() {
+            return lines;
+        }
+
+        /**
+         * The slot of the local variable each instruction loads, stores or increments, -1
+         * for parameters and for instructions without a local.
+         */
+        public int[] getLocals() {
+            return locals;
+        }
+    }
+}
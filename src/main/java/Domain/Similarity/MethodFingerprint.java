@@ -0,0 +1,72 @@
+package Domain.Similarity;
+
+/**
+ * What the duplication checks need to know about one opcode sequence besides the
+ * sequence itself: a 64-bit hash that identifies it, its histogram, and its MinHash
+ * signature once one was needed. Methods with the same opcodes share a fingerprint, so
+ * everything computed for one holds for the other.
+ */
+public final class MethodFingerprint {
+
+    private final long hash;
+    private final OpcodeHistogram histogram;
+    // set on first use; threads that race compute the same signature
+    private volatile long[] signature;
+
+    public MethodFingerprint(long hash, OpcodeHistogram histogram, long[] signature) {
+        this.hash = hash;
+        this.histogram = histogram;
+        this.signature = signature;
+    }
+
+    public static MethodFingerprint of(int[] opcodes) {
+        return new MethodFingerprint(hash(opcodes), OpcodeHistogram.of(opcodes), null);
+    }
+
+    /**
+     * A 64-bit hash of the sequence and its length. Two different sequences share it only
+     * by accident, with odds around n^2 / 2^65 among n sequences.
+     */
+    public static long hash(int[] opcodes) {
+        long hash = opcodes.length;
+        for (int opcode : opcodes) {
+            hash = mix(hash * 31 + opcode);
+        }
+        return hash;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public OpcodeHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * The signature computed so far, or null.
+     */
+    public long[] getSignature() {
+        return signature;
+    }
+
+    /**
+     * A signature at least as long as the LSH needs, computing it when the one known is
+     * missing or too short.
+     */
+    public long[] getSignature(MinHashLsh lsh, int[] opcodes) {
+        long[] known = signature;
+        if (known == null || known.length < lsh.getSignatureLength()) {
+            known = lsh.signature(opcodes);
+            signature = known;
+        }
+        return known;
+    }
+
+    // the SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,56 @@
+package Domain.Similarity;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Arrays;
+
+/**
+ * Turns method bodies into the opcode sequences the duplication checks compare.
+ */
+public final class MethodOpcodes {
+
+    private MethodOpcodes() {}
+
+    /**
+     * The real opcodes of the method in order, without labels, line numbers and frames.
+     * Empty for methods without code.
+     */
+    public static int[] of(MethodNode method) {
+        if (method.instructions == null) {
+            return new int[0];
+        }
+        int[] opcodes = new int[method.instructions.size()];
+        int count = 0;
+
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            int opcode = insn.getOpcode();
+            if (opcode != -1) { // Skip pseudo-instructions (labels, line numbers, etc.)
+                opcodes[count++] = opcode;
+            }
+        }
+
+        return count == opcodes.length ? opcodes : Arrays.copyOf(opcodes, count);
+    }
+
+    /**
+     * The line of the method's first line number entry, where duplicates are reported, or
+     * -1 without code or debug info.
+     */
+    public static int firstLine(MethodNode method) {
+        if (method.instructions == null) {
+            return -1;
+        }
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LineNumberNode) {
+                return ((LineNumberNode) insn).line;
+            }
+        }
+        return -1;
+    }
+
+    public static boolean isConstructor(MethodNode method) {
+        return method.name.equals("<init>") || method.name.equals("<clinit>");
+    }
+}
@@ -0,0 +1,180 @@
+package Domain.Similarity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds pairs of opcode sequences that are likely near-duplicates without comparing every
+ * pair. Each sequence gets a MinHash signature over its opcode shingles; the signature is
+ * cut into bands, and two sequences become a candidate pair when all rows of at least one
+ * band agree. Pairs whose shingle sets have Jaccard similarity s become candidates with
+ * probability 1 - (1 - s^rows)^bands, so more bands find more near-duplicates at the cost
+ * of more candidates.
+ *
+ * Candidates are only likely matches; callers still have to verify them.
+ */
+public class MinHashLsh {
+
+    private static final int SHINGLE_LENGTH = 3; // 3 opcodes of 8 bits per shingle
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final long[] seeds;
+
+    public MinHashLsh(int bands, int rowsPerBand) {
+        if (bands < 1 || rowsPerBand < 1) {
+            throw new IllegalArgumentException("Bands and rows must be at least 1, got " + bands + " and " + rowsPerBand);
+        }
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.seeds = new long[bands * rowsPerBand];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    /**
+     * The candidate pairs among the sequences, as i << 32 | j with i < j, sorted and
+     * without repeats. At most 65536 sequences, the most methods a class can have.
+     */
+    public long[] candidatePairs(List<int[]> sequences) {
+        long[][] signatures = new long[sequences.size()][];
+        for (int m = 0; m < signatures.length; m++) {
+            signatures[m] = signature(sequences.get(m));
+        }
+        return candidatePairs(signatures);
+    }
+
+    /**
+     * The same from signatures computed before, for example by an earlier run. A
+     * signature may be longer than this instance's; only its first entries are used.
+     */
+    public long[] candidatePairs(long[][] signatures) {
+        int count = signatures.length;
+        if (count > 1 << 16) {
+            throw new IllegalArgumentException("Too many sequences: " + count);
+        }
+
+        // a family of near-identical methods shares a bucket in every band, so repeats are
+        // dropped as they come instead of being collected band after band
+        PairSet pairs = new PairSet();
+        long[] keys = new long[count];
+        for (int band = 0; band < bands; band++) {
+            // the band hash keeps its low 48 bits; the rare extra collisions are verified away
+            for (int m = 0; m < count; m++) {
+                long hash = band;
+                for (int row = 0; row < rowsPerBand; row++) {
+                    hash = mix(hash * 31 + signatures[m][band * rowsPerBand + row]);
+                }
+                keys[m] = hash << 16 | m;
+            }
+            Arrays.sort(keys);
+
+            int start = 0;
+            for (int p = 1; p <= count; p++) {
+                if (p == count || keys[p] >>> 16 != keys[start] >>> 16) {
+                    // every member of a bucket pairs with every other; members are in method order
+                    for (int a = start; a < p; a++) {
+                        for (int b = a + 1; b < p; b++) {
+                            pairs.add((keys[a] & 0xFFFF) << 32 | (keys[b] & 0xFFFF));
+                        }
+                    }
+                    start = p;
+                }
+            }
+        }
+
+        long[] sorted = pairs.toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * How many hash functions a signature has: bands * rows per band.
+     */
+    public int getSignatureLength() {
+        return seeds.length;
+    }
+
+    /**
+     * The MinHash signature of the sequence's shingles: for each hash function, the
+     * smallest hash of any shingle. The hash functions do not depend on the number of
+     * bands, so a shorter signature is a prefix of a longer one.
+     */
+    public long[] signature(int[] opcodes) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int i = 0; i + SHINGLE_LENGTH <= opcodes.length; i++) {
+            long shingle = 0;
+            for (int k = 0; k < SHINGLE_LENGTH; k++) {
+                shingle = shingle << 8 | opcodes[i + k];
+            }
+            for (int h = 0; h < seeds.length; h++) {
+                long hash = mix(shingle ^ seeds[h]);
+                if (hash < signature[h]) {
+                    signature[h] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // the SplitMix64 finalizer, a cheap hash with good avalanche
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Packed pairs in an open-addressing table. 0 marks a free slot; it is never a pair,
+     * since i < j.
+     */
+    private static final class PairSet {
+        private long[] slots = new long[64];
+        private int size;
+
+        void add(long pair) {
+            int mask = slots.length - 1;
+            int slot = (int) mix(pair) & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == pair) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = pair;
+            if (++size * 2 > slots.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            int mask = slots.length - 1;
+            for (long pair : old) {
+                if (pair != 0) {
+                    int slot = (int) mix(pair) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = pair;
+                }
+            }
+        }
+
+        long[] toArray() {
+            long[] pairs = new long[size];
+            int count = 0;
+            for (long pair : slots) {
+                if (pair != 0) {
+                    pairs[count++] = pair;
+                }
+            }
+            return pairs;
+        }
+    }
+}
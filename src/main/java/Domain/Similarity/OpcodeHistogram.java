@@ -0,0 +1,90 @@
+package Domain.Similarity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * How often each opcode occurs in a sequence. Two sequences can have no longer common
+ * subsequence than the sum over all opcodes of the smaller of their two counts, which
+ * makes the histogram a cheap upper bound on their LCS.
+ */
+public final class OpcodeHistogram {
+
+    // distinct opcodes in ascending order, and how often each occurs
+    private final int[] opcodes;
+    private final int[] counts;
+    private final int length;
+
+    private OpcodeHistogram(int[] opcodes, int[] counts, int length) {
+        this.opcodes = opcodes;
+        this.counts = counts;
+        this.length = length;
+    }
+
+    public static OpcodeHistogram of(int[] sequence) {
+        int[] sorted = sequence.clone();
+        Arrays.sort(sorted);
+        int[] opcodes = new int[sorted.length];
+        int[] counts = new int[sorted.length];
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || opcodes[distinct - 1] != sorted[i]) {
+                opcodes[distinct++] = sorted[i];
+            }
+            counts[distinct - 1]++;
+        }
+        return new OpcodeHistogram(Arrays.copyOf(opcodes, distinct), Arrays.copyOf(counts, distinct), sequence.length);
+    }
+
+    /**
+     * The length of the sequence.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The sum of the smaller count of every opcode, an upper bound on the LCS length.
+     */
+    public int intersection(OpcodeHistogram other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < opcodes.length && j < other.opcodes.length) {
+            if (opcodes[i] < other.opcodes[j]) {
+                i++;
+            } else if (opcodes[i] > other.opcodes[j]) {
+                j++;
+            } else {
+                total += Math.min(counts[i++], other.counts[j++]);
+            }
+        }
+        return total;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(length);
+        out.writeInt(opcodes.length);
+        for (int i = 0; i < opcodes.length; i++) {
+            out.writeInt(opcodes[i]);
+            out.writeInt(counts[i]);
+        }
+    }
+
+    public static OpcodeHistogram readFrom(DataInput in) throws IOException {
+        int length = in.readInt();
+        int distinct = in.readInt();
+        if (length < 0 || distinct < 0 || distinct > length) {
+            throw new IOException("Damaged histogram");
+        }
+        int[] opcodes = new int[distinct];
+        int[] counts = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            opcodes[i] = in.readInt();
+            counts[i] = in.readInt();
+        }
+        return new OpcodeHistogram(opcodes, counts, length);
+    }
+}
@@ -0,0 +1,90 @@
+package Domain.Similarity;
+
+import Domain.AnalysisContext;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.ILcsKernel;
+import Domain.Statistics.CheckStatistics;
+
+/**
+ * Rules out method pairs that cannot reach the similarity threshold before the quadratic
+ * LCS runs. Similarity is LCS / max(m, n), and two cheap bounds cap the LCS: the shorter
+ * length, and the opcode histogram intersection. Both are checked in that order, and the
+ * pairs each one rules out are counted, as are the pairs whose similarity was already
+ * stored. One instance per check call; not thread safe.
+ */
+public class SimilarityPruning {
+
+    private final double threshold;
+    private long pairs;
+    private long prunedByLength;
+    private long prunedByHistogram;
+    private long stored;
+
+    public SimilarityPruning(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * The shortest LCS that makes two sequences, the longer of them maxLength long, more
+     * similar than the threshold.
+     */
+    public static int minLcsLength(double threshold, int maxLength) {
+        int length = (int) (threshold * maxLength);
+        while (length <= maxLength && (double) length / maxLength <= threshold) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * The similarity of two opcode sequences: LCS / max(m, n), 0 when either is empty. The
+     * kernel may stop early below the threshold, so the result is only exact for pairs
+     * above it.
+     */
+    public static double similarity(ILcsKernel kernel, int[] opcodes1, int[] opcodes2, double threshold) {
+        if (opcodes1.length == 0 || opcodes2.length == 0) {
+            return 0.0;
+        }
+        int maxLength = Math.max(opcodes1.length, opcodes2.length);
+        int lcsLength = kernel.lcsLengthAtLeast(opcodes1, opcodes2, minLcsLength(threshold, maxLength));
+        return (double) lcsLength / maxLength;
+    }
+
+    /**
+     * False when the pair can be no more similar than the threshold, so the LCS can be
+     * skipped. True only means it might be.
+     */
+    public boolean mayExceed(OpcodeHistogram a, OpcodeHistogram b) {
+        pairs++;
+        int maxLength = Math.max(a.length(), b.length());
+        if ((double) Math.min(a.length(), b.length()) / maxLength <= threshold) {
+            prunedByLength++;
+            return false;
+        }
+        if ((double) a.intersection(b) / maxLength <= threshold) {
+            prunedByHistogram++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts a pair that passed the bounds but needs no LCS, its similarity being stored.
+     */
+    public void countStored() {
+        stored++;
+    }
+
+    /**
+     * Adds the counts to the check's row, when the run collects statistics.
+     */
+    public void report(AnalysisContext context, ICheck check) {
+        CheckStatistics.count(context, check, "pairs", pairs);
+        CheckStatistics.count(context, check, "pairs pruned by length", prunedByLength);
+        CheckStatistics.count(context, check, "pairs pruned by histogram", prunedByHistogram);
+        if (stored > 0) {
+            CheckStatistics.count(context, check, "pairs from fingerprint store", stored);
+        }
+        CheckStatistics.count(context, check, "pairs verified by LCS", pairs - prunedByLength - prunedByHistogram - stored);
+    }
+}
@@ -0,0 +1,126 @@
+package Domain.Similarity;
+
+import java.util.Arrays;
+
+/**
+ * Suffix and LCP arrays over int sequences. The suffix array comes from prefix doubling
+ * with counting sorts, O(n log n); the LCP array from Kasai's algorithm, O(n).
+ */
+public final class SuffixArray {
+
+    private SuffixArray() {}
+
+    /**
+     * The start positions of all suffixes of s in sorted order. Symbols must not be
+     * negative.
+     */
+    public static int[] build(int[] s) {
+        int n = s.length;
+        int[] sa = new int[n];
+        if (n == 0) {
+            return sa;
+        }
+
+        // start with every suffix ranked by its first symbol
+        int alphabet = 0;
+        for (int symbol : s) {
+            if (symbol < 0) {
+                throw new IllegalArgumentException("Negative symbol: " + symbol);
+            }
+            alphabet = Math.max(alphabet, symbol + 1);
+        }
+        int[] rank = new int[n];
+        int[] count = new int[Math.max(alphabet, n) + 1];
+        for (int symbol : s) {
+            count[symbol + 1]++;
+        }
+        for (int r = 1; r <= alphabet; r++) {
+            count[r] += count[r - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            sa[count[s[i]]++] = i;
+        }
+        int[] next = new int[n];
+        int ranks = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && s[sa[i]] != s[sa[i - 1]]) {
+                ranks++;
+            }
+            rank[sa[i]] = ranks;
+        }
+        ranks++;
+
+        int[] order = new int[n];
+        for (int k = 1; ranks < n; k <<= 1) {
+            // order by the second half: suffixes without one first, then the rest in sa order
+            int p = 0;
+            for (int i = n - k; i < n; i++) {
+                order[p++] = i;
+            }
+            for (int i = 0; i < n; i++) {
+                if (sa[i] >= k) {
+                    order[p++] = sa[i] - k;
+                }
+            }
+
+            // then a stable counting sort by the first half
+            Arrays.fill(count, 0, ranks + 1, 0);
+            for (int i = 0; i < n; i++) {
+                count[rank[i] + 1]++;
+            }
+            for (int r = 1; r <= ranks; r++) {
+                count[r] += count[r - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                sa[count[rank[order[i]]]++] = order[i];
+            }
+
+            next[sa[0]] = 0;
+            ranks = 1;
+            for (int i = 1; i < n; i++) {
+                int a = sa[i - 1];
+                int b = sa[i];
+                boolean same = rank[a] == rank[b]
+                        && (a + k < n ? rank[a + k] : -1) == (b + k < n ? rank[b + k] : -1);
+                if (!same) {
+                    ranks++;
+                }
+                next[b] = ranks - 1;
+            }
+            int[] swap = rank;
+            rank = next;
+            next = swap;
+        }
+
+        return sa;
+    }
+
+    /**
+     * lcp[i] is the length of the common prefix of the suffixes at sa[i - 1] and sa[i];
+     * lcp[0] is 0.
+     */
+    public static int[] lcp(int[] s, int[] sa) {
+        int n = s.length;
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[sa[i]] = i;
+        }
+        int[] lcp = new int[n];
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            if (rank[i] == 0) {
+                h = 0;
+                continue;
+            }
+            int j = sa[rank[i] - 1];
+            while (i + h < n && j + h < n && s[i + h] == s[j + h]) {
+                h++;
+            }
+            lcp[rank[i]] = h;
+            if (h > 0) {
+                h--;
+            }
+        }
+        return lcp;
+    }
+}
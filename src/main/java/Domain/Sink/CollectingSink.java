@@ -0,0 +1,32 @@
+package Domain.Sink;
+
+import Domain.Interfaces.ILintResultSink;
+import Domain.LintResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every result it receives in a list.
+ */
+public class CollectingSink implements ILintResultSink {
+
+    private final List<LintResult> results;
+
+    public CollectingSink() {
+        this(new ArrayList<>());
+    }
+
+    public CollectingSink(List<LintResult> results) {
+        this.results = results;
+    }
+
+    @Override
+    public void accept(LintResult result) {
+        results.add(result);
+    }
+
+    public List<LintResult> getResults() {
+        return results;
+    }
+}
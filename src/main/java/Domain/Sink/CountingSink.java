@@ -0,0 +1,42 @@
+package Domain.Sink;
+
+import Domain.Category;
+import Domain.Interfaces.ILintResultSink;
+import Domain.LintResult;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts results by check name and category without keeping the results themselves.
+ */
+public class CountingSink implements ILintResultSink {
+
+    private final Map<String, Integer> countsByCheck = new LinkedHashMap<>();
+    private final Map<Category, Integer> countsByCategory = new EnumMap<>(Category.class);
+    private int total;
+
+    @Override
+    public void accept(LintResult result) {
+        total++;
+        countsByCheck.merge(result.getCheckName(), 1, Integer::sum);
+        countsByCategory.merge(result.getCategory(), 1, Integer::sum);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCount(String checkName) {
+        return countsByCheck.getOrDefault(checkName, 0);
+    }
+
+    public int getCount(Category category) {
+        return countsByCategory.getOrDefault(category, 0);
+    }
+
+    public Map<String, Integer> getCountsByCheck() {
+        return countsByCheck;
+    }
+}
@@ -0,0 +1,27 @@
+package Domain.Sink;
+
+import Domain.Interfaces.ILintResultSink;
+import Domain.LintResult;
+
+import java.util.function.Predicate;
+
+/**
+ * Passes on only the results that match a filter.
+ */
+public class FilteringSink implements ILintResultSink {
+
+    private final Predicate<LintResult> filter;
+    private final ILintResultSink downstream;
+
+    public FilteringSink(Predicate<LintResult> filter, ILintResultSink downstream) {
+        this.filter = filter;
+        this.downstream = downstream;
+    }
+
+    @Override
+    public void accept(LintResult result) {
+        if (filter.test(result)) {
+            downstream.accept(result);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package Domain.Sink;
+
+import Domain.Interfaces.ILintResultSink;
+import Domain.LintResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes each result as one line of text as soon as it arrives.
+ */
+public class WriterSink implements ILintResultSink {
+
+    private final Appendable out;
+
+    public WriterSink(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void accept(LintResult result) {
+        try {
+            out.append(result.toString()).append(System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
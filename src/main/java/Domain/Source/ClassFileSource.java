@@ -0,0 +1,35 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hand-picked list of .class files. Entries are the file paths.
+ */
+public class ClassFileSource implements IClassSource {
+
+    private final List<Path> files;
+
+    public ClassFileSource(List<Path> files) {
+        this.files = new ArrayList<>(files);
+    }
+
+    @Override
+    public List<String> getEntries() {
+        List<String> entries = new ArrayList<>();
+        for (Path file : files) {
+            entries.add(file.toString());
+        }
+        return entries;
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        return DirectorySource.readFile(Paths.get(entry));
+    }
+}
@@ -0,0 +1,104 @@
+package Domain.Source;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the name of a class from the start of its class file: the constant pool and the
+ * this_class index. The rest of the file, fields, methods and attributes, is never read.
+ *
+ * The UTF-8 entries of the pool are copied into a buffer that is reused from file to file,
+ * and only the class name is turned into a String. One instance per thread.
+ */
+public final class ClassHeaderReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private byte[] buffer = new byte[4096];
+    // by constant pool index: where a UTF-8 entry starts in the buffer, or a class entry's name index
+    private int[] utf8Offsets = new int[256];
+    private int[] classNames = new int[256];
+
+    /**
+     * The internal name (java/util/List) of the class in the stream.
+     */
+    public String readClassName(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        int poolSize = in.readUnsignedShort();
+        if (utf8Offsets.length < poolSize) {
+            utf8Offsets = new int[poolSize];
+            classNames = new int[poolSize];
+        }
+
+        int used = 0;
+        for (int index = 1; index < poolSize; index++) {
+            utf8Offsets[index] = -1;
+            classNames[index] = 0;
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8, kept with its length so DataInput can decode it
+                    int length = in.readUnsignedShort();
+                    if (used + length + 2 > buffer.length) {
+                        byte[] grown = new byte[Math.max(buffer.length * 2, used + length + 2)];
+                        System.arraycopy(buffer, 0, grown, 0, used);
+                        buffer = grown;
+                    }
+                    utf8Offsets[index] = used;
+                    buffer[used] = (byte) (length >>> 8);
+                    buffer[used + 1] = (byte) length;
+                    in.readFully(buffer, used + 2, length);
+                    used += length + 2;
+                    break;
+                case 7: // Class
+                    classNames[index] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double, which take two slots
+                    in.skipBytes(8);
+                    if (++index < poolSize) {
+                        utf8Offsets[index] = -1;
+                        classNames[index] = 0;
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        in.readUnsignedShort(); // access flags
+        int thisClass = in.readUnsignedShort();
+        int nameIndex = thisClass > 0 && thisClass < poolSize ? classNames[thisClass] : 0;
+        if (nameIndex <= 0 || nameIndex >= poolSize || utf8Offsets[nameIndex] < 0) {
+            throw new IOException("Bad this_class entry");
+        }
+        int offset = utf8Offsets[nameIndex];
+        int length = ((buffer[offset] & 0xFF) << 8) | (buffer[offset + 1] & 0xFF);
+        return new DataInputStream(new ByteArrayInputStream(buffer, offset, length + 2)).readUTF();
+    }
+}
@@ -0,0 +1,42 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classes named like java.lang.String, looked up through a class loader. This is how
+ * Linter has always found its input.
+ */
+public class ClassNameSource implements IClassSource {
+
+    private final List<String> classNames;
+    private final ClassLoader loader;
+
+    public ClassNameSource(String... classNames) {
+        this(ClassLoader.getSystemClassLoader(), classNames);
+    }
+
+    public ClassNameSource(ClassLoader loader, String... classNames) {
+        this.classNames = Arrays.asList(classNames.clone());
+        this.loader = loader;
+    }
+
+    @Override
+    public List<String> getEntries() {
+        return classNames;
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        try (InputStream in = loader.getResourceAsStream(entry.replace('.', '/') + ".class")) {
+            if (in == null) {
+                throw new IOException("Class not found");
+            }
+            return in.readAllBytes();
+        }
+    }
+}
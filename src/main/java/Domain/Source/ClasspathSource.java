@@ -0,0 +1,99 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several directories and JARs read as one, like a classpath: when two roots hold the
+ * same class, the first one wins.
+ */
+public class ClasspathSource implements IClassSource {
+
+    private final List<IClassSource> roots;
+    private Map<String, IClassSource> owners;
+
+    public ClasspathSource(List<IClassSource> roots) {
+        this.roots = new ArrayList<>(roots);
+    }
+
+    /**
+     * Opens every entry of a classpath string such as lib/a.jar:target/classes.
+     */
+    public static ClasspathSource parse(String classpath) throws IOException {
+        List<IClassSource> roots = new ArrayList<>();
+        try {
+            for (String element : classpath.split(File.pathSeparator)) {
+                if (!element.isEmpty()) {
+                    roots.add(forPath(Paths.get(element)));
+                }
+            }
+        } catch (IOException e) {
+            for (IClassSource root : roots) {
+                root.close();
+            }
+            throw e;
+        }
+        return new ClasspathSource(roots);
+    }
+
+    /**
+     * A directory source for a directory, a JAR source for anything else.
+     */
+    public static IClassSource forPath(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new DirectorySource(path);
+        }
+        if (Files.isRegularFile(path)) {
+            return new JarSource(path);
+        }
+        throw new IOException("No such directory or JAR: " + path);
+    }
+
+    @Override
+    public List<String> getEntries() throws IOException {
+        Map<String, IClassSource> found = new LinkedHashMap<>();
+        for (IClassSource root : roots) {
+            for (String entry : root.getEntries()) {
+                found.putIfAbsent(entry, root);
+            }
+        }
+        this.owners = found;
+        return new ArrayList<>(found.keySet());
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        if (owners == null) {
+            getEntries();
+        }
+        IClassSource owner = owners.get(entry);
+        if (owner == null) {
+            throw new IOException("No entry " + entry + " on the classpath");
+        }
+        return owner.read(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (IClassSource root : roots) {
+            try {
+                root.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Every .class file under a directory. Entries are paths relative to the directory with
+ * forward slashes, e.g. decoratorExamples/GoodDecorator.class.
+ */
+public class DirectorySource implements IClassSource {
+
+    private final Path root;
+
+    public DirectorySource(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public List<String> getEntries() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.toString().endsWith(".class"))
+                    .map(p -> root.relativize(p).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        return readFile(root.resolve(entry));
+    }
+
+    /**
+     * Reads a file straight into an array of its exact size, without stream buffers.
+     */
+    static byte[] readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Class file too large: " + file);
+            }
+            byte[] bytes = new byte[(int) size];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Class file truncated while reading: " + file);
+                }
+            }
+            return bytes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The classes in a JAR or ZIP file, read in place without extracting anything to disk.
+ * Entries are the paths inside the archive. module-info and the versioned copies under
+ * META-INF/ are left out.
+ */
+public class JarSource implements IClassSource {
+
+    private final Path jarFile;
+    private final ZipFile zip;
+
+    public JarSource(Path jarFile) throws IOException {
+        this.jarFile = jarFile;
+        this.zip = new ZipFile(jarFile.toFile());
+    }
+
+    @Override
+    public List<String> getEntries() {
+        List<String> entries = new ArrayList<>();
+        Enumeration<? extends ZipEntry> all = zip.entries();
+        while (all.hasMoreElements()) {
+            ZipEntry entry = all.nextElement();
+            String name = entry.getName();
+            if (!entry.isDirectory() && name.endsWith(".class")
+                    && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                entries.add(name);
+            }
+        }
+        Collections.sort(entries);
+        return entries;
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        ZipEntry zipEntry = zip.getEntry(entry);
+        if (zipEntry == null) {
+            throw new IOException("No entry " + entry + " in " + jarFile);
+        }
+        try (InputStream in = zip.getInputStream(zipEntry)) {
+            long size = zipEntry.getSize();
+            // the central directory normally records the size, so the array is exact
+            return size >= 0 && size <= Integer.MAX_VALUE ? in.readNBytes((int) size) : in.readAllBytes();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    @Override
+    public String toString() {
+        return jarFile.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package Domain.Source;
+
+import Domain.Interfaces.IClassSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Classes of the running JDK, read from the jrt:/ image. Entries look like
+ * java.base/java/lang/Object.class.
+ */
+public class JrtSource implements IClassSource {
+
+    private final List<String> modules;
+    private final FileSystem jrt;
+
+    /**
+     * @param modules the modules to list, e.g. java.base
+     */
+    public JrtSource(List<String> modules) {
+        this.modules = new ArrayList<>(modules);
+        this.jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+    }
+
+    @Override
+    public List<String> getEntries() throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (String module : modules) {
+            Path moduleRoot = jrt.getPath("/modules", module);
+            if (!Files.isDirectory(moduleRoot)) {
+                throw new IOException("No module " + module + " in the runtime image");
+            }
+            try (Stream<Path> paths = Files.walk(moduleRoot)) {
+                entries.addAll(paths
+                        .filter(Files::isRegularFile)
+                        .map(p -> module + "/" + moduleRoot.relativize(p))
+                        .filter(name -> name.endsWith(".class") && !name.endsWith("module-info.class"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public byte[] read(String entry) throws IOException {
+        return Files.readAllBytes(jrt.getPath("/modules", entry));
+    }
+
+    @Override
+    public String toString() {
+        return "jrt:/" + String.join(",", modules);
+    }
+}
@@ -0,0 +1,237 @@
+package Domain.Statistics;
+
+import Domain.AnalysisContext;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IInstructionCheck;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time of a lint run goes, check by check: wall time, CPU time, bytes allocated,
+ * classes visited, results emitted, per-class time percentiles and any counters the
+ * checks add themselves.
+ *
+ * The engine wraps each check with instrument before a run and keeps this object in the
+ * AnalysisContext under KEY. Instruction checks share one walk over the instructions;
+ * their rows hold the wall time of their own callbacks, and whatever the walk costs on
+ * top of that goes into the SHARED_PASS row. CPU time and allocation of the instruction
+ * callbacks are only measured for the walk as a whole, since reading those clocks for
+ * every instruction would cost more than the checks themselves.
+ */
+public class CheckStatistics {
+
+    public static final AnalysisContext.Key<CheckStatistics> KEY = AnalysisContext.Key.of("CheckStatistics");
+
+    public static final String SHARED_PASS = "(shared instruction pass)";
+
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+
+    /**
+     * Wraps the checks so every call is measured. The wrappers keep the instruction check
+     * contract of the checks they wrap.
+     */
+    public List<ICheck> instrument(List<ICheck> checks) {
+        List<ICheck> instrumented = new ArrayList<>();
+        for (ICheck check : checks) {
+            Row row = getRow(check.getName());
+            if (check instanceof IInstructionCheck) {
+                instrumented.add(new InstrumentedInstructionCheck((IInstructionCheck) check, row, this));
+            } else {
+                instrumented.add(new InstrumentedCheck(check, row));
+            }
+        }
+        return instrumented;
+    }
+
+    /**
+     * The row for a check name, created empty the first time it is asked for.
+     */
+    public synchronized Row getRow(String name) {
+        return rows.computeIfAbsent(name, Row::new);
+    }
+
+    public synchronized List<Row> getRows() {
+        return new ArrayList<>(rows.values());
+    }
+
+    /**
+     * Adds to a custom counter of the check, if the run is collecting statistics.
+     */
+    public static void count(AnalysisContext context, ICheck check, String counter, long delta) {
+        CheckStatistics statistics = context.get(KEY);
+        if (statistics != null) {
+            statistics.getRow(check.getName()).count(counter, delta);
+        }
+    }
+
+    /**
+     * Measures something that runs outside execute, such as a project check building its model,
+     * and charges it to the check.
+     */
+    public void measureSetup(ICheck check, Runnable setup) {
+        ThreadMeter.Reading start = new ThreadMeter.Reading();
+        try {
+            setup.run();
+        } finally {
+            getRow(check.getName()).addTotals(start, new ThreadMeter.Reading());
+        }
+    }
+
+    /**
+     * Measures one walk over the instructions of a class and charges it to SHARED_PASS.
+     */
+    public void measureSharedPass(Runnable walk) {
+        ThreadMeter.Reading start = new ThreadMeter.Reading();
+        try {
+            walk.run();
+        } finally {
+            Row shared = getRow(SHARED_PASS);
+            shared.addTotals(start, new ThreadMeter.Reading());
+            shared.classes.increment();
+        }
+    }
+
+    /**
+     * Formats all rows as a fixed-width table, one line per check plus a total.
+     */
+    public String formatTable() {
+        List<Row> all = getRows();
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-32s %8s %8s %10s %10s %10s %9s %9s %9s %9s",
+                "Check", "Classes", "Results", "Wall ms", "CPU ms", "Alloc MB",
+                "p50 us", "p90 us", "p99 us", "max us");
+        sb.append(header).append('\n');
+        sb.append("-".repeat(header.length())).append('\n');
+
+        long classes = 0;
+        long results = 0;
+        long wall = 0;
+        long cpu = 0;
+        long allocated = 0;
+        for (Row row : all) {
+            sb.append(String.format("%-32s %8d %8d %10.1f %10.1f %10.2f %9.1f %9.1f %9.1f %9.1f",
+                    truncate(row.getName(), 32), row.getClasses(), row.getResults(),
+                    row.getWallNanos() / 1e6, row.getCpuNanos() / 1e6, row.getAllocatedBytes() / 1048576.0,
+                    row.getPercentileNanos(50) / 1e3, row.getPercentileNanos(90) / 1e3,
+                    row.getPercentileNanos(99) / 1e3, row.getPercentileNanos(100) / 1e3)).append('\n');
+            for (Map.Entry<String, Long> counter : row.getCounters().entrySet()) {
+                sb.append(String.format("    %-28s %8d", truncate(counter.getKey(), 28), counter.getValue())).append('\n');
+            }
+            if (!SHARED_PASS.equals(row.getName())) {
+                classes = Math.max(classes, row.getClasses());
+            }
+            results += row.getResults();
+            wall += row.getWallNanos();
+            cpu += row.getCpuNanos();
+            allocated += row.getAllocatedBytes();
+        }
+        sb.append("-".repeat(header.length())).append('\n');
+        sb.append(String.format("%-32s %8d %8d %10.1f %10.1f %10.2f",
+                "Total", classes, results, wall / 1e6, cpu / 1e6, allocated / 1048576.0)).append('\n');
+        return sb.toString();
+    }
+
+    private static String truncate(String s, int width) {
+        return s.length() <= width ? s : s.substring(0, width - 1) + "~";
+    }
+
+    /**
+     * The measurements of one check. Safe to update from several threads.
+     */
+    public static final class Row {
+        private final String name;
+        private final LongAdder classes = new LongAdder();
+        private final LongAdder results = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+        private long[] samples = new long[64];
+        private int sampleCount;
+
+        Row(String name) {
+            this.name = name;
+        }
+
+        void recordClass(long classWallNanos, int classResults) {
+            classes.increment();
+            results.add(classResults);
+            synchronized (this) {
+                if (sampleCount == samples.length) {
+                    samples = Arrays.copyOf(samples, samples.length * 2);
+                }
+                samples[sampleCount++] = classWallNanos;
+            }
+        }
+
+        void addTotals(ThreadMeter.Reading start, ThreadMeter.Reading end) {
+            wallNanos.add(end.wallSince(start));
+            cpuNanos.add(end.cpuSince(start));
+            allocatedBytes.add(end.allocatedSince(start));
+        }
+
+        void addWall(long nanos) {
+            wallNanos.add(nanos);
+        }
+
+        void count(String counter, long delta) {
+            counters.computeIfAbsent(counter, k -> new LongAdder()).add(delta);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getClasses() {
+            return classes.sum();
+        }
+
+        public long getResults() {
+            return results.sum();
+        }
+
+        public long getWallNanos() {
+            return wallNanos.sum();
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        /**
+         * Custom counters by name, sorted.
+         */
+        public Map<String, Long> getCounters() {
+            Map<String, Long> out = new TreeMap<>();
+            for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+                out.put(counter.getKey(), counter.getValue().sum());
+            }
+            return out;
+        }
+
+        /**
+         * The wall time per class below which the given percent of classes fall, by the
+         * nearest-rank method. 100 gives the slowest class; 0 when no class was seen.
+         */
+        public synchronized long getPercentileNanos(double percent) {
+            if (sampleCount == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+}
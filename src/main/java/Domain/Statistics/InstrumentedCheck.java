@@ -0,0 +1,65 @@
+package Domain.Statistics;
+
+import Domain.AnalysisContext;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IStreamingCheck;
+import Domain.ParseRequirement;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.Set;
+
+/**
+ * Measures every execute call of the check it wraps.
+ */
+class InstrumentedCheck implements IStreamingCheck {
+
+    final ICheck check;
+    final CheckStatistics.Row row;
+
+    InstrumentedCheck(ICheck check, CheckStatistics.Row row) {
+        this.check = check;
+        this.row = row;
+    }
+
+    @Override
+    public void execute(ClassNode classNode, ILintResultSink sink) {
+        execute(classNode, AnalysisContext.standalone(classNode), sink);
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        int[] emitted = {0};
+        ThreadMeter.Reading start = new ThreadMeter.Reading();
+        try {
+            check.execute(classNode, context, result -> {
+                emitted[0]++;
+                sink.accept(result);
+            });
+        } finally {
+            ThreadMeter.Reading end = new ThreadMeter.Reading();
+            row.addTotals(start, end);
+            row.recordClass(end.wallSince(start), emitted[0]);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return check.getName();
+    }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return check.getParseRequirements();
+    }
+
+    @Override
+    public String getCacheKey() {
+        return check.getCacheKey();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return check.isThreadSafe();
+    }
+}
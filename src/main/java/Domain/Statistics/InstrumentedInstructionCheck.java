@@ -0,0 +1,99 @@
+package Domain.Statistics;
+
+import Domain.AnalysisContext;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Measures an instruction check. beginClass and endClass are measured in full; the
+ * callbacks in between only by wall time, which is also taken off the shared pass row so
+ * the walk is not counted twice.
+ */
+final class InstrumentedInstructionCheck extends InstrumentedCheck implements IInstructionCheck {
+
+    private final IInstructionCheck instructionCheck;
+    private final CheckStatistics statistics;
+
+    InstrumentedInstructionCheck(IInstructionCheck check, CheckStatistics.Row row, CheckStatistics statistics) {
+        super(check, row);
+        this.instructionCheck = check;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void execute(ClassNode classNode, ILintResultSink sink) {
+        IInstructionCheck.super.execute(classNode, sink);
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        IInstructionCheck.super.execute(classNode, context, sink);
+    }
+
+    @Override
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        return beginClass(classNode, AnalysisContext.standalone(classNode), sink);
+    }
+
+    @Override
+    public IInstructionListener beginClass(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        int[] emitted = {0};
+        ILintResultSink counting = result -> {
+            emitted[0]++;
+            sink.accept(result);
+        };
+
+        ThreadMeter.Reading start = new ThreadMeter.Reading();
+        IInstructionListener listener = instructionCheck.beginClass(classNode, context, counting);
+        ThreadMeter.Reading end = new ThreadMeter.Reading();
+        row.addTotals(start, end);
+        long beginNanos = end.wallSince(start);
+        if (listener == null) {
+            row.recordClass(beginNanos, emitted[0]);
+            return null;
+        }
+
+        return new IInstructionListener() {
+            private long callbackNanos;
+
+            @Override
+            public void beginMethod(MethodNode method) {
+                long t = ThreadMeter.wallNanos();
+                listener.beginMethod(method);
+                callbackNanos += ThreadMeter.wallNanos() - t;
+            }
+
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                long t = ThreadMeter.wallNanos();
+                listener.visitInsn(method, insn);
+                callbackNanos += ThreadMeter.wallNanos() - t;
+            }
+
+            @Override
+            public void endMethod(MethodNode method) {
+                long t = ThreadMeter.wallNanos();
+                listener.endMethod(method);
+                callbackNanos += ThreadMeter.wallNanos() - t;
+            }
+
+            @Override
+            public void endClass() {
+                ThreadMeter.Reading start = new ThreadMeter.Reading();
+                try {
+                    listener.endClass();
+                } finally {
+                    ThreadMeter.Reading end = new ThreadMeter.Reading();
+                    row.addTotals(start, end);
+                    row.addWall(callbackNanos);
+                    statistics.getRow(CheckStatistics.SHARED_PASS).addWall(-callbackNanos);
+                    row.recordClass(beginNanos + callbackNanos + end.wallSince(start), emitted[0]);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package Domain.Statistics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the clocks of the current thread: wall time, CPU time and bytes allocated. CPU
+ * time and allocation read as -1 on JVMs that cannot measure them.
+ */
+final class ThreadMeter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean SUN_THREADS = sunThreads();
+    private static final boolean CPU_SUPPORTED = cpuSupported();
+
+    private ThreadMeter() {}
+
+    static long wallNanos() {
+        return System.nanoTime();
+    }
+
+    static long cpuNanos() {
+        return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    static long allocatedBytes() {
+        return SUN_THREADS != null ? SUN_THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean sunThreads() {
+        try {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) THREADS;
+                if (sun.isThreadAllocatedMemorySupported()) {
+                    sun.setThreadAllocatedMemoryEnabled(true);
+                    return sun;
+                }
+            }
+        } catch (UnsupportedOperationException | LinkageError e) {
+            // not a HotSpot-style JVM
+        }
+        return null;
+    }
+
+    private static boolean cpuSupported() {
+        try {
+            if (THREADS.isCurrentThreadCpuTimeSupported()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+                return true;
+            }
+        } catch (UnsupportedOperationException e) {
+            // fall through
+        }
+        return false;
+    }
+
+    /**
+     * The three clocks at one moment; since(start) gives the difference.
+     */
+    static final class Reading {
+        final long wall;
+        final long cpu;
+        final long allocated;
+
+        Reading() {
+            this.wall = wallNanos();
+            this.cpu = cpuNanos();
+            this.allocated = allocatedBytes();
+        }
+
+        long wallSince(Reading start) {
+            return wall - start.wall;
+        }
+
+        long cpuSince(Reading start) {
+            return cpu < 0 || start.cpu < 0 ? 0 : cpu - start.cpu;
+        }
+
+        long allocatedSince(Reading start) {
+            return allocated < 0 || start.allocated < 0 ? 0 : allocated - start.allocated;
+        }
+    }
+}
@@ -1,29 +1,29 @@
 package Domain.StyleCheck;
 
 import Domain.Category;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Interfaces.IStreamingCheck;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 
-public class CamelCaseCheck implements IStyleCheck {
+public class CamelCaseCheck implements IStyleCheck, IStreamingCheck {
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> results = new ArrayList<>();
-
+    public void execute(ClassNode classNode, ILintResultSink sink) {
         // ---- Field names: lowerCamelCase ----
         if (classNode.fields != null) {
             for (FieldNode field : classNode.fields) {
                 if (shouldIgnoreField(field)) continue;
 
                 if (!isLowerCamelCase(field.name)) {
-                    results.add(new LintResult(
+                    sink.accept(new LintResult(
                             getName(),
                             Category.STYLE,
                             classNode.name.replace('/', '.'),
@@ -39,7 +39,7 @@ public class CamelCaseCheck implements IStyleCheck {
                 if (shouldIgnoreMethod(method)) continue;
 
                 if (!isLowerCamelCase(method.name)) {
-                    results.add(new LintResult(
+                    sink.accept(new LintResult(
                             getName(),
                             Category.STYLE,
                             classNode.name.replace('/', '.'),
@@ -48,8 +48,6 @@ public class CamelCaseCheck implements IStyleCheck {
                 }
             }
         }
-
-        return results;
     }
 
 //
@@ -58,6 +56,16 @@ public class CamelCaseCheck implements IStyleCheck {
         return "CamelCase";
     }
 
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     // ==================== Ignore rules (to match tests) ====================
 
     private boolean shouldIgnoreField(FieldNode field) {
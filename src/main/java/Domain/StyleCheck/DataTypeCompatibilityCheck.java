@@ -1,98 +1,105 @@
 package Domain.StyleCheck;
 
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A style check that verifies data type compatibility within the class.
  */
 
-public class DataTypeCompatibilityCheck implements IStyleCheck {
+public class DataTypeCompatibilityCheck implements IStyleCheck, IInstructionCheck {
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> lintResults = new java.util.ArrayList<>();
-
-        // Check field assignments
-        checkFieldAssignments(classNode, lintResults);
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        return new IInstructionListener() {
+            // method signature and return results are reported after all field assignment results
+            private final List<LintResult> methodResults = new ArrayList<>();
+            private Type returnType;
+
+            @Override
+            public void beginMethod(MethodNode method) {
+                // Skip constructors and static initializers for the method checks
+                boolean checkMethod = !method.name.equals("<init>") && !method.name.equals("<clinit>");
+                returnType = checkMethod ? Type.getMethodType(method.desc).getReturnType() : null;
+            }
 
-        // Check method signatures and return types
-        checkMethods(classNode, lintResults);
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                checkFieldAssignment(classNode, insn, sink);
+                if (returnType != null) {
+                    checkMethodInsn(classNode, method, returnType, insn, methodResults::add);
+                }
+            }
 
-        return lintResults;
+            @Override
+            public void endClass() {
+                for (LintResult result : methodResults) {
+                    sink.accept(result);
+                }
+            }
+        };
     }
 
-    private void checkFieldAssignments(ClassNode classNode, List<LintResult> lintResults) {
-        for (MethodNode method : classNode.methods) {
-            if (method.instructions == null) continue;
-
-            for (AbstractInsnNode insn : method.instructions) {
-                if (insn instanceof FieldInsnNode) {
-                    FieldInsnNode fieldInsn = (FieldInsnNode) insn;
-                    if (fieldInsn.getOpcode() == Opcodes.PUTFIELD ||
-                            fieldInsn.getOpcode() == Opcodes.PUTSTATIC) {
-
-                        FieldNode field = findField(classNode, fieldInsn.name);
-                        if (field != null && !field.desc.equals(fieldInsn.desc)) {
-                            lintResults.add(new LintResult(
-                                    getName(),
-                                    Category.STYLE,
-                                    String.valueOf(getLineNumber(insn)),
-                                    "Incompatible type assigned to field '" + fieldInsn.name + "'"
-                            ));
-                        }
-                    }
+    private void checkFieldAssignment(ClassNode classNode, AbstractInsnNode insn, ILintResultSink sink) {
+        if (insn instanceof FieldInsnNode) {
+            FieldInsnNode fieldInsn = (FieldInsnNode) insn;
+            if (fieldInsn.getOpcode() == Opcodes.PUTFIELD ||
+                    fieldInsn.getOpcode() == Opcodes.PUTSTATIC) {
+
+                FieldNode field = findField(classNode, fieldInsn.name);
+                if (field != null && !field.desc.equals(fieldInsn.desc)) {
+                    sink.accept(new LintResult(
+                            getName(),
+                            Category.STYLE,
+                            String.valueOf(getLineNumber(insn)),
+                            "Incompatible type assigned to field '" + fieldInsn.name + "'"
+                    ));
                 }
             }
         }
     }
 
-    private void checkMethods(ClassNode classNode, List<LintResult> lintResults) {
-        for (MethodNode method : classNode.methods) {
-            // Skip constructors and static initializers
-            if (method.name.equals("<init>") || method.name.equals("<clinit>") || method.instructions == null) {
-                continue;
+    private void checkMethodInsn(ClassNode classNode, MethodNode method, Type returnType,
+                                 AbstractInsnNode insn, ILintResultSink sink) {
+        // Check method calls
+        if (insn instanceof MethodInsnNode) {
+            MethodInsnNode methodInsn = (MethodInsnNode) insn;
+            if (methodInsn.name.equals("<init>") || methodInsn.name.equals("<clinit>")) {
+                return;
             }
+            MethodNode calledMethod = findMethod(classNode, methodInsn.name, methodInsn.desc);
+
+            if (calledMethod != null && !calledMethod.desc.equals(methodInsn.desc)) {
+                sink.accept(new LintResult(
+                        getName(),
+                        Category.STYLE,
+                        String.valueOf(getLineNumber(insn)),
+                        "Incompatible method signature for '" + methodInsn.name + "'"
+                ));
+            }
+        }
 
-            Type methodType = Type.getMethodType(method.desc);
-            Type returnType = methodType.getReturnType();
-
-            for (AbstractInsnNode insn : method.instructions) {
-                // Check method calls
-                if (insn instanceof MethodInsnNode) {
-                    MethodInsnNode methodInsn = (MethodInsnNode) insn;
-                    if (methodInsn.name.equals("<init>") || methodInsn.name.equals("<clinit>")) {
-                        continue;
-                    }
-                    MethodNode calledMethod = findMethod(classNode, methodInsn.name, methodInsn.desc);
-
-                    if (calledMethod != null && !calledMethod.desc.equals(methodInsn.desc)) {
-                        lintResults.add(new LintResult(
-                                getName(),
-                                Category.STYLE,
-                                String.valueOf(getLineNumber(insn)),
-                                "Incompatible method signature for '" + methodInsn.name + "'"
-                        ));
-                    }
-                }
-
-                // Check return types
-                if (isReturnInstruction(insn)) {
-                    if (!isCorrectReturnInstruction(insn.getOpcode(), returnType)) {
-                        lintResults.add(new LintResult(
-                                getName(),
-                                Category.STYLE,
-                                String.valueOf(getLineNumber(insn)),
-                                "Incompatible return type in method '" + method.name + "'"
-                        ));
-                    }
-                }
+        // Check return types
+        if (isReturnInstruction(insn)) {
+            if (!isCorrectReturnInstruction(insn.getOpcode(), returnType)) {
+                sink.accept(new LintResult(
+                        getName(),
+                        Category.STYLE,
+                        String.valueOf(getLineNumber(insn)),
+                        "Incompatible return type in method '" + method.name + "'"
+                ));
             }
         }
     }
@@ -151,4 +158,15 @@ public class DataTypeCompatibilityCheck implements IStyleCheck {
     public String getName() {
         return "DataTypeCompatibility";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers for the reported location
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
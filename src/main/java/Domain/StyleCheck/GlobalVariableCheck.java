@@ -3,12 +3,14 @@ package Domain.StyleCheck;
 import Domain.Category;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A style check that identifies global variable naming and usage in the class.
@@ -183,4 +185,14 @@ public class GlobalVariableCheck implements IStyleCheck {
     public String getName() {
         return "GlobalVariableCheck";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
@@ -1,21 +1,23 @@
 package Domain.StyleCheck;
 
+import Domain.AnalysisContext;
 import Domain.Category;
+import Domain.ClassHierarchyIndex;
+import Domain.ClassHierarchyIndex.MemberInfo;
+import Domain.ClassHierarchyIndex.TypeInfo;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.objectweb.asm.ClassReader;
-
 /**
  * A style check that verifies that classes extending abstract classes implement all abstract methods.
  *
@@ -30,10 +32,21 @@ public class MissingAbstractImplCheck implements IStyleCheck {
 
     @Override
     public List<LintResult> execute(ClassNode classNode) {
+        return check(classNode, AnalysisContext.standalone(classNode).getHierarchy());
+    }
+
+    @Override
+    public void execute(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        for (LintResult result : check(classNode, context.getHierarchy())) {
+            sink.accept(result);
+        }
+    }
+
+    private List<LintResult> check(ClassNode classNode, ClassHierarchyIndex hierarchy) {
         List<LintResult> lintResults = new ArrayList<>();
 
         // Only check concrete classes (not abstract or interfaces)
-        if (isAbstract(classNode) || isInterface(classNode)) {
+        if (isAbstract(classNode.access) || isInterface(classNode.access)) {
             return lintResults;
         }
 
@@ -42,15 +55,11 @@ public class MissingAbstractImplCheck implements IStyleCheck {
             return lintResults; // No abstract superclass
         }
 
-        // Try to load the superclass and check for abstract methods
-        try {
-            ClassNode superClass = loadClass(classNode.superName);
-            if (superClass != null && isAbstract(superClass)) {
-                checkAbstractMethodImplementations(classNode, superClass, lintResults);
-            }
-        } catch (IOException e) {
-            // Superclass not available for analysis - skip this check
-            // This is common when analyzing only part of a codebase
+        // Look up the superclass and check for abstract methods.
+        // A superclass that is not available is common when analyzing only part of a codebase.
+        TypeInfo superClass = hierarchy.get(classNode.superName);
+        if (superClass != null && isAbstract(superClass.getAccess())) {
+            checkAbstractMethodImplementations(hierarchy, classNode, superClass, lintResults);
         }
 
         return lintResults;
@@ -59,17 +68,17 @@ public class MissingAbstractImplCheck implements IStyleCheck {
     /**
      * Check if a concrete class implements all abstract methods from its superclass
      */
-    private void checkAbstractMethodImplementations(ClassNode classNode, ClassNode superClass,
-                                                    List<LintResult> lintResults) {
+    private void checkAbstractMethodImplementations(ClassHierarchyIndex hierarchy, ClassNode classNode,
+                                                    TypeInfo superClass, List<LintResult> lintResults) {
         // Get all abstract methods from the superclass hierarchy
-        Set<MethodSignature> abstractMethods = collectAbstractMethods(superClass);
+        Set<MethodSignature> abstractMethods = collectAbstractMethods(hierarchy, superClass);
 
         if (abstractMethods.isEmpty()) {
             return; // No abstract methods to implement
         }
 
         // Get all methods implemented in this class
-        Set<MethodSignature> implementedMethods = collectImplementedMethods(classNode);
+        Set<MethodSignature> implementedMethods = collectImplementedMethods(hierarchy, classNode);
 
         // Find missing implementations
         for (MethodSignature abstractMethod : abstractMethods) {
@@ -78,10 +87,10 @@ public class MissingAbstractImplCheck implements IStyleCheck {
                         getName(),
                         Category.STYLE,
                         "Class " + getSimpleClassName(classNode.name) + " does not implement abstract method '" +
-                                abstractMethod.name + abstractMethod.descriptor + "' from " + getSimpleClassName(superClass.name),
+                                abstractMethod.name + abstractMethod.descriptor + "' from " + getSimpleClassName(superClass.getName()),
                         "Concrete classes must implement all abstract methods from their superclass hierarchy. " +
                                 "The method '" + abstractMethod.name + "' is declared abstract in " +
-                                getSimpleClassName(superClass.name) + " but is not implemented in " +
+                                getSimpleClassName(superClass.getName()) + " but is not implemented in " +
                                 getSimpleClassName(classNode.name) + ". " +
                                 "Either implement this method or declare the class as abstract."
                 ));
@@ -92,25 +101,21 @@ public class MissingAbstractImplCheck implements IStyleCheck {
     /**
      * Collect all abstract methods from a class and its superclass hierarchy
      */
-    private Set<MethodSignature> collectAbstractMethods(ClassNode classNode) {
+    private Set<MethodSignature> collectAbstractMethods(ClassHierarchyIndex hierarchy, TypeInfo type) {
         Set<MethodSignature> abstractMethods = new HashSet<>();
 
         // Collect abstract methods from this class
-        for (MethodNode method : classNode.methods) {
-            if (isAbstractMethod(method)) {
-                abstractMethods.add(new MethodSignature(method.name, method.desc));
+        for (MemberInfo method : type.getMethods()) {
+            if (isAbstract(method.getAccess())) {
+                abstractMethods.add(new MethodSignature(method.getName(), method.getDesc()));
             }
         }
 
-        // Recursively collect from superclass
-        if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-            try {
-                ClassNode superClass = loadClass(classNode.superName);
-                if (superClass != null) {
-                    abstractMethods.addAll(collectAbstractMethods(superClass));
-                }
-            } catch (IOException e) {
-                // Superclass not available - can't analyze further up the hierarchy
+        // Recursively collect from superclass; stops where the hierarchy is not available
+        if (type.getSuperName() != null && !type.getSuperName().equals("java/lang/Object")) {
+            TypeInfo superClass = hierarchy.get(type.getSuperName());
+            if (superClass != null) {
+                abstractMethods.addAll(collectAbstractMethods(hierarchy, superClass));
             }
         }
 
@@ -120,36 +125,19 @@ public class MissingAbstractImplCheck implements IStyleCheck {
     /**
      * Collect all methods implemented in a class (including inherited non-abstract methods)
      */
-    private Set<MethodSignature> collectImplementedMethods(ClassNode classNode) {
+    private Set<MethodSignature> collectImplementedMethods(ClassHierarchyIndex hierarchy, ClassNode classNode) {
         Set<MethodSignature> implementedMethods = new HashSet<>();
 
         // Collect concrete methods from this class
         for (MethodNode method : classNode.methods) {
-            if (!isAbstractMethod(method)) {
+            if (!isAbstract(method.access)) {
                 implementedMethods.add(new MethodSignature(method.name, method.desc));
             }
         }
 
-        // Collect concrete methods from superclass
+        // Inherited non-abstract, non-private methods count as implemented
         if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-            try {
-                ClassNode superClass = loadClass(classNode.superName);
-                if (superClass != null) {
-                    for (MethodNode method : superClass.methods) {
-                        if (!isAbstractMethod(method) && !isPrivate(method)) {
-                            // Inherited non-abstract, non-private methods count as implemented
-                            implementedMethods.add(new MethodSignature(method.name, method.desc));
-                        }
-                    }
-
-                    // Recursively collect from superclass's superclass
-                    if (superClass.superName != null && !superClass.superName.equals("java/lang/Object")) {
-                        implementedMethods.addAll(collectInheritedConcreteMethods(superClass.superName));
-                    }
-                }
-            } catch (IOException e) {
-                // Superclass not available
-            }
+            implementedMethods.addAll(collectInheritedConcreteMethods(hierarchy, classNode.superName));
         }
 
         return implementedMethods;
@@ -158,79 +146,45 @@ public class MissingAbstractImplCheck implements IStyleCheck {
     /**
      * Collect inherited concrete methods from the class hierarchy
      */
-    private Set<MethodSignature> collectInheritedConcreteMethods(String className) {
+    private Set<MethodSignature> collectInheritedConcreteMethods(ClassHierarchyIndex hierarchy, String className) {
         Set<MethodSignature> methods = new HashSet<>();
 
-        try {
-            ClassNode classNode = loadClass(className);
-            if (classNode != null) {
-                for (MethodNode method : classNode.methods) {
-                    if (!isAbstractMethod(method) && !isPrivate(method)) {
-                        methods.add(new MethodSignature(method.name, method.desc));
-                    }
+        TypeInfo type = hierarchy.get(className);
+        if (type != null) {
+            for (MemberInfo method : type.getMethods()) {
+                if (!isAbstract(method.getAccess()) && !isPrivate(method.getAccess())) {
+                    methods.add(new MethodSignature(method.getName(), method.getDesc()));
                 }
+            }
 
-                // Recursively collect from superclass
-                if (classNode.superName != null && !classNode.superName.equals("java/lang/Object")) {
-                    methods.addAll(collectInheritedConcreteMethods(classNode.superName));
-                }
+            // Recursively collect from superclass
+            if (type.getSuperName() != null && !type.getSuperName().equals("java/lang/Object")) {
+                methods.addAll(collectInheritedConcreteMethods(hierarchy, type.getSuperName()));
             }
-        } catch (IOException e) {
-            // Class not available
         }
 
         return methods;
     }
 
     /**
-     * Load a class by name for analysis
+     * Check if a class or method is abstract
      */
-    private ClassNode loadClass(String className) throws IOException {
-        // Try to load from classpath
-        String resourceName = className + ".class";
-        InputStream classStream = ClassLoader.getSystemClassLoader().getResourceAsStream(resourceName);
-
-        if (classStream == null) {
-            // Try loading as if it's in the current package being analyzed
-            throw new IOException("Class not found: " + className);
-        }
-
-        try {
-            ClassReader classReader = new ClassReader(classStream);
-            ClassNode classNode = new ClassNode();
-            classReader.accept(classNode, 0);
-            return classNode;
-        } finally {
-            classStream.close();
-        }
-    }
-
-    /**
-     * Check if a class is abstract
-     */
-    private boolean isAbstract(ClassNode classNode) {
-        return (classNode.access & Opcodes.ACC_ABSTRACT) != 0;
+    private boolean isAbstract(int access) {
+        return (access & Opcodes.ACC_ABSTRACT) != 0;
     }
 
     /**
      * Check if a class is an interface
      */
-    private boolean isInterface(ClassNode classNode) {
-        return (classNode.access & Opcodes.ACC_INTERFACE) != 0;
-    }
-
-    /**
-     * Check if a method is abstract
-     */
-    private boolean isAbstractMethod(MethodNode method) {
-        return (method.access & Opcodes.ACC_ABSTRACT) != 0;
+    private boolean isInterface(int access) {
+        return (access & Opcodes.ACC_INTERFACE) != 0;
     }
 
     /**
      * Check if a method is private
      */
-    private boolean isPrivate(MethodNode method) {
-        return (method.access & Opcodes.ACC_PRIVATE) != 0;
+    private boolean isPrivate(int access) {
+        return (access & Opcodes.ACC_PRIVATE) != 0;
     }
 
     /**
@@ -249,6 +203,22 @@ public class MissingAbstractImplCheck implements IStyleCheck {
         return "MissingAbstractImplCheck";
     }
 
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS);
+    }
+
+    @Override
+    public String getCacheKey() {
+        // the result depends on the superclasses, which live in other class files
+        return null;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     /**
      * Helper class to represent a method signature (name + descriptor)
      */
@@ -279,4 +249,4 @@ public class MissingAbstractImplCheck implements IStyleCheck {
             return name + descriptor;
         }
     }
-}
\ No newline at end of file
+}
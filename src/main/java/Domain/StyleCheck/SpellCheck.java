@@ -1,8 +1,13 @@
 package Domain.StyleCheck;
 
+import Domain.AnalysisContext;
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 
 import org.languagetool.JLanguageTool;
 import org.languagetool.Languages;
@@ -17,63 +22,88 @@ import java.io.IOException;
  * A style check that verifies spelling in the code.
  */
 
-public class SpellCheck implements IStyleCheck {
-    // Lazily initialize language tool to avoid hard dependency at classload time
-    private JLanguageTool langTool = null;
+public class SpellCheck implements IStyleCheck, IInstructionCheck {
+    // JLanguageTool is not thread safe, so each worker of a run gets its own. Empty when
+    // LanguageTool is not on the classpath.
+    private static final AnalysisContext.Key<Optional<JLanguageTool>> LANG_TOOL =
+            AnalysisContext.Key.of("Spelling.langTool");
+
+    // Outside a run there is no context to keep the tool in, and building one takes far
+    // longer than checking a class, so standalone calls reuse one per thread from here.
+    private final ThreadLocal<Optional<JLanguageTool>> standaloneLangTool =
+            ThreadLocal.withInitial(SpellCheck::createLangTool);
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> lintResults = new ArrayList<>();
+    public void execute(ClassNode classNode, ILintResultSink sink) {
+        AnalysisContext context = AnalysisContext.standalone(classNode);
+        context.computePerThread(LANG_TOOL, standaloneLangTool::get);
+        execute(classNode, context, sink);
+    }
 
-       try {
-           String className = classNode.name;
-//           System.out.println(className);
-           int lastInd = (className.lastIndexOf("/") == -1) ? className.length() : className.lastIndexOf("/");
-           lintResults.addAll(checkWord(className.substring(0, lastInd), "class name"));
+    @Override
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        return listen(classNode, standaloneLangTool.get().orElse(null), sink);
+    }
 
-           if (classNode.fields != null) {
-               for (FieldNode field : classNode.fields) {
-                   lintResults.addAll(checkWord(field.name, "field name"));
-               }
-           }
-           if (classNode.methods != null) {
-               for (MethodNode method : classNode.methods) {
-                   lintResults.addAll(checkWord(method.name, "method name"));
-
-                   if (method.instructions != null) {
-                       for (AbstractInsnNode insn : method.instructions) {
-                           if (insn instanceof FieldInsnNode) {
-                               lintResults.addAll(checkWord(((FieldInsnNode) insn).name, insn));
-                           }
-                       }
-                   }
-
-                   if (method.parameters != null) {
-                       for (ParameterNode p : method.parameters) {
-                           lintResults.addAll(checkWord(p.name, "parameter name in method " + method.name));
-                       }
-                   }
-
-                   if (method.localVariables != null) {
-                       for (LocalVariableNode var : method.localVariables) {
-                           lintResults.addAll(checkWord(var.name, "local variable name in method " + method.name));
-                       }
-                   }
-               }
-           }
+    @Override
+    public IInstructionListener beginClass(ClassNode classNode, AnalysisContext context, ILintResultSink sink) {
+        return listen(classNode, context.computePerThread(LANG_TOOL, SpellCheck::createLangTool).orElse(null), sink);
+    }
 
-       }   catch (IOException e) {
-           throw new RuntimeException(e);
-       }
-        return lintResults;
+    private IInstructionListener listen(ClassNode classNode, JLanguageTool langTool, ILintResultSink sink) {
+        String className = classNode.name;
+//        System.out.println(className);
+        int lastInd = (className.lastIndexOf("/") == -1) ? className.length() : className.lastIndexOf("/");
+        report(checkWord(langTool, className.substring(0, lastInd), "class name"), sink);
+
+        if (classNode.fields != null) {
+            for (FieldNode field : classNode.fields) {
+                report(checkWord(langTool, field.name, "field name"), sink);
+            }
+        }
+
+        return new IInstructionListener() {
+            @Override
+            public void beginMethod(MethodNode method) {
+                report(checkWord(langTool, method.name, "method name"), sink);
+            }
+
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                if (insn instanceof FieldInsnNode) {
+                    report(checkWord(langTool, ((FieldInsnNode) insn).name, insn), sink);
+                }
+            }
+
+            @Override
+            public void endMethod(MethodNode method) {
+                if (method.parameters != null) {
+                    for (ParameterNode p : method.parameters) {
+                        report(checkWord(langTool, p.name, "parameter name in method " + method.name), sink);
+                    }
+                }
+
+                if (method.localVariables != null) {
+                    for (LocalVariableNode var : method.localVariables) {
+                        report(checkWord(langTool, var.name, "local variable name in method " + method.name), sink);
+                    }
+                }
+            }
+        };
+    }
+
+    private void report(List<LintResult> results, ILintResultSink sink) {
+        for (LintResult result : results) {
+            sink.accept(result);
+        }
     }
 
-    protected List<LintResult> checkWord(String str, AbstractInsnNode insn) throws IOException {
+    protected List<LintResult> checkWord(JLanguageTool langTool, String str, AbstractInsnNode insn) {
         if (str == null || str.isEmpty()) return Collections.emptyList();
         List<String> indWords = getWords(str);
         List<LintResult> lintResults = new ArrayList<>();
        for(String word : indWords){
-           List<RuleMatch> matches = ensureLangTool() ? langTool.check(word) : Collections.emptyList();
+           List<RuleMatch> matches = check(langTool, word);
            if (!matches.isEmpty()) {
                String message = "✗ '" + word + "' has spelling errors:";
                lintResults.add(new LintResult(getName(), Category.STYLE, "On line " + getLineNumber(insn), message));
@@ -82,12 +112,12 @@ public class SpellCheck implements IStyleCheck {
         return lintResults;
     }
 
-    protected List<LintResult> checkWord(String str, String type) throws IOException {
+    protected List<LintResult> checkWord(JLanguageTool langTool, String str, String type) {
         if (str == null || str.isEmpty()) return Collections.emptyList();
         List<String> indWords = getWords(str);
         List<LintResult> lintResults = new ArrayList<>();
        for(String word : indWords){
-           List<RuleMatch> matches = ensureLangTool() ? langTool.check(word) : Collections.emptyList();
+           List<RuleMatch> matches = check(langTool, word);
            if (!matches.isEmpty()) {
                String message = "✗ '" + word + "' has spelling errors:";
                lintResults.add(new LintResult(getName(), Category.STYLE, "Error in " + type, message));
@@ -96,19 +126,24 @@ public class SpellCheck implements IStyleCheck {
         return lintResults;
     }
 
+    private List<RuleMatch> check(JLanguageTool langTool, String word) {
+        try {
+            return langTool != null ? langTool.check(word) : Collections.emptyList();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
-     * Lazily attempts to initialize the LanguageTool instance.
-     * Returns true if the tool is available, false otherwise.
+     * Attempts to create a LanguageTool instance.
+     * Returns empty if the tool is not available.
      */
-    private boolean ensureLangTool() {
-        if (langTool != null) return true;
+    private static Optional<JLanguageTool> createLangTool() {
         try {
-            langTool = new JLanguageTool(Languages.getLanguageForShortCode("en-US"));
-            return true;
+            return Optional.of(new JLanguageTool(Languages.getLanguageForShortCode("en-US")));
         } catch (Throwable t) {
             // LanguageTool not available on classpath; skip spelling checks
-            langTool = null;
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -135,4 +170,15 @@ public class SpellCheck implements IStyleCheck {
     public String getName() {
         return "Spelling";
     }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // local variable names and line numbers
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
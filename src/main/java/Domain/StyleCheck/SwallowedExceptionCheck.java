@@ -3,11 +3,13 @@ package Domain.StyleCheck;
 import Domain.Category;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Set;
 
 /**
  * A style check that identifies swallowed exceptions in the class.
@@ -61,12 +63,11 @@ public class SwallowedExceptionCheck implements IStyleCheck {
             System.out.println(meaningfulInstructions);
             // If catch block has no meaningful instructions, it's swallowing the exception
             if (meaningfulInstructions == 0) {
-                String line= String.valueOf(startIndex);
                 String message = "Caught exception type '" + tcb.type + "' is swallowed without handling";
                 LintResult result = new LintResult(
                     getName(),
                     Category.STYLE,
-                    className + "." + method.name + " at line " + line,
+                    className + "." + method.name + " at " + describePosition(tcb.handler),
                     message
                 );
                 results.add(result);
@@ -108,11 +109,35 @@ public class SwallowedExceptionCheck implements IStyleCheck {
         return false;
     }
     
+    /**
+     * Describes where a catch handler starts: its source line, or without debug info the
+     * number of real instructions before it. Neither depends on the frame nodes a parse keeps.
+     */
+    private String describePosition(LabelNode handler) {
+        int line = getLineNumber(handler);
+        if (line >= 0) {
+            return "line " + line;
+        }
+        int index = 0;
+        for (AbstractInsnNode current = handler.getPrevious(); current != null; current = current.getPrevious()) {
+            if (current.getOpcode() >= 0) {
+                index++;
+            }
+        }
+        return "instruction " + index;
+    }
+
     /**
      * Extracts line number from an instruction or returns -1 if not found.
      */
     private int getLineNumber(AbstractInsnNode insn) {
-        // Search backward for LineNumberNode
+        // A line number right at the instruction, before the next real instruction, wins
+        for (AbstractInsnNode current = insn; current != null && current.getOpcode() < 0; current = current.getNext()) {
+            if (current instanceof LineNumberNode) {
+                return ((LineNumberNode) current).line;
+            }
+        }
+        // Otherwise search backward for LineNumberNode
         AbstractInsnNode current = insn;
         while (current != null) {
             if (current instanceof LineNumberNode) {
@@ -127,4 +152,15 @@ public class SwallowedExceptionCheck implements IStyleCheck {
     public String getName() {
         return "SwallowedExceptions";
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // line numbers give the reported position
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
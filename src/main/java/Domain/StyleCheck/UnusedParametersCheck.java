@@ -1,42 +1,62 @@
 package Domain.StyleCheck;
 
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
 import java.util.*;
 
-public class UnusedParametersCheck implements IStyleCheck {
+public class UnusedParametersCheck implements IStyleCheck, IInstructionCheck {
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> out = new ArrayList<>();
-        if (classNode.methods == null) return out;
-
-        for (MethodNode method : classNode.methods) {
-            if (shouldSkip(method)) continue;
-
-            List<ParamInfo> params = getParams(method);
-            if (params.isEmpty()) continue;
-
-            Set<Integer> usedSlots = getUsedSlots(method);
-
-            for (ParamInfo p : params) {
-                if (!usedSlots.contains(p.slot)) {
-                    String msg = "Unused parameter '" + p.name + "' in method '" + method.name + "'";
-                    out.add(new LintResult(
-                            getName(),
-                            Category.STYLE,
-                            classNode.name.replace('/', '.'),
-                            msg
-                    ));
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        if (classNode.methods == null) return null;
+
+        return new IInstructionListener() {
+            private List<ParamInfo> params = List.of();
+            private final Set<Integer> usedSlots = new HashSet<>();
+
+            @Override
+            public void beginMethod(MethodNode method) {
+                params = shouldSkip(method) ? List.of() : getParams(method);
+                usedSlots.clear();
+            }
+
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                if (params.isEmpty()) return;
+
+                if (insn instanceof VarInsnNode) {
+                    VarInsnNode v = (VarInsnNode) insn;
+                    if (isLoad(v.getOpcode())) {
+                        usedSlots.add(v.var);
+                    }
+                } else if (insn instanceof IincInsnNode) {
+                    usedSlots.add(((IincInsnNode) insn).var);
                 }
             }
-        }
 
-        return out;
+            @Override
+            public void endMethod(MethodNode method) {
+                for (ParamInfo p : params) {
+                    if (!usedSlots.contains(p.slot)) {
+                        String msg = "Unused parameter '" + p.name + "' in method '" + method.name + "'";
+                        sink.accept(new LintResult(
+                                getName(),
+                                Category.STYLE,
+                                classNode.name.replace('/', '.'),
+                                msg
+                        ));
+                    }
+                }
+            }
+        };
     }
 
     @Override
@@ -44,6 +64,17 @@ public class UnusedParametersCheck implements IStyleCheck {
         return "UnusedParameters";
     }
 
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        // local variable names for the parameters
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE, ParseRequirement.DEBUG_INFO);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     private boolean shouldSkip(MethodNode method) {
         if ((method.access & Opcodes.ACC_ABSTRACT) != 0) return true;
         if ((method.access & Opcodes.ACC_NATIVE) != 0) return true;
@@ -129,27 +160,6 @@ public class UnusedParametersCheck implements IStyleCheck {
         return slots;
     }
 
-    private Set<Integer> getUsedSlots(MethodNode method) {
-        Set<Integer> used = new HashSet<>();
-        if (method.instructions == null) return used;
-
-        for (AbstractInsnNode insn = method.instructions.getFirst();
-             insn != null;
-             insn = insn.getNext()) {
-
-            if (insn instanceof VarInsnNode) {
-                VarInsnNode v = (VarInsnNode) insn;
-                if (isLoad(v.getOpcode())) {
-                    used.add(v.var);
-                }
-            } else if (insn instanceof IincInsnNode) {
-                used.add(((IincInsnNode) insn).var);
-            }
-        }
-
-        return used;
-    }
-
     private boolean isLoad(int opcode) {
         return opcode == Opcodes.ILOAD ||
                 opcode == Opcodes.LLOAD ||
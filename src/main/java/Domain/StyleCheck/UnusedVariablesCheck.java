@@ -1,57 +1,68 @@
 package Domain.StyleCheck;
 
 import Domain.Category;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
 import Domain.Interfaces.IStyleCheck;
 import Domain.LintResult;
+import Domain.ParseRequirement;
 import org.objectweb.asm.tree.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * A style check that identifies unused variables in the class.
  */
 
-public class UnusedVariablesCheck implements IStyleCheck {
+public class UnusedVariablesCheck implements IStyleCheck, IInstructionCheck {
 
     @Override
-    public List<LintResult> execute(ClassNode classNode) {
-        List<LintResult> lintResults = new ArrayList<>();
-        List<FieldNode> fields = classNode.fields;
-
-        for (FieldNode field : fields) {
-            if (!isFieldUsed(field, classNode)) {
-                lintResults.add(new LintResult(
-                        getName(),
-                        Category.STYLE,
-                        classNode.name,
-                        "Field '" + field.name + "' is declared but never used."));
-            }
-        }
-        return lintResults;
-    }
+    public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+        return new IInstructionListener() {
+            // names of this class's fields that some instruction touches
+            private final Set<String> usedFields = new HashSet<>();
 
-    private boolean isFieldUsed(FieldNode field, ClassNode classNode) {
-        for (MethodNode method : classNode.methods) {
-            if (method.instructions == null) continue;
-
-            for (AbstractInsnNode insn : method.instructions) {
+            @Override
+            public void visitInsn(MethodNode method, AbstractInsnNode insn) {
                 if (insn.getType() == AbstractInsnNode.FIELD_INSN) {
                     FieldInsnNode fieldInsn = (FieldInsnNode) insn;
 
                     // Check both the field name AND owner class
-                    if (fieldInsn.name.equals(field.name) &&
-                            fieldInsn.owner.equals(classNode.name)) {
-                        return true;
+                    if (fieldInsn.owner.equals(classNode.name)) {
+                        usedFields.add(fieldInsn.name);
+                    }
+                }
+            }
+
+            @Override
+            public void endClass() {
+                for (FieldNode field : classNode.fields) {
+                    if (!usedFields.contains(field.name)) {
+                        sink.accept(new LintResult(
+                                getName(),
+                                Category.STYLE,
+                                classNode.name,
+                                "Field '" + field.name + "' is declared but never used."));
                     }
                 }
             }
-        }
-        return false;
+        };
     }
 
     @Override
     public String getName() {
         return "UnusedVariables";
     }
+
+    @Override
+    public Set<ParseRequirement> getParseRequirements() {
+        return ParseRequirement.of(ParseRequirement.MEMBERS, ParseRequirement.CODE);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
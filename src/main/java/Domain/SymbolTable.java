@@ -0,0 +1,109 @@
+package Domain;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the names checks keep converting: internal names (java/util/List), simple names
+ * and descriptors each get an int ID, and the dotted form (java.util.List) and simple name
+ * (List) of every symbol are worked out once, when it is first seen. Checks can then
+ * compare IDs instead of strings and read the forms instead of building them again for
+ * every instruction.
+ *
+ * The forms are textual: the dotted form has every '/' turned into '.', and the simple
+ * name is what follows the last '/' or '.'. They are meant for class names; a descriptor
+ * gets them too but keeps its own syntax.
+ *
+ * Safe for several threads. Looking up a known symbol only reads a concurrent map and
+ * allocates nothing. IDs are dense, from 0, and only mean something within one table.
+ */
+public final class SymbolTable {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // by ID; replaced by a larger copy when full
+    private volatile Symbol[] symbols = new Symbol[1024];
+    private int count;
+
+    /**
+     * The ID of the name, adding it if it is new.
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int simpleStart = Math.max(name.lastIndexOf('/'), name.lastIndexOf('.')) + 1;
+            String simple = name.substring(simpleStart);
+            // a name that is its own simple name is its own simple symbol
+            int simpleId = simpleStart == 0 ? count : intern(simple);
+            int next = count;
+            add(new Symbol(name, name.replace('/', '.'), simple, simpleId));
+            ids.put(name, next);
+            return next;
+        }
+    }
+
+    /**
+     * The ID of the name, or -1 if it was never interned.
+     */
+    public int find(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String getName(int id) {
+        return symbols[id].name;
+    }
+
+    /**
+     * The name with '/' replaced by '.', as in java.util.List.
+     */
+    public String getDottedName(int id) {
+        return symbols[id].dotted;
+    }
+
+    /**
+     * The part of the name after its package, as in List.
+     */
+    public String getSimpleName(int id) {
+        return symbols[id].simple;
+    }
+
+    /**
+     * The ID of the simple name, so classes with the same simple name compare equal.
+     */
+    public int getSimpleNameId(int id) {
+        return symbols[id].simpleId;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // called with the lock held
+    private void add(Symbol symbol) {
+        if (count == symbols.length) {
+            symbols = Arrays.copyOf(symbols, count * 2);
+        }
+        symbols[count++] = symbol;
+    }
+
+    private static final class Symbol {
+        final String name;
+        final String dotted;
+        final String simple;
+        final int simpleId;
+
+        Symbol(String name, String dotted, String simple, int simpleId) {
+            this.name = name;
+            this.dotted = dotted;
+            this.simple = simple;
+            this.simpleId = simpleId;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package Presentation;
+
+import Domain.Cache.ResultCache;
+import Domain.Interfaces.IClassSource;
+import Domain.Linter;
+import Domain.PatternCheck.LayerRules;
+import Domain.Sink.CountingSink;
+import Domain.Sink.WriterSink;
+import Domain.Source.ClassNameSource;
+import Domain.Source.ClasspathSource;
+import Domain.Source.JrtSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point. Lints directories, JARs, classpaths, JDK modules or single
+ * classes and prints one line per result.
+ *
+ * Usage: LinterCLI [--parallel N] [--cache DIR] [--stats] [--cross-class-duplication] [--bytecode-clones] [--layer-rules FILE] [--classpath PATH] [--jrt MODULE] [INPUT...]
+ * where each INPUT is a directory, a JAR/ZIP file or a class name like java.lang.String.
+ */
+public class LinterCLI {
+
+    private static final String USAGE =
+            "Usage: LinterCLI [--parallel N] [--cache DIR] [--stats] [--cross-class-duplication] [--bytecode-clones] [--layer-rules FILE] [--classpath PATH] [--jrt MODULE] [INPUT...]\n" +
+            "  INPUT              a directory of .class files, a JAR/ZIP file, or a class name\n" +
+            "  --classpath PATH   lint every class on PATH (entries separated by the path separator)\n" +
+            "  --jrt MODULE       lint every class of a JDK module, e.g. java.base\n" +
+            "  --parallel N       run the checks on N threads (default 1)\n" +
+            "  --cache DIR        keep results in DIR and reuse them for classes that have not changed\n" +
+            "  --stats            print time, CPU, allocation and result counts per check\n" +
+            "  --cross-class-duplication\n" +
+            "                     also report methods duplicated across classes (CrossClassDuplication)\n" +
+            "  --bytecode-clones  also report copied instruction runs across the project (BytecodeClone)\n" +
+            "  --layer-rules FILE place classes in layers by the rules in FILE before the default keywords";
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the linter and returns the exit code: 0 when nothing was found, 1 otherwise.
+     */
+    static int run(String[] args) throws IOException {
+        int parallelism = 1;
+        ResultCache cache = null;
+        boolean stats = false;
+        boolean crossClassDuplication = false;
+        boolean bytecodeClones = false;
+        LayerRules layerRules = null;
+        List<IClassSource> sources = new ArrayList<>();
+        List<String> jrtModules = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--parallel":
+                        parallelism = parseCount(value(args, ++i, arg));
+                        break;
+                    case "--cache":
+                        cache = new ResultCache(Paths.get(value(args, ++i, arg)));
+                        break;
+                    case "--stats":
+                        stats = true;
+                        break;
+                    case "--cross-class-duplication":
+                        crossClassDuplication = true;
+                        break;
+                    case "--bytecode-clones":
+                        bytecodeClones = true;
+                        break;
+                    case "--layer-rules":
+                        layerRules = LayerRules.load(Paths.get(value(args, ++i, arg)));
+                        break;
+                    case "--classpath":
+                        sources.add(ClasspathSource.parse(value(args, ++i, arg)));
+                        break;
+                    case "--jrt":
+                        jrtModules.add(value(args, ++i, arg));
+                        break;
+                    default:
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        if (Files.exists(Paths.get(arg))) {
+                            sources.add(ClasspathSource.forPath(Paths.get(arg)));
+                        } else {
+                            classNames.add(arg);
+                        }
+                }
+            }
+            if (!jrtModules.isEmpty()) {
+                sources.add(new JrtSource(jrtModules));
+            }
+            if (!classNames.isEmpty()) {
+                sources.add(new ClassNameSource(classNames.toArray(new String[0])));
+            }
+            if (sources.isEmpty()) {
+                throw new IllegalArgumentException("Nothing to lint");
+            }
+
+            Linter linter;
+            try (IClassSource source = new ClasspathSource(sources)) {
+                linter = new Linter(source, cache);
+            }
+            sources.clear();
+            linter.setParallelism(parallelism);
+            linter.setStatisticsEnabled(stats);
+            linter.setCrossClassDuplicationEnabled(crossClassDuplication);
+            linter.setBytecodeClonesEnabled(bytecodeClones);
+            if (layerRules != null) {
+                linter.setLayerRules(layerRules);
+            }
+
+            WriterSink printer = new WriterSink(System.out);
+            CountingSink counter = new CountingSink();
+            linter.runChecks(result -> {
+                printer.accept(result);
+                counter.accept(result);
+            });
+
+            System.out.println(counter.getTotal() + " violation(s) found");
+            if (stats) {
+                System.out.println();
+                System.out.print(linter.getCheckStatistics().formatTable());
+            }
+            return counter.getTotal() == 0 ? 0 : 1;
+        } finally {
+            for (IClassSource source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parseCount(String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count < 1) {
+                throw new IllegalArgumentException("--parallel must be at least 1, got " + value);
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--parallel expects a number, got " + value);
+        }
+    }
+}
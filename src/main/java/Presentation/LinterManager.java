@@ -1,11 +1,18 @@
 package Presentation;
 
+import Domain.AnalysisContext;
 import Domain.Category;
 import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IClassSource;
 import Domain.Interfaces.IPatternCheck;
 import Domain.Interfaces.IPrincipleCheck;
+import Domain.Interfaces.IProjectCheck;
 import Domain.Interfaces.IStyleCheck;
-import Domain.LintResult;
+import Domain.ParseRequirement;
+import Domain.Sink.CountingSink;
+import Domain.Source.ClassFileSource;
+import Domain.Source.JarSource;
+import Domain.Statistics.CheckStatistics;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 
@@ -14,9 +21,9 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
 
@@ -35,8 +42,11 @@ public class LinterManager extends JFrame {
     private JLabel statusLabel;
     private JButton selectFilesButton;
     private JButton selectPackageButton;
+    private JButton selectJarButton;
     private JButton runLinterButton;
+    private JCheckBox showStatisticsBox;
     private List<File> selectedFiles;
+    private File selectedJar;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
@@ -105,11 +115,15 @@ public class LinterManager extends JFrame {
         selectPackageButton = new JButton("Select Package Directory");
         selectPackageButton.addActionListener(e -> selectPackageDirectory());
 
+        selectJarButton = new JButton("Select JAR File");
+        selectJarButton.addActionListener(e -> selectJarFile());
+
         JButton clearButton = new JButton("Clear Selection");
         clearButton.addActionListener(e -> clearSelection());
 
         buttonPanel.add(selectFilesButton);
         buttonPanel.add(selectPackageButton);
+        buttonPanel.add(selectJarButton);
         buttonPanel.add(clearButton);
 
         statusLabel = new JLabel("No files selected");
@@ -182,6 +196,9 @@ public class LinterManager extends JFrame {
         runLinterButton.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
         runLinterButton.addActionListener(e -> runLinter());
 
+        showStatisticsBox = new JCheckBox("Show statistics");
+
+        panel.add(showStatisticsBox);
         panel.add(runLinterButton);
 
         return panel;
@@ -293,6 +310,7 @@ public class LinterManager extends JFrame {
         if (result == JFileChooser.APPROVE_OPTION) {
             File[] files = fileChooser.getSelectedFiles();
             selectedFiles = new ArrayList<>(Arrays.asList(files));
+            selectedJar = null;
             updateFileSelectionStatus();
         }
     }
@@ -308,6 +326,22 @@ public class LinterManager extends JFrame {
             File directory = fileChooser.getSelectedFile();
             selectedFiles = new ArrayList<>();
             collectClassFiles(directory, selectedFiles);
+            selectedJar = null;
+            updateFileSelectionStatus();
+        }
+    }
+
+    private void selectJarFile() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setCurrentDirectory(new File("target"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Java Archives (*.jar, *.zip)", "jar", "zip"));
+
+        int result = fileChooser.showOpenDialog(this);
+
+        if (result == JFileChooser.APPROVE_OPTION) {
+            // the classes are read from inside the JAR, nothing is extracted
+            selectedJar = fileChooser.getSelectedFile();
+            selectedFiles = new ArrayList<>();
             updateFileSelectionStatus();
         }
     }
@@ -327,11 +361,14 @@ public class LinterManager extends JFrame {
 
     private void clearSelection() {
         selectedFiles.clear();
+        selectedJar = null;
         updateFileSelectionStatus();
     }
 
     private void updateFileSelectionStatus() {
-        if (selectedFiles.isEmpty()) {
+        if (selectedJar != null) {
+            statusLabel.setText("JAR selected: " + selectedJar.getName());
+        } else if (selectedFiles.isEmpty()) {
             statusLabel.setText("No files selected");
         } else {
             statusLabel.setText(selectedFiles.size() + " file(s) selected");
@@ -360,7 +397,7 @@ public class LinterManager extends JFrame {
     }
 
     private void runLinter() {
-        if (selectedFiles.isEmpty()) {
+        if (selectedFiles.isEmpty() && selectedJar == null) {
             JOptionPane.showMessageDialog(this,
                     "Please select files or a package to lint first.",
                     "No Files Selected",
@@ -383,13 +420,59 @@ public class LinterManager extends JFrame {
         outputArea.append("LINTER EXECUTION STARTED\n");
         outputArea.append("=".repeat(80) + "\n\n");
         outputArea.append("Running " + selectedChecks.size() + " check(s) on " +
-                selectedFiles.size() + " file(s)\n\n");
+                (selectedJar != null ? selectedJar.getName() : selectedFiles.size() + " file(s)") + "\n\n");
 
-        int totalViolations = 0;
+        CountingSink violations = new CountingSink();
 
-        for (File file : selectedFiles) {
-            try {
-                ClassNode classNode = loadClassNode(file);
+        // only parse the parts of each class that the selected checks look at
+        List<ICheck> checks = new ArrayList<>();
+        for (CheckWrapper checkWrapper : selectedChecks) {
+            checks.add(checkWrapper.check);
+        }
+        int parseFlags = ParseRequirement.toReaderFlags(checks);
+
+        // load every class first so project checks can build their model once
+        List<String> entries = new ArrayList<>();
+        Map<String, ClassNode> classNodes = new LinkedHashMap<>();
+        Map<String, IOException> loadErrors = new HashMap<>();
+        try (IClassSource source = openSelection()) {
+            entries = source.getEntries();
+            for (String entry : entries) {
+                try {
+                    classNodes.put(entry, loadClassNode(source.read(entry), parseFlags));
+                } catch (IOException e) {
+                    loadErrors.put(entry, e);
+                }
+            }
+        } catch (IOException e) {
+            outputArea.append("  ✗ Error opening selection: " + e.getMessage() + "\n\n");
+        }
+
+        AnalysisContext context = new AnalysisContext(new ArrayList<>(classNodes.values()));
+        CheckStatistics statistics = showStatisticsBox.isSelected() ? new CheckStatistics() : null;
+        List<ICheck> toRun = checks;
+        if (statistics != null) {
+            context.put(CheckStatistics.KEY, statistics);
+            toRun = statistics.instrument(checks);
+        }
+
+        for (ICheck check : checks) {
+            if (check instanceof IProjectCheck) {
+                if (statistics != null) {
+                    statistics.measureSetup(check, () -> ((IProjectCheck) check).beginProject(context));
+                } else {
+                    ((IProjectCheck) check).beginProject(context);
+                }
+            }
+        }
+
+        try {
+            for (String entry : entries) {
+                ClassNode classNode = classNodes.get(entry);
+                if (classNode == null) {
+                    outputArea.append("  ✗ Error loading file: " + loadErrors.get(entry).getMessage() + "\n\n");
+                    continue;
+                }
 
                 outputArea.append("-".repeat(80) + "\n");
                 outputArea.append("Analyzing: " + classNode.name + "\n");
@@ -397,21 +480,24 @@ public class LinterManager extends JFrame {
 
                 boolean hasViolations = false;
 
-                for (CheckWrapper checkWrapper : selectedChecks) {
-                    List<LintResult> results = checkWrapper.check.execute(classNode);
+                for (int c = 0; c < selectedChecks.size(); c++) {
+                    CheckWrapper checkWrapper = selectedChecks.get(c);
+                    // print each result as it comes in; the header goes out with the first one
+                    int before = violations.getTotal();
+                    toRun.get(c).execute(classNode, context, result -> {
+                        if (violations.getTotal() == before) {
+                            outputArea.append("\n[" + checkWrapper.category + "] " +
+                                    checkWrapper.check.getName() + ":\n");
+                        }
+                        violations.accept(result);
+                        outputArea.append("  ⚠ " + result.getMessage() + "\n");
+                        if (result.getMessage() != null && !result.getMessage().isEmpty()) {
+                            outputArea.append("    → " + result.getMessage() + "\n");
+                        }
+                    });
 
-                    if (!results.isEmpty()) {
+                    if (violations.getTotal() > before) {
                         hasViolations = true;
-                        outputArea.append("\n[" + checkWrapper.category + "] " +
-                                checkWrapper.check.getName() + ":\n");
-
-                        for (LintResult result : results) {
-                            totalViolations++;
-                            outputArea.append("  ⚠ " + result.getMessage() + "\n");
-                            if (result.getMessage() != null && !result.getMessage().isEmpty()) {
-                                outputArea.append("    → " + result.getMessage() + "\n");
-                            }
-                        }
                     }
                 }
 
@@ -420,16 +506,27 @@ public class LinterManager extends JFrame {
                 }
 
                 outputArea.append("\n");
-
-            } catch (IOException e) {
-                outputArea.append("  ✗ Error loading file: " + e.getMessage() + "\n\n");
+            }
+        } finally {
+            for (ICheck check : checks) {
+                if (check instanceof IProjectCheck) {
+                    if (statistics != null) {
+                        statistics.measureSetup(check, () -> ((IProjectCheck) check).endProject(context));
+                    } else {
+                        ((IProjectCheck) check).endProject(context);
+                    }
+                }
             }
         }
 
         outputArea.append("=".repeat(80) + "\n");
         outputArea.append("LINTER EXECUTION COMPLETED\n");
-        outputArea.append("Total violations found: " + totalViolations + "\n");
+        outputArea.append("Total violations found: " + violations.getTotal() + "\n");
         outputArea.append("=".repeat(80) + "\n");
+        if (statistics != null) {
+            outputArea.append("\nCHECK STATISTICS\n");
+            outputArea.append(statistics.formatTable());
+        }
 
         // Scroll to top
         outputArea.setCaretPosition(0);
@@ -448,13 +545,22 @@ public class LinterManager extends JFrame {
         return selected;
     }
 
-    private ClassNode loadClassNode(File classFile) throws IOException {
-        try (FileInputStream fis = new FileInputStream(classFile)) {
-            ClassReader reader = new ClassReader(fis);
-            ClassNode classNode = new ClassNode();
-            reader.accept(classNode, ClassReader.EXPAND_FRAMES);
-            return classNode;
+    private IClassSource openSelection() throws IOException {
+        if (selectedJar != null) {
+            return new JarSource(selectedJar.toPath());
         }
+        List<Path> files = new ArrayList<>();
+        for (File file : selectedFiles) {
+            files.add(file.toPath());
+        }
+        return new ClassFileSource(files);
+    }
+
+    private ClassNode loadClassNode(byte[] classBytes, int parseFlags) {
+        ClassReader reader = new ClassReader(classBytes);
+        ClassNode classNode = new ClassNode();
+        reader.accept(classNode, parseFlags);
+        return classNode;
     }
 
     /**
@@ -0,0 +1,170 @@
+import Domain.AnalysisContext;
+import Domain.ClassHierarchyIndex;
+import Domain.LintResult;
+import Domain.Linter;
+import Domain.PrincipleCheck.BytecodeCloneCheck;
+import Domain.Similarity.SuffixArray;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BytecodeCloneCheckTests {
+
+    private final BytecodeCloneCheck check = new BytecodeCloneCheck();
+
+    @Test
+    @DisplayName("An identical copy is a Type-1 clone, one with other names and constants Type-2")
+    void testCloneTypes() throws IOException {
+        List<LintResult> results = run(Original.class, ExactCopy.class, RenamedCopy.class);
+
+        assertEquals(2, results.size(), "Should report each copy once: " + results);
+        assertTrue(results.stream().anyMatch(r -> r.getMessage().contains("ExactCopy.score")
+                && r.getMessage().contains("Type-1")));
+        assertTrue(results.stream().anyMatch(r -> r.getMessage().contains("RenamedCopy.rate")
+                && r.getMessage().contains("Type-2")));
+    }
+
+    @Test
+    @DisplayName("A run copied into the middle of a method with other locals in front is still a clone")
+    void testMidMethodClone() throws IOException {
+        List<LintResult> results = run(Prefixed.class, OtherPrefix.class);
+
+        assertEquals(1, results.size(), "Should report the shared run once: " + results);
+        assertTrue(results.get(0).getMessage().contains("OtherPrefix.tally"), results.get(0).getMessage());
+        assertTrue(results.get(0).getMessage().contains("Type-2"), results.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("The Linter only runs the check once it is turned on")
+    void testOptInForLinter() throws IOException {
+        String[] classes = {Original.class.getName(), ExactCopy.class.getName()};
+        Linter linter = new Linter(classes);
+        assertTrue(linter.getLintResults().stream().noneMatch(r -> r.getCheckName().equals(check.getName())));
+
+        Linter enabled = new Linter(classes);
+        enabled.setBytecodeClonesEnabled(true);
+        assertEquals(1, enabled.getLintResults().stream().filter(r -> r.getCheckName().equals(check.getName())).count());
+    }
+
+    @Test
+    @DisplayName("The suffix and LCP arrays match a direct sort")
+    void testSuffixArray() {
+        int[] s = {2, 1, 2, 1, 0, 2, 1, 2};
+        assertArrayEquals(new int[] {4, 3, 6, 1, 7, 2, 5, 0}, SuffixArray.build(s));
+        assertArrayEquals(new int[] {0, 0, 1, 2, 0, 1, 2, 3}, SuffixArray.lcp(s, SuffixArray.build(s)));
+    }
+
+    private List<LintResult> run(Class<?>... classes) throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(clazz.getName()).accept(classNode, 0);
+            classNodes.add(classNode);
+        }
+        AnalysisContext context = new AnalysisContext(ClassHierarchyIndex.getDefault(), classNodes);
+        check.beginProject(context);
+        List<LintResult> results = new ArrayList<>();
+        for (ClassNode classNode : classNodes) {
+            check.execute(classNode, context, results::add);
+        }
+        return results;
+    }
+
+    // ==================== Embedded Test Classes ====================
+
+    static class Original {
+        static int score(int[] values, int[] weights) {
+            int total = 0;
+            int bonus = 0;
+            for (int i = 0; i < values.length; i++) {
+                int weighted = values[i] * weights[i];
+                if (weighted > 100) {
+                    bonus += weighted / 10;
+                } else if (weighted < 0) {
+                    bonus -= 5;
+                }
+                total += weighted;
+            }
+            return total + bonus * 2;
+        }
+    }
+
+    static class ExactCopy {
+        static int score(int[] values, int[] weights) {
+            int total = 0;
+            int bonus = 0;
+            for (int i = 0; i < values.length; i++) {
+                int weighted = values[i] * weights[i];
+                if (weighted > 100) {
+                    bonus += weighted / 10;
+                } else if (weighted < 0) {
+                    bonus -= 5;
+                }
+                total += weighted;
+            }
+            return total + bonus * 2;
+        }
+    }
+
+    static class RenamedCopy {
+        static int rate(int[] prices, int[] amounts) {
+            int sum = 0;
+            int extra = 0;
+            for (int k = 0; k < prices.length; k++) {
+                int line = prices[k] * amounts[k];
+                if (line > 250) {
+                    extra += line / 20;
+                } else if (line < 0) {
+                    extra -= 7;
+                }
+                sum += line;
+            }
+            return sum + extra * 3;
+        }
+    }
+
+    // the same run after locals of their own, so its locals have other slots in each
+    static class Prefixed {
+        static int tally(int[] values, int[] weights, String label) {
+            int offset = label.length();
+            long seed = offset * 31L;
+            int total = 0;
+            int bonus = 0;
+            for (int i = 0; i < values.length; i++) {
+                int weighted = values[i] * weights[i];
+                if (weighted > 100) {
+                    bonus += weighted / 10;
+                } else if (weighted < 0) {
+                    bonus -= 5;
+                }
+                total += weighted;
+            }
+            return total + bonus * 2 + (int) seed;
+        }
+    }
+
+    static class OtherPrefix {
+        static int tally(int[] values, int[] weights, String label) {
+            String trimmed = label.trim();
+            int total = 0;
+            int bonus = 0;
+            for (int i = 0; i < values.length; i++) {
+                int weighted = values[i] * weights[i];
+                if (weighted > 100) {
+                    bonus += weighted / 10;
+                } else if (weighted < 0) {
+                    bonus -= 5;
+                }
+                total += weighted;
+            }
+            return total + bonus * 2 + trimmed.length();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+import Domain.Linter;
+import Domain.Statistics.CheckStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckStatisticsTests {
+
+    private static final String[] CLASSES = {
+            "decoratorExamples.BadDecoratorUnusedField",
+            "hashCodeExamples.InvalidOnlyEquals",
+            "GlobalVariableExamples.MixedGlobalVariables"
+    };
+
+    @Test
+    @DisplayName("Every check visits every class and the result counts add up")
+    public void testRowsCoverTheRun() throws IOException {
+        Linter linter = new Linter(CLASSES);
+        linter.setStatisticsEnabled(true);
+        int total = linter.getLintResults().size();
+
+        CheckStatistics statistics = linter.getCheckStatistics();
+        long counted = 0;
+        for (CheckStatistics.Row row : statistics.getRows()) {
+            if (!CheckStatistics.SHARED_PASS.equals(row.getName())) {
+                assertEquals(CLASSES.length, row.getClasses(), row.getName());
+                assertTrue(row.getPercentileNanos(50) <= row.getPercentileNanos(100), row.getName());
+            }
+            counted += row.getResults();
+        }
+        assertEquals(total, counted);
+        assertTrue(statistics.formatTable().contains("Total"));
+    }
+}
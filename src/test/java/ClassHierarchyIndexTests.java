@@ -0,0 +1,64 @@
+import Domain.ClassHierarchyIndex;
+import Domain.ClassHierarchyIndex.TypeInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassHierarchyIndexTests {
+
+    @Test
+    @DisplayName("Headers are read once and shared between lookups")
+    public void testLookupIsCached() {
+        ClassHierarchyIndex index = new ClassHierarchyIndex(ClassLoader.getSystemClassLoader());
+
+        TypeInfo first = index.get("java/util/ArrayList");
+        assertNotNull(first);
+        assertEquals("java/util/AbstractList", first.getSuperName());
+        assertSame(first, index.get("java/util/ArrayList"));
+    }
+
+    @Test
+    @DisplayName("Interfaces are collected through superclasses and super-interfaces")
+    public void testAllInterfaces() {
+        ClassHierarchyIndex index = new ClassHierarchyIndex(ClassLoader.getSystemClassLoader());
+
+        Set<String> interfaces = index.getAllInterfaces("java/util/ArrayList");
+        assertTrue(interfaces.contains("java/util/List"));
+        assertTrue(interfaces.contains("java/util/Collection"));
+        assertTrue(interfaces.contains("java/lang/Iterable"));
+    }
+
+    @Test
+    @DisplayName("Missing classes give null instead of an exception")
+    public void testMissingClass() {
+        ClassHierarchyIndex index = new ClassHierarchyIndex(ClassLoader.getSystemClassLoader());
+
+        assertNull(index.get("does/not/Exist"));
+        assertTrue(index.getAllInterfaces("does/not/Exist").isEmpty());
+    }
+
+    @Test
+    @DisplayName("A run's own classes win over the shared index, which never sees them")
+    public void testRunClassesTakePrecedence() {
+        ClassHierarchyIndex shared = new ClassHierarchyIndex(ClassLoader.getSystemClassLoader());
+        ClassHierarchyIndex run = new ClassHierarchyIndex(shared);
+
+        ClassNode ownList = new ClassNode();
+        ownList.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, "java/util/ArrayList", null, "java/lang/Object", null);
+        run.register(ownList);
+
+        assertEquals("java/lang/Object", run.get("java/util/ArrayList").getSuperName());
+        assertTrue(run.getAllInterfaces("java/util/ArrayList").isEmpty());
+        assertEquals("java/util/AbstractList", shared.get("java/util/ArrayList").getSuperName());
+        // anything the run does not have comes from the shared index
+        assertSame(shared.get("java/util/HashMap"), run.get("java/util/HashMap"));
+        assertNull(run.get("does/not/Exist"));
+
+        assertThrows(IllegalStateException.class, () -> shared.register(ownList));
+    }
+}
@@ -0,0 +1,79 @@
+import Domain.Interfaces.IClassSource;
+import Domain.Source.ClassHeaderReader;
+import Domain.Source.ClassNameSource;
+import Domain.Source.ClasspathSource;
+import Domain.Source.DirectorySource;
+import Domain.Source.JarSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassSourceTests {
+
+    private static final String ENTRY = "decoratorExamples/GoodDecorator.class";
+
+    @Test
+    @DisplayName("A JAR gives the same bytes as the class loader, without extracting")
+    public void testJarSource(@TempDir Path dir) throws IOException {
+        byte[] expected = new ClassNameSource().read("decoratorExamples.GoodDecorator");
+        Path jar = dir.resolve("examples.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(ENTRY));
+            out.write(expected);
+            out.putNextEntry(new ZipEntry("META-INF/versions/11/" + ENTRY));
+            out.write(expected);
+        }
+
+        try (IClassSource source = new JarSource(jar)) {
+            assertEquals(List.of(ENTRY), source.getEntries());
+            assertArrayEquals(expected, source.read(ENTRY));
+        }
+    }
+
+    @Test
+    @DisplayName("On a classpath the first root that has a class wins")
+    public void testClasspathFirstRootWins(@TempDir Path dir) throws IOException {
+        byte[] bytes = new ClassNameSource().read("decoratorExamples.GoodDecorator");
+        write(dir.resolve("first").resolve(ENTRY), bytes);
+        write(dir.resolve("second").resolve(ENTRY), new byte[] {1, 2, 3});
+
+        try (IClassSource source = new ClasspathSource(List.of(
+                new DirectorySource(dir.resolve("first")), new DirectorySource(dir.resolve("second"))))) {
+            assertEquals(List.of(ENTRY), source.getEntries());
+            assertArrayEquals(bytes, source.read(ENTRY));
+        }
+    }
+
+    @Test
+    @DisplayName("The header reader names classes the same as ASM, without reading their bodies")
+    public void testClassHeaderReader() throws IOException {
+        ClassHeaderReader headerReader = new ClassHeaderReader();
+        // long and double constants take two pool slots; lambdas add dynamic entries
+        for (String className : new String[] {"java.lang.Math", "java.util.HashMap", "java.util.stream.Collectors",
+                "decoratorExamples.GoodDecorator", "java.lang.Object"}) {
+            byte[] bytes = new ClassNameSource().read(className);
+            assertEquals(new ClassReader(bytes).getClassName(),
+                    headerReader.readClassName(new ByteArrayInputStream(bytes)));
+        }
+        assertThrows(IOException.class, () -> headerReader.readClassName(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+    }
+
+    private void write(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(bytes);
+        }
+    }
+}
@@ -4,10 +4,16 @@ import Domain.PrincipleCheck.CodeDuplicationCheck;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.MethodNode;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -66,6 +72,33 @@ class CodeDuplicationCheckTests {
         assertTrue(results.isEmpty(), "Should ignore very small methods");
     }
 
+    @Test
+    void testReportsOneResultPerCloneClass() throws IOException {
+        ClassNode classNode = getClassNode(CloneFamilyClass.class);
+        List<LintResult> results = check.execute(classNode);
+
+        assertEquals(1, results.size(), "Four similar methods should form one clone class");
+        String message = results.get(0).getMessage();
+        assertTrue(message.startsWith("Methods 'totalA', 'totalB', 'totalC' and 'totalD' have high code duplication ("),
+                message);
+        assertTrue(message.endsWith("% similar)"), message);
+    }
+
+    @Test
+    void testParallelPairsMatchSerial() throws Exception {
+        ClassNode classNode = generateCloneFamilies(new Random(7), 4, 25);
+        List<LintResult> serial = check.execute(classNode);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<LintResult> parallel = pool.submit(() -> check.execute(classNode)).get();
+            assertFalse(serial.isEmpty());
+            assertEquals(describe(serial), describe(parallel));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     void testGetName() {
         assertEquals("CodeDuplication", check.getName());
@@ -89,6 +122,38 @@ class CodeDuplicationCheckTests {
         return classNode;
     }
 
+    // families of methods that differ from their family's base sequence in a few opcodes
+    private ClassNode generateCloneFamilies(Random random, int familyCount, int familySize) {
+        int[] alphabet = {Opcodes.ICONST_0, Opcodes.ICONST_1, Opcodes.IADD, Opcodes.ISUB,
+                Opcodes.IMUL, Opcodes.DUP, Opcodes.POP, Opcodes.SWAP};
+        ClassNode classNode = new ClassNode();
+        classNode.name = "Generated";
+        for (int f = 0; f < familyCount; f++) {
+            int[] base = new int[40 + random.nextInt(40)];
+            for (int i = 0; i < base.length; i++) {
+                base[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            for (int m = 0; m < familySize; m++) {
+                MethodNode method = new MethodNode(Opcodes.ACC_PUBLIC, "f" + f + "m" + m, "()V", null, null);
+                for (int opcode : base) {
+                    int mutated = random.nextInt(12) == 0 ? alphabet[random.nextInt(alphabet.length)] : opcode;
+                    method.instructions.add(new InsnNode(mutated));
+                }
+                method.instructions.add(new InsnNode(Opcodes.RETURN));
+                classNode.methods.add(method);
+            }
+        }
+        return classNode;
+    }
+
+    private List<String> describe(List<LintResult> results) {
+        List<String> out = new ArrayList<>();
+        for (LintResult result : results) {
+            out.add(result.toString());
+        }
+        return out;
+    }
+
     // ==================== Embedded Test Classes ====================
 
     static class NoDuplicationClass {
@@ -121,6 +186,32 @@ class CodeDuplicationCheckTests {
         }
     }
 
+    static class CloneFamilyClass {
+        public int totalA(int price, int quantity) {
+            int subtotal = price * quantity;
+            int tax = subtotal / 10;
+            return subtotal + tax;
+        }
+
+        public int totalB(int price, int quantity) {
+            int subtotal = price * quantity;
+            int tax = subtotal / 20;
+            return subtotal + tax;
+        }
+
+        public int totalC(int price, int quantity) {
+            int subtotal = price * quantity;
+            int discount = subtotal / 10;
+            return subtotal - discount;
+        }
+
+        public int totalD(int price, int quantity) {
+            int subtotal = price * quantity;
+            int discount = subtotal / 5;
+            return subtotal - discount;
+        }
+    }
+
     static class PartialDuplicationClass {
         public int processDataA(int value) {
             int result = value * 2;
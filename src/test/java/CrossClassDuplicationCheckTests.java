@@ -0,0 +1,141 @@
+import Domain.AnalysisContext;
+import Domain.Category;
+import Domain.ClassHierarchyIndex;
+import Domain.LintResult;
+import Domain.Linter;
+import Domain.PrincipleCheck.CrossClassDuplicationCheck;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossClassDuplicationCheckTests {
+
+    private final CrossClassDuplicationCheck check = new CrossClassDuplicationCheck();
+
+    @Test
+    void testDetectsDuplicateAcrossClasses() throws IOException {
+        List<LintResult> results = run(OrderReport.class, InvoiceReport.class, UnrelatedClass.class);
+
+        assertEquals(1, results.size(), "Should report the copied method once");
+        assertEquals(Category.PRINCIPLE, results.get(0).getCategory());
+        assertTrue(results.get(0).getMessage().contains("high code duplication"));
+        assertTrue(results.get(0).getMessage().contains("InvoiceReport.sumLines"));
+    }
+
+    @Test
+    void testReportsEachCloneClassOnce() throws IOException {
+        List<LintResult> results = run(OrderReport.class, InvoiceReport.class, ReceiptReport.class);
+
+        assertEquals(1, results.size(), "Three copies are one clone class, not three pairs: " + results);
+        String message = results.get(0).getMessage();
+        assertTrue(message.startsWith("Methods 'sumLines', '"), message);
+        assertTrue(message.contains("InvoiceReport.sumLines' and '"), message);
+        assertTrue(message.contains("ReceiptReport.sumLines' have high code duplication"), message);
+    }
+
+    @Test
+    void testIgnoresDuplicatesWithinOneClass() throws IOException {
+        List<LintResult> results = run(OrderReport.class, UnrelatedClass.class);
+        assertTrue(results.isEmpty(), "Duplicates inside a class are left to CodeDuplicationCheck");
+    }
+
+    @Test
+    void testStandaloneFindsNothing() throws IOException {
+        assertTrue(check.execute(getClassNode(OrderReport.class)).isEmpty());
+    }
+
+    @Test
+    void testOptInForLinter() throws IOException {
+        String[] classes = {OrderReport.class.getName(), InvoiceReport.class.getName()};
+        Linter linter = new Linter(classes);
+        assertTrue(linter.getLintResults().stream().noneMatch(r -> r.getCheckName().equals(check.getName())));
+
+        Linter enabled = new Linter(classes);
+        enabled.setCrossClassDuplicationEnabled(true);
+        assertEquals(1, enabled.getLintResults().stream().filter(r -> r.getCheckName().equals(check.getName())).count());
+    }
+
+    private List<LintResult> run(Class<?>... classes) throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            classNodes.add(getClassNode(clazz));
+        }
+        AnalysisContext context = new AnalysisContext(ClassHierarchyIndex.getDefault(), classNodes);
+        check.beginProject(context);
+        List<LintResult> results = new ArrayList<>();
+        for (ClassNode classNode : classNodes) {
+            check.execute(classNode, context, results::add);
+        }
+        check.endProject(context);
+        return results;
+    }
+
+    private ClassNode getClassNode(Class<?> clazz) throws IOException {
+        ClassReader classReader = new ClassReader(clazz.getName());
+        ClassNode classNode = new ClassNode();
+        classReader.accept(classNode, 0);
+        return classNode;
+    }
+
+    // ==================== Embedded Test Classes ====================
+
+    static class OrderReport {
+        public int sumLines(int[] prices, int[] quantities) {
+            int total = 0;
+            for (int i = 0; i < prices.length; i++) {
+                int line = prices[i] * quantities[i];
+                if (line > 1000) {
+                    line = line - line / 20;
+                }
+                total += line;
+            }
+            return total;
+        }
+    }
+
+    static class InvoiceReport {
+        public int sumLines(int[] prices, int[] quantities) {
+            int total = 0;
+            for (int i = 0; i < prices.length; i++) {
+                int line = prices[i] * quantities[i];
+                if (line > 1000) {
+                    line = line - line / 20;
+                }
+                total += line;
+            }
+            return total;
+        }
+    }
+
+    static class ReceiptReport {
+        public int sumLines(int[] prices, int[] quantities) {
+            int total = 0;
+            for (int i = 0; i < prices.length; i++) {
+                int line = prices[i] * quantities[i];
+                if (line > 1000) {
+                    line = line - line / 20;
+                }
+                total += line;
+            }
+            return total;
+        }
+    }
+
+    static class UnrelatedClass {
+        public String describe(String name, int age) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Name: ").append(name);
+            sb.append(", age: ").append(age);
+            if (age >= 18) {
+                sb.append(" (adult)");
+            }
+            return sb.toString().trim();
+        }
+    }
+}
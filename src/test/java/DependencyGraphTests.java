@@ -0,0 +1,121 @@
+import Domain.Graph.ClassReferences;
+import Domain.Graph.DependencyGraph;
+import Domain.Graph.StronglyConnectedComponents;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyGraphTests {
+
+    @Test
+    @DisplayName("Field and call edges lead to project classes, in the order they appear")
+    public void testTypedEdges() throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>();
+        classNodes.add(read("threeelayerpatterntexamples.presentation.PresentationController"));
+        classNodes.add(read("threeelayerpatterntexamples.persistence.DataRepository"));
+        DependencyGraph graph = DependencyGraph.build(classNodes);
+
+        int controller = graph.idOf("threeelayerpatterntexamples/presentation/PresentationController");
+        int repository = graph.idOf(classNodes.get(1));
+        assertEquals(0, controller);
+        assertEquals(1, repository);
+
+        List<String> edges = new ArrayList<>();
+        for (int edge = graph.getFirstEdge(controller); edge < graph.getEdgeEnd(controller); edge++) {
+            assertEquals(repository, graph.getTarget(edge));
+            edges.add(graph.getType(edge) + " " + graph.getMember(edge) + " " + graph.getCallee(edge));
+        }
+        assertEquals(List.of("FIELD repo null", "CALL doWork query"), edges);
+
+        // Object and the JDK are not part of the project
+        assertEquals(graph.getFirstEdge(repository), graph.getEdgeEnd(repository));
+        assertEquals(-1, graph.idOf("java/lang/Object"));
+    }
+
+    @Test
+    @DisplayName("A graph built from references read back from bytes matches one built from the classes")
+    public void testReferencesRoundTrip() throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>();
+        classNodes.add(read("threeelayerpatterntexamples.presentation.PresentationController"));
+        classNodes.add(read("threeelayerpatterntexamples.persistence.DataRepository"));
+        List<ClassReferences> references = new ArrayList<>();
+        for (ClassNode classNode : classNodes) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ClassReferences.of(classNode).writeTo(new DataOutputStream(bytes));
+            references.add(ClassReferences.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        }
+        // the nodes only tie IDs to classes, so unparsed ones do
+        List<ClassNode> unparsed = new ArrayList<>();
+        for (ClassNode classNode : classNodes) {
+            ClassNode named = new ClassNode();
+            named.name = classNode.name;
+            unparsed.add(named);
+        }
+
+        DependencyGraph expected = DependencyGraph.build(classNodes);
+        DependencyGraph actual = DependencyGraph.build(unparsed, references, List.of());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int edge = 0; edge < expected.getEdgeCount(); edge++) {
+            assertEquals(expected.getTarget(edge), actual.getTarget(edge));
+            assertEquals(expected.getType(edge), actual.getType(edge));
+            assertEquals(expected.getMember(edge), actual.getMember(edge));
+            assertEquals(expected.getCallee(edge), actual.getCallee(edge));
+        }
+        assertEquals(1, actual.idOf(unparsed.get(1)));
+    }
+
+    @Test
+    @DisplayName("Classes that depend on each other form one component, numbered before their users")
+    public void testStronglyConnectedComponents() {
+        List<ClassNode> classNodes = List.of(
+                withFields("a/First", "a/Second"),
+                withFields("a/Second", "a/First"),
+                withFields("a/User", "a/First"),
+                withFields("a/Alone"));
+        DependencyGraph graph = DependencyGraph.build(classNodes);
+        StronglyConnectedComponents components = StronglyConnectedComponents.of(graph, node -> true, edge -> true);
+
+        assertEquals(3, components.getCount());
+        int cycle = components.getComponent(0);
+        assertEquals(cycle, components.getComponent(1));
+        assertEquals(2, components.getSize(cycle));
+        assertEquals(0, components.getMember(cycle, 0));
+        assertEquals(1, components.getMember(cycle, 1));
+        // the user depends on the cycle, so the cycle is completed first
+        assertTrue(components.getComponent(2) > cycle);
+
+        StronglyConnectedComponents withoutFirst = StronglyConnectedComponents.of(graph, node -> node != 0, edge -> true);
+        assertEquals(-1, withoutFirst.getComponent(0));
+        assertNotEquals(withoutFirst.getComponent(1), withoutFirst.getComponent(2));
+    }
+
+    private ClassNode withFields(String name, String... fieldTypes) {
+        ClassNode classNode = new ClassNode();
+        classNode.name = name;
+        classNode.superName = "java/lang/Object";
+        for (int i = 0; i < fieldTypes.length; i++) {
+            classNode.fields.add(new FieldNode(Opcodes.ACC_PRIVATE, "f" + i, "L" + fieldTypes[i] + ";", null, null));
+        }
+        return classNode;
+    }
+
+    private ClassNode read(String className) throws IOException {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(className).accept(classNode, ClassReader.SKIP_DEBUG);
+        return classNode;
+    }
+}
@@ -0,0 +1,125 @@
+import Domain.AnalysisContext;
+import Domain.Cache.FingerprintStore;
+import Domain.LintResult;
+import Domain.PrincipleCheck.CodeDuplicationCheck;
+import Domain.Statistics.CheckStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FingerprintStoreTests {
+
+    private final CodeDuplicationCheck check = new CodeDuplicationCheck();
+
+    @Test
+    @DisplayName("A changed class only compares the pairs with a changed method")
+    public void testReusesSimilaritiesOfUnchangedMethods(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("fingerprints.bin");
+        FingerprintStore first = new FingerprintStore(file);
+        run(getClassNode(ReportBefore.class), first);
+        first.save();
+        assertTrue(Files.exists(file));
+
+        ClassNode changed = getClassNode(ReportAfter.class);
+        CheckStatistics statistics = new CheckStatistics();
+        List<String> withStore = run(changed, new FingerprintStore(file), statistics);
+
+        Map<String, Long> counters = statistics.getRow(check.getName()).getCounters();
+        assertEquals(1, counters.get("pairs from fingerprint store").longValue());
+        assertEquals(describe(check.execute(changed)), withStore);
+        assertTrue(withStore.get(0).contains("'totalWithTax', 'totalWithDiscount' and 'totalWithFee'"), withStore.get(0));
+    }
+
+    @Test
+    @DisplayName("A damaged file counts as an empty store")
+    public void testDamagedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("fingerprints.bin");
+        Files.write(file, new byte[] {0, 0, 0, 1, 0, 0, 0, 5, 1, 2});
+        FingerprintStore store = new FingerprintStore(file);
+        assertEquals(0, store.getFingerprintCount());
+
+        ClassNode classNode = getClassNode(ReportBefore.class);
+        assertEquals(describe(check.execute(classNode)), run(classNode, store));
+    }
+
+    private List<String> run(ClassNode classNode, FingerprintStore store) {
+        return run(classNode, store, new CheckStatistics());
+    }
+
+    private List<String> run(ClassNode classNode, FingerprintStore store, CheckStatistics statistics) {
+        AnalysisContext context = AnalysisContext.standalone(classNode);
+        context.put(FingerprintStore.KEY, store);
+        context.put(CheckStatistics.KEY, statistics);
+        List<LintResult> results = new ArrayList<>();
+        check.execute(classNode, context, results::add);
+        return describe(results);
+    }
+
+    private List<String> describe(List<LintResult> results) {
+        List<String> out = new ArrayList<>();
+        for (LintResult result : results) {
+            out.add(result.toString());
+        }
+        return out;
+    }
+
+    private ClassNode getClassNode(Class<?> clazz) throws IOException {
+        ClassReader classReader = new ClassReader(clazz.getName());
+        ClassNode classNode = new ClassNode();
+        classReader.accept(classNode, 0);
+        return classNode;
+    }
+
+    // ==================== Embedded Test Classes ====================
+
+    static class ReportBefore {
+        public int totalWithTax(int price, int quantity) {
+            int subtotal = price * quantity;
+            int tax = subtotal / 10;
+            int total = subtotal + tax;
+            return total;
+        }
+
+        public int totalWithDiscount(int price, int quantity) {
+            int subtotal = price * quantity;
+            int discount = subtotal / 10;
+            int total = subtotal - discount;
+            return total;
+        }
+    }
+
+    // the same two methods and a new one like them
+    static class ReportAfter {
+        public int totalWithTax(int price, int quantity) {
+            int subtotal = price * quantity;
+            int tax = subtotal / 10;
+            int total = subtotal + tax;
+            return total;
+        }
+
+        public int totalWithDiscount(int price, int quantity) {
+            int subtotal = price * quantity;
+            int discount = subtotal / 10;
+            int total = subtotal - discount;
+            return total;
+        }
+
+        public int totalWithFee(int price, int quantity) {
+            int subtotal = price * quantity;
+            int fee = subtotal / 20 + 1;
+            int total = subtotal + fee;
+            return total;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import Domain.AnalysisContext;
+import Domain.Category;
+import Domain.InstructionMultiplexer;
+import Domain.LintResult;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IInstructionCheck;
+import Domain.Interfaces.IInstructionListener;
+import Domain.Interfaces.ILintResultSink;
+import Domain.Sink.CollectingSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstructionMultiplexerTests {
+
+    /**
+     * Writes down every call it gets, and reports one result per class from endClass.
+     */
+    private static final class RecordingCheck implements IInstructionCheck {
+        final List<String> events = new ArrayList<>();
+        final String name;
+        final boolean skip;
+
+        RecordingCheck(String name, boolean skip) {
+            this.name = name;
+            this.skip = skip;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public IInstructionListener beginClass(ClassNode classNode, ILintResultSink sink) {
+            events.add("beginClass " + classNode.name);
+            if (skip) {
+                return null;
+            }
+            return new IInstructionListener() {
+                @Override
+                public void beginMethod(MethodNode method) {
+                    events.add("beginMethod " + method.name);
+                }
+
+                @Override
+                public void visitInsn(MethodNode method, AbstractInsnNode insn) {
+                    events.add(method.name + " " + insn.getOpcode());
+                }
+
+                @Override
+                public void endMethod(MethodNode method) {
+                    events.add("endMethod " + method.name);
+                }
+
+                @Override
+                public void endClass() {
+                    events.add("endClass");
+                    sink.accept(new LintResult(name, Category.STYLE, classNode.name, "done"));
+                }
+            };
+        }
+    }
+
+    private static ClassNode twoMethods() {
+        ClassNode classNode = new ClassNode();
+        classNode.name = "a/Sample";
+        MethodNode first = new MethodNode(Opcodes.ACC_PUBLIC, "first", "()I", null, null);
+        first.instructions.add(new InsnNode(Opcodes.ICONST_1));
+        first.instructions.add(new InsnNode(Opcodes.ICONST_2));
+        first.instructions.add(new InsnNode(Opcodes.IADD));
+        first.instructions.add(new InsnNode(Opcodes.IRETURN));
+        MethodNode second = new MethodNode(Opcodes.ACC_PUBLIC, "second", "()V", null, null);
+        second.instructions.add(new InsnNode(Opcodes.RETURN));
+        classNode.methods.add(first);
+        classNode.methods.add(second);
+        return classNode;
+    }
+
+    @Test
+    @DisplayName("Every subscribed check sees each instruction once, in order, between the method and class calls")
+    public void testTraversalOrder() {
+        ClassNode classNode = twoMethods();
+        RecordingCheck a = new RecordingCheck("A", false);
+        RecordingCheck b = new RecordingCheck("B", false);
+        CollectingSink sinkA = new CollectingSink();
+        CollectingSink sinkB = new CollectingSink();
+
+        InstructionMultiplexer.traverse(classNode, List.of(a, b), AnalysisContext.standalone(classNode),
+                List.of(sinkA, sinkB));
+
+        List<String> expected = List.of(
+                "beginClass a/Sample",
+                "beginMethod first",
+                "first " + Opcodes.ICONST_1,
+                "first " + Opcodes.ICONST_2,
+                "first " + Opcodes.IADD,
+                "first " + Opcodes.IRETURN,
+                "endMethod first",
+                "beginMethod second",
+                "second " + Opcodes.RETURN,
+                "endMethod second",
+                "endClass");
+        assertEquals(expected, a.events);
+        assertEquals(expected, b.events);
+        assertEquals(1, sinkA.getResults().size());
+        assertEquals(1, sinkB.getResults().size());
+    }
+
+    @Test
+    @DisplayName("A check that returns no listener is left out of the walk")
+    public void testSkippedCheck() {
+        ClassNode classNode = twoMethods();
+        RecordingCheck skipped = new RecordingCheck("Skipped", true);
+        RecordingCheck active = new RecordingCheck("Active", false);
+
+        InstructionMultiplexer.traverse(classNode, List.of(skipped, active), AnalysisContext.standalone(classNode),
+                List.of(new CollectingSink(), new CollectingSink()));
+
+        assertEquals(List.of("beginClass a/Sample"), skipped.events);
+        assertEquals(11, active.events.size());
+    }
+
+    @Test
+    @DisplayName("runChecks reports results in check order, as if each check ran alone")
+    public void testRunChecksKeepsCheckOrder() {
+        ClassNode classNode = twoMethods();
+        RecordingCheck a = new RecordingCheck("A", false);
+        RecordingCheck b = new RecordingCheck("B", false);
+        ICheck plain = new ICheck() {
+            @Override
+            public List<LintResult> execute(ClassNode node) {
+                return List.of(new LintResult("Plain", Category.STYLE, node.name, "done"));
+            }
+
+            @Override
+            public String getName() {
+                return "Plain";
+            }
+        };
+        List<String> order = new ArrayList<>();
+
+        InstructionMultiplexer.runChecks(classNode, List.of(a, plain, b), AnalysisContext.standalone(classNode),
+                result -> order.add(result.getCheckName()));
+
+        assertEquals(List.of("A", "Plain", "B"), order);
+        assertEquals(a.events, b.events);
+    }
+}
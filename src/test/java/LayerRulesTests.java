@@ -0,0 +1,86 @@
+import Domain.LintResult;
+import Domain.PatternCheck.LayerRules;
+import Domain.PatternCheck.ThreeLayerPatternCheck;
+import Domain.PatternCheck.ThreeLayerPatternCheck.Layer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayerRulesTests {
+
+    @Test
+    @DisplayName("Without rules, the keywords in the package and name decide as before")
+    public void testDefaultKeywords() {
+        LayerRules rules = LayerRules.defaults();
+        assertEquals(Layer.PRESENTATION, rules.classify("com/shop/ui/Cart"));
+        assertEquals(Layer.PRESENTATION, rules.classify("com/shop/CartPanel"));
+        assertEquals(Layer.DATA, rules.classify("com/shop/OrderDao"));
+        assertEquals(Layer.DOMAIN, rules.classify("com/shop/Service/Cart"));
+        // package keywords only count in the package, name keywords anywhere
+        assertEquals(Layer.UNKNOWN, rules.classify("com/shop/DataSet"));
+        assertEquals(Layer.PRESENTATION, rules.classify("com/frame/Cart"));
+        // presentation wins over data, data over domain
+        assertEquals(Layer.PRESENTATION, rules.classify("com/shop/data/OrderView"));
+        assertEquals(Layer.DATA, rules.classify("com/shop/OrderServiceQuery"));
+        assertEquals(Layer.UNKNOWN, rules.classify("com/shop/Cart"));
+        assertEquals(Layer.UNKNOWN, rules.classify("Cart"));
+    }
+
+    @Test
+    @DisplayName("Package, suffix and glob rules apply in order before the keywords")
+    public void testUserRules() {
+        LayerRules rules = LayerRules.parse(List.of(
+                "# the shop",
+                "unknown      package com.shop.web.util",
+                "data         suffix  Repository   # even inside web",
+                "presentation package com.shop.web",
+                "domain       package com.shop.core",
+                "data         glob    com.shop.store.**",
+                "domain       glob    com.*.api.*Facade"));
+        LayerRules.Classifier classifier = rules.newClassifier();
+        for (LayerRules.Classifier names : List.of(classifier, classifier)) {
+            assertEquals(Layer.PRESENTATION, names.classify("com/shop/web/Cart"));
+            assertEquals(Layer.PRESENTATION, names.classify("com/shop/web/checkout/Step"));
+            assertEquals(Layer.UNKNOWN, names.classify("com/shop/web/util/Strings"));
+            assertEquals(Layer.DATA, names.classify("com/shop/web/CartRepository"));
+            assertEquals(Layer.DOMAIN, names.classify("com/shop/core/Pricing"));
+            assertEquals(Layer.DATA, names.classify("com/shop/store/sql/Rows"));
+            assertEquals(Layer.DOMAIN, names.classify("com/shop/api/OrderFacade"));
+            // a prefix only matches whole name parts; the keywords still apply
+            assertEquals(Layer.UNKNOWN, names.classify("com/shop/webhooks/Sender"));
+            assertEquals(Layer.DOMAIN, names.classify("com/shop/webhooks/SendManager"));
+            assertEquals(Layer.UNKNOWN, names.classify("com/shop/api/sub/OrderFacade"));
+        }
+        assertEquals(Layer.DATA, rules.classify("com/shop/web/CartRepository"));
+    }
+
+    @Test
+    @DisplayName("A rule that cannot be read names its line")
+    public void testRejectsBadRules() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> LayerRules.parse(List.of("data package com.shop.store", "", "web package com.shop.web")));
+        assertTrue(e.getMessage().startsWith("line 3: unknown layer 'web'"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> LayerRules.parse(List.of("data package com.*")));
+        assertThrows(IllegalArgumentException.class, () -> LayerRules.parse(List.of("data glob com.a**")));
+        assertThrows(IllegalArgumentException.class, () -> LayerRules.parse(List.of("data suffix")));
+    }
+
+    @Test
+    @DisplayName("The check places classes by its rules")
+    public void testCheckUsesRules() throws IOException {
+        ClassNode classNode = new ClassNode();
+        new ClassReader("threeelayerpatterntexamples.presentation.GoodController").accept(classNode, ClassReader.SKIP_DEBUG);
+        assertEquals(0, new ThreeLayerPatternCheck().execute(classNode).size());
+
+        LayerRules rules = LayerRules.parse(List.of("data package threeelayerpatterntexamples.domain"));
+        List<LintResult> results = new ThreeLayerPatternCheck(rules).execute(classNode);
+        assertFalse(results.isEmpty());
+        assertTrue(results.get(0).getMessage().startsWith("Presentation layer class references Data layer class directly"));
+    }
+}
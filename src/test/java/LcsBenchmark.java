@@ -0,0 +1,86 @@
+import Domain.Interfaces.ILcsKernel;
+import Domain.Similarity.BitParallelLcs;
+import Domain.Similarity.DynamicProgrammingLcs;
+import Domain.Similarity.SimilarityPruning;
+
+import java.util.Random;
+
+/**
+ * Compares the LCS kernels on opcode-like sequences of typical method sizes, computing
+ * the full length and, banded, only what the 80% similarity threshold needs.
+ * Run with: java -cp <classes> LcsBenchmark
+ */
+public class LcsBenchmark {
+
+    private static final int[] LENGTHS = {20, 60, 200, 1000, 3000, 10000};
+    private static final int ROUNDS = 7;
+    private static final double THRESHOLD = 0.8;
+
+    public static void main(String[] args) {
+        ILcsKernel dp = new DynamicProgrammingLcs();
+        ILcsKernel bitParallel = new BitParallelLcs();
+        Random random = new Random(1);
+
+        System.out.printf("%8s %14s %14s %14s %14s %8s%n",
+                "Length", "DP ns/pair", "DP banded", "Bits ns/pair", "Bits banded", "Speedup");
+        for (int length : LENGTHS) {
+            int pairs = Math.max(5, 20_000_000 / (length * length));
+            int[][] a = new int[pairs][];
+            int[][] b = new int[pairs][];
+            for (int p = 0; p < pairs; p++) {
+                a[p] = opcodes(random, length);
+                b[p] = mutate(random, a[p]);
+            }
+
+            // best of several rounds; the first ones also warm up the JIT
+            double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+            for (int round = 0; round < ROUNDS; round++) {
+                best[0] = Math.min(best[0], measure(dp, a, b, false));
+                best[1] = Math.min(best[1], measure(dp, a, b, true));
+                best[2] = Math.min(best[2], measure(bitParallel, a, b, false));
+                best[3] = Math.min(best[3], measure(bitParallel, a, b, true));
+            }
+            System.out.printf("%8d %14.0f %14.0f %14.0f %14.0f %7.1fx%n",
+                    length, best[0], best[1], best[2], best[3], best[0] / best[3]);
+        }
+    }
+
+    private static double measure(ILcsKernel kernel, int[][] a, int[][] b, boolean banded) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int p = 0; p < a.length; p++) {
+            if (banded) {
+                int minLength = SimilarityPruning.minLcsLength(THRESHOLD, Math.max(a[p].length, b[p].length));
+                checksum += kernel.lcsLengthAtLeast(a[p], b[p], minLength);
+            } else {
+                checksum += kernel.lcsLength(a[p], b[p]);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum < 0) {
+            System.out.println(checksum);
+        }
+        return (double) elapsed / a.length;
+    }
+
+    // a skewed alphabet like real bytecode: loads, stores and invokes dominate
+    private static int[] opcodes(Random random, int length) {
+        int[] common = {25, 42, 43, 180, 181, 182, 183, 184, 185, 187, 89, 21, 54, 153, 167, 172, 176, 177};
+        int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = random.nextInt(4) == 0 ? random.nextInt(200) : common[random.nextInt(common.length)];
+        }
+        return sequence;
+    }
+
+    // a near-duplicate: about one opcode in ten replaced
+    private static int[] mutate(Random random, int[] sequence) {
+        int[] copy = sequence.clone();
+        for (int i = 0; i < copy.length; i++) {
+            if (random.nextInt(10) == 0) {
+                copy[i] = random.nextInt(200);
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,89 @@
+import Domain.Interfaces.ILcsKernel;
+import Domain.Similarity.BitParallelLcs;
+import Domain.Similarity.DynamicProgrammingLcs;
+import Domain.Similarity.OpcodeHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LcsKernelTests {
+
+    private final ILcsKernel dp = new DynamicProgrammingLcs();
+    private final ILcsKernel bitParallel = new BitParallelLcs();
+
+    @Test
+    @DisplayName("The bit-parallel kernel gives exactly the dynamic program's lengths")
+    public void testKernelsAgree() {
+        Random random = new Random(42);
+        // lengths around the 64-bit word boundaries, and small alphabets so there are many matches
+        int[] lengths = {0, 1, 5, 63, 64, 65, 127, 128, 129, 300};
+        for (int m : lengths) {
+            for (int n : lengths) {
+                for (int alphabet : new int[] {2, 8, 200}) {
+                    int[] a = randomSequence(random, m, alphabet);
+                    int[] b = randomSequence(random, n, alphabet);
+                    assertEquals(dp.lcsLength(a, b), bitParallel.lcsLength(a, b),
+                            "m=" + m + " n=" + n + " alphabet=" + alphabet);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The banded kernels are exact above the minimum length and stay below it otherwise")
+    public void testBandedKernels() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 500; trial++) {
+            int[] a = randomSequence(random, random.nextInt(300), 6);
+            int[] b = a.clone();
+            for (int i = 0; i < b.length; i++) {
+                if (random.nextInt(6) == 0) {
+                    b[i] = random.nextInt(6);
+                }
+            }
+            int exact = dp.lcsLength(a, b);
+            int minLength = random.nextInt(a.length + 2);
+            for (ILcsKernel kernel : new ILcsKernel[] {dp, bitParallel}) {
+                int banded = kernel.lcsLengthAtLeast(a, b, minLength);
+                if (exact >= minLength) {
+                    assertEquals(exact, banded);
+                } else {
+                    assertTrue(banded < minLength);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Identical and disjoint sequences give the full and zero length")
+    public void testEdgeCases() {
+        int[] a = {1, 2, 3, 4, 5};
+        assertEquals(5, bitParallel.lcsLength(a, a.clone()));
+        assertEquals(0, bitParallel.lcsLength(a, new int[] {6, 7, 8}));
+        assertEquals(0, bitParallel.lcsLength(a, new int[0]));
+    }
+
+    @Test
+    @DisplayName("The histogram intersection is an upper bound on the LCS")
+    public void testHistogramBound() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] a = randomSequence(random, random.nextInt(100), 12);
+            int[] b = randomSequence(random, random.nextInt(100), 12);
+            int bound = OpcodeHistogram.of(a).intersection(OpcodeHistogram.of(b));
+            assertTrue(dp.lcsLength(a, b) <= bound);
+            assertTrue(bound <= Math.min(a.length, b.length));
+        }
+    }
+
+    private static int[] randomSequence(Random random, int length, int alphabet) {
+        int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = random.nextInt(alphabet);
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,102 @@
+import Domain.Category;
+import Domain.LintResult;
+import Domain.Sink.CollectingSink;
+import Domain.Sink.CountingSink;
+import Domain.Sink.FilteringSink;
+import Domain.Sink.WriterSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LintResultSinkTests {
+
+    private static final LintResult CAMEL = new LintResult("CamelCase", Category.STYLE, "a.B", "bad name");
+    private static final LintResult CAMEL_AGAIN = new LintResult("CamelCase", Category.STYLE, "a.C", "bad name");
+    private static final LintResult DECORATOR = new LintResult("Decorator", Category.PATTERN, "a.D", "no delegation");
+
+    @Test
+    @DisplayName("CollectingSink keeps results in arrival order, in the list it was given")
+    public void testCollectingSink() {
+        List<LintResult> target = new ArrayList<>();
+        CollectingSink sink = new CollectingSink(target);
+        sink.accept(DECORATOR);
+        sink.accept(CAMEL);
+
+        assertSame(target, sink.getResults());
+        assertEquals(List.of(DECORATOR, CAMEL), target);
+        assertTrue(new CollectingSink().getResults().isEmpty());
+    }
+
+    @Test
+    @DisplayName("CountingSink counts by check and category in order of first appearance")
+    public void testCountingSink() {
+        CountingSink sink = new CountingSink();
+        assertEquals(0, sink.getTotal());
+        sink.accept(CAMEL);
+        sink.accept(DECORATOR);
+        sink.accept(CAMEL_AGAIN);
+
+        assertEquals(3, sink.getTotal());
+        assertEquals(2, sink.getCount("CamelCase"));
+        assertEquals(1, sink.getCount("Decorator"));
+        assertEquals(0, sink.getCount("Missing"));
+        assertEquals(2, sink.getCount(Category.STYLE));
+        assertEquals(1, sink.getCount(Category.PATTERN));
+        assertEquals(0, sink.getCount(Category.PRINCIPLE));
+        assertEquals(List.of("CamelCase", "Decorator"), new ArrayList<>(sink.getCountsByCheck().keySet()));
+        assertEquals(Map.of("CamelCase", 2, "Decorator", 1), sink.getCountsByCheck());
+    }
+
+    @Test
+    @DisplayName("FilteringSink passes on only the matching results, in order")
+    public void testFilteringSink() {
+        CollectingSink downstream = new CollectingSink();
+        FilteringSink sink = new FilteringSink(r -> r.getCategory() == Category.STYLE, downstream);
+        sink.accept(CAMEL);
+        sink.accept(DECORATOR);
+        sink.accept(CAMEL_AGAIN);
+
+        assertEquals(List.of(CAMEL, CAMEL_AGAIN), downstream.getResults());
+    }
+
+    @Test
+    @DisplayName("WriterSink writes one line per result as it arrives")
+    public void testWriterSink() {
+        StringBuilder out = new StringBuilder();
+        WriterSink sink = new WriterSink(out);
+        sink.accept(CAMEL);
+        assertEquals(CAMEL + System.lineSeparator(), out.toString());
+        sink.accept(DECORATOR);
+        assertEquals(CAMEL + System.lineSeparator() + DECORATOR + System.lineSeparator(), out.toString());
+    }
+
+    @Test
+    @DisplayName("WriterSink reports a failing writer as an unchecked exception")
+    public void testWriterSinkFailure() {
+        Appendable broken = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> new WriterSink(broken).accept(CAMEL));
+        assertEquals("disk full", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,153 @@
+import Domain.AnalysisContext;
+import Domain.ClassHierarchyIndex;
+import Domain.Interfaces.ICheck;
+import Domain.LintResult;
+import Domain.Linter;
+import Domain.ParallelCheckExecutor;
+import Domain.ParseRequirement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FrameNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinterParallelTests {
+
+    private static final String[] CLASSES = {
+            "decoratorExamples.GoodDecorator",
+            "decoratorExamples.BadDecoratorUnusedField",
+            "decoratorExamples.BadDecoratorNoDelegation",
+            "redundantInterfaceExamples.RI_RedundantInterfaces",
+            "hashCodeExamples.InvalidOnlyEquals",
+            "hollywoodExamples.HP_ImplCallsManager",
+            "GlobalVariableExamples.MixedGlobalVariables",
+            "threeelayerpatterntexamples.domain.DomainService"
+    };
+
+    @Test
+    @DisplayName("Parallel run gives the same results in the same order as the serial run")
+    public void testParallelMatchesSerial() throws IOException {
+        Linter serial = new Linter(CLASSES);
+        Linter parallel = new Linter(CLASSES);
+        parallel.setParallelism(4);
+
+        List<String> expected = describe(serial.getLintResults());
+        List<String> actual = describe(parallel.getLintResults());
+
+        assertFalse(expected.isEmpty(), "Example classes should produce some results");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Running the same checks again gives the same results, not more")
+    public void testRepeatedRunsDoNotAccumulate() throws IOException {
+        Linter linter = new Linter(CLASSES);
+        linter.setParallelism(4);
+
+        List<LintResult> first = new ArrayList<>();
+        linter.runChecks(first::add);
+        List<LintResult> second = new ArrayList<>();
+        linter.runChecks(second::add);
+
+        assertEquals(describe(first), describe(second));
+    }
+
+    @Test
+    @DisplayName("Parallelism below 1 is rejected")
+    public void testRejectsInvalidParallelism() throws IOException {
+        Linter linter = new Linter(CLASSES);
+        assertThrows(IllegalArgumentException.class, () -> linter.setParallelism(0));
+    }
+
+    @Test
+    @DisplayName("A check that does not say it is thread safe sees its classes on one thread, in order")
+    public void testChecksAreSerialUnlessThreadSafe() throws IOException {
+        List<ClassNode> classNodes = new ArrayList<>();
+        for (String className : CLASSES) {
+            ClassNode classNode = new ClassNode();
+            new ClassReader(className).accept(classNode, ClassReader.SKIP_CODE);
+            classNodes.add(classNode);
+        }
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        ICheck recording = new ICheck() {
+            @Override
+            public List<LintResult> execute(ClassNode classNode) {
+                seen.add(classNode.name);
+                threads.add(Thread.currentThread());
+                return List.of();
+            }
+
+            @Override
+            public String getName() {
+                return "Recording";
+            }
+        };
+        assertFalse(recording.isThreadSafe());
+
+        AnalysisContext context = new AnalysisContext(ClassHierarchyIndex.getDefault(), classNodes);
+        new ParallelCheckExecutor(4).execute(List.of(recording), context);
+
+        List<String> expected = new ArrayList<>();
+        for (ClassNode classNode : classNodes) {
+            expected.add(classNode.name);
+        }
+        assertEquals(expected, seen);
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    @DisplayName("A check added later that needs more than the first run parsed sees the classes parsed again")
+    public void testAddedCheckGetsWhatItNeeds() throws IOException {
+        Linter linter = new Linter(CLASSES);
+        assertFalse(linter.getLintResults().isEmpty());
+
+        List<String> withFrames = new ArrayList<>();
+        ICheck frames = new ICheck() {
+            @Override
+            public List<LintResult> execute(ClassNode classNode) {
+                for (MethodNode method : classNode.methods) {
+                    for (AbstractInsnNode insn : method.instructions) {
+                        if (insn instanceof FrameNode) {
+                            withFrames.add(classNode.name);
+                            return List.of();
+                        }
+                    }
+                }
+                return List.of();
+            }
+
+            @Override
+            public String getName() {
+                return "Frames";
+            }
+
+            @Override
+            public Set<ParseRequirement> getParseRequirements() {
+                return ParseRequirement.of(ParseRequirement.CODE, ParseRequirement.FRAMES);
+            }
+        };
+        linter.addChecks(List.of(frames));
+
+        assertFalse(withFrames.isEmpty(), "The first run skips frames, so the classes should have been parsed again");
+    }
+
+    private List<String> describe(List<LintResult> results) {
+        List<String> out = new ArrayList<>();
+        for (LintResult result : results) {
+            out.add(result.toString());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,65 @@
+import Domain.Similarity.MinHashLsh;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashLshTests {
+
+    @Test
+    @DisplayName("Copies always become candidates, unrelated sequences rarely do")
+    public void testCandidates() {
+        Random random = new Random(7);
+        List<int[]> sequences = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sequences.add(randomSequence(random, 40));
+        }
+        // 100 and 101 copy 3 and 50
+        sequences.add(sequences.get(3).clone());
+        sequences.add(sequences.get(50).clone());
+
+        long[] pairs = new MinHashLsh(32, 2).candidatePairs(sequences);
+
+        assertTrue(Arrays.binarySearch(pairs, 3L << 32 | 100) >= 0);
+        assertTrue(Arrays.binarySearch(pairs, 50L << 32 | 101) >= 0);
+        assertTrue(pairs.length < 101 * 102 / 2 / 10, "Should prune most of the " + 101 * 102 / 2 + " pairs");
+        for (int p = 1; p < pairs.length; p++) {
+            assertTrue(pairs[p - 1] < pairs[p], "Pairs should be sorted and distinct");
+        }
+    }
+
+    @Test
+    @DisplayName("A large family of identical sequences gives every pair once")
+    public void testIdenticalFamily() {
+        Random random = new Random(11);
+        int[] method = randomSequence(random, 60);
+        List<int[]> sequences = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            sequences.add(method.clone());
+        }
+        sequences.add(randomSequence(random, 60));
+
+        long[] pairs = new MinHashLsh(32, 2).candidatePairs(sequences);
+
+        // every band puts the 600 copies in one bucket; the pairs still come out once each
+        assertEquals(600 * 599 / 2, pairs.length);
+        assertEquals(1L, pairs[0]);
+        assertEquals(598L << 32 | 599, pairs[pairs.length - 1]);
+        for (int p = 1; p < pairs.length; p++) {
+            assertTrue(pairs[p - 1] < pairs[p], "Pairs should be sorted and distinct");
+        }
+    }
+
+    private static int[] randomSequence(Random random, int length) {
+        int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = random.nextInt(200);
+        }
+        return sequence;
+    }
+}
@@ -1,3 +1,4 @@
+import Domain.AnalysisContext;
 import Domain.LintResult;
 import Domain.PatternCheck.RedundantInterfaceCheck;
 import Domain.PatternCheck.ThreeLayerPatternCheck;
@@ -10,6 +11,7 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -215,5 +217,31 @@ public class PatternViolationTests {
         List<LintResult> results = checker.execute(classNode);
         assertEquals(0, results.size(), "Presentation referencing Domain should NOT be flagged");
     }
-}
 
+    @Test
+    @DisplayName("[ThreeLayer] A class outside the run is judged against the run's classes")
+    public void testClassOutsideRun() throws IOException {
+        ThreeLayerPatternCheck checker = new ThreeLayerPatternCheck();
+        ClassNode controller = read("threeelayerpatterntexamples.presentation.PresentationController");
+        ClassNode repository = read("threeelayerpatterntexamples.persistence.DataRepository");
+
+        AnalysisContext inRun = new AnalysisContext(List.of(controller, repository));
+        checker.beginProject(inRun);
+        List<LintResult> expected = new ArrayList<>();
+        checker.execute(controller, inRun, expected::add);
+
+        AnalysisContext outside = new AnalysisContext(List.of(repository));
+        checker.beginProject(outside);
+        List<LintResult> actual = new ArrayList<>();
+        checker.execute(controller, outside, actual::add);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private ClassNode read(String className) throws IOException {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(className).accept(classNode, 0);
+        return classNode;
+    }
+}
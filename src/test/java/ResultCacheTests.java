@@ -0,0 +1,176 @@
+import Domain.AnalysisContext;
+import Domain.Cache.CachedRun;
+import Domain.Cache.ResultCache;
+import Domain.Category;
+import Domain.Interfaces.ICheck;
+import Domain.Interfaces.IProjectCheck;
+import Domain.Interfaces.ISummaryStore;
+import Domain.LintResult;
+import Domain.Linter;
+import Domain.ParseRequirement;
+import Domain.PatternCheck.ThreeLayerPatternCheck;
+import Domain.PrincipleCheck.CrossClassDuplicationCheck;
+import Domain.Source.ClassNameSource;
+import Domain.StyleCheck.CamelCaseCheck;
+import Domain.StyleCheck.GlobalVariableCheck;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTests {
+
+    private static final String[] CLASSES = {
+            "decoratorExamples.BadDecoratorUnusedField",
+            "hashCodeExamples.InvalidOnlyEquals",
+            "hollywoodExamples.HP_ImplCallsManager",
+            "GlobalVariableExamples.MixedGlobalVariables"
+    };
+
+    @Test
+    @DisplayName("Cold and warm cached runs give the same results as an uncached run")
+    public void testCachedRunsMatchUncached(@TempDir Path dir) throws IOException {
+        List<String> expected = describe(new Linter(CLASSES).getLintResults());
+
+        ResultCache cache = new ResultCache(dir);
+        List<String> cold = describe(new Linter(new ClassNameSource(CLASSES), cache).getLintResults());
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertTrue(files.anyMatch(p -> p.toString().endsWith(".results")), "Cold run should fill the cache");
+        }
+        List<String> warm = describe(new Linter(new ClassNameSource(CLASSES), cache).getLintResults());
+
+        assertEquals(expected, cold);
+        assertEquals(expected, warm);
+    }
+
+    @Test
+    @DisplayName("Every check identity carries the hash of the linter build")
+    public void testIdentityIncludesBuild(@TempDir Path dir) {
+        ResultCache cache = new ResultCache(dir);
+        String camelCase = cache.identityOf(new CamelCaseCheck());
+        String globals = cache.identityOf(new GlobalVariableCheck());
+
+        String build = camelCase.substring(camelCase.lastIndexOf('@') + 1);
+        assertFalse(build.isEmpty());
+        assertTrue(globals.endsWith("@" + build));
+        assertNotEquals(camelCase, globals);
+        assertEquals(camelCase, new ResultCache(dir).identityOf(new CamelCaseCheck()));
+    }
+
+    @Test
+    @DisplayName("Results of any length are stored and read back")
+    public void testLongMessages(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir);
+        String message = "x\u00e9".repeat(50_000);
+        LintResult result = new LintResult("Long", Category.STYLE, null, message);
+        cache.store("ab12", Map.of("Long@1", List.of(result)));
+
+        List<LintResult> loaded = cache.load("ab12").get("Long@1");
+        assertEquals(1, loaded.size());
+        assertEquals(message, loaded.get(0).getMessage());
+        assertNull(loaded.get(0).getLocation());
+    }
+
+    @Test
+    @DisplayName("With summaries cached, project checks need no class parsed and report the same")
+    public void testSummariesAvoidParsing(@TempDir Path dir) throws IOException {
+        String[] classes = {
+                "CrossClassDuplicationCheckTests$OrderReport",
+                "CrossClassDuplicationCheckTests$InvoiceReport",
+                "threeelayerpatterntexamples.presentation.PresentationController",
+                "threeelayerpatterntexamples.persistence.DataRepository"
+        };
+        List<byte[]> classBytes = new ArrayList<>();
+        try (ClassNameSource source = new ClassNameSource(classes)) {
+            for (String entry : source.getEntries()) {
+                classBytes.add(source.read(entry));
+            }
+        }
+        List<ICheck> checks = List.of(new ThreeLayerPatternCheck(), new CrossClassDuplicationCheck(),
+                new CamelCaseCheck());
+        ResultCache cache = new ResultCache(dir);
+
+        int[] parsed = new int[1];
+        List<String> cold = runCached(cache, checks, classBytes, parsed);
+        assertEquals(classes.length, parsed[0]);
+        assertTrue(cold.stream().anyMatch(r -> r.contains("CrossClassDuplication")), cold.toString());
+        assertTrue(cold.stream().anyMatch(r -> r.contains("ThreeLayerPattern")), cold.toString());
+
+        parsed[0] = 0;
+        List<String> warm = runCached(cache, checks, classBytes, parsed);
+        assertEquals(0, parsed[0]);
+        assertEquals(cold, warm);
+    }
+
+    @Test
+    @DisplayName("A cached run with cross-class duplication on gives the same results as an uncached run")
+    public void testCachedCrossClassMatchesUncached(@TempDir Path dir) throws IOException {
+        String[] classes = {"CrossClassDuplicationCheckTests$OrderReport", "CrossClassDuplicationCheckTests$InvoiceReport"};
+        Linter uncached = new Linter(classes);
+        uncached.setCrossClassDuplicationEnabled(true);
+        List<String> expected = describe(uncached.getLintResults());
+
+        ResultCache cache = new ResultCache(dir);
+        for (int run = 0; run < 2; run++) {
+            Linter linter = new Linter(new ClassNameSource(classes), cache);
+            linter.setCrossClassDuplicationEnabled(true);
+            assertEquals(expected, describe(linter.getLintResults()));
+        }
+    }
+
+    /**
+     * Runs the checks over the classes the way a cached Linter run does, counting the
+     * classes it has to parse.
+     */
+    private List<String> runCached(ResultCache cache, List<ICheck> checks, List<byte[]> classBytes, int[] parsed) {
+        CachedRun run = new CachedRun(cache, checks, classBytes);
+        List<ClassNode> classNodes = new ArrayList<>();
+        for (int i = 0; i < classBytes.size(); i++) {
+            ClassNode classNode = new ClassNode();
+            ClassReader reader = new ClassReader(classBytes.get(i));
+            List<ICheck> toRun = run.getChecksToRun(i);
+            if (toRun.isEmpty()) {
+                classNode.name = reader.getClassName();
+            } else {
+                reader.accept(classNode, ParseRequirement.toReaderFlags(toRun));
+                parsed[0]++;
+            }
+            run.bind(i, classNode);
+            classNodes.add(classNode);
+        }
+        AnalysisContext context = new AnalysisContext(classNodes);
+        context.put(ISummaryStore.KEY, run);
+        List<LintResult> results = new ArrayList<>();
+        for (ICheck check : checks) {
+            if (check instanceof IProjectCheck) {
+                ((IProjectCheck) check).beginProject(context);
+            }
+        }
+        for (ClassNode classNode : classNodes) {
+            for (ICheck check : run.getChecks()) {
+                check.execute(classNode, context, results::add);
+            }
+        }
+        run.save();
+        return describe(results);
+    }
+
+    private List<String> describe(List<LintResult> results) {
+        List<String> out = new ArrayList<>();
+        for (LintResult result : results) {
+            out.add(result.toString());
+        }
+        return out;
+    }
+}
@@ -146,6 +146,24 @@ public class StyleViolationTests {
             "Results should mention swallowed or exception");
     }
 
+    /**
+     * Test that SwallowedExceptionCheck reports the catch line, however the class was parsed.
+     */
+    @Test
+    @DisplayName("SwallowedExceptionCheck - Reports the line of the catch block with or without frames")
+    public void testSwallowedExceptionLine() throws IOException {
+        ClassReader reader = new ClassReader("SwallowedExceptionsExamples.BadSwallowedExceptionInCatch");
+        ClassNode expanded = new ClassNode();
+        reader.accept(expanded, ClassReader.EXPAND_FRAMES);
+        ClassNode skipped = new ClassNode();
+        reader.accept(skipped, ClassReader.SKIP_FRAMES);
+
+        List<LintResult> results = swallowedExceptionChecker.execute(expanded);
+        assertTrue(results.get(0).getLocation().endsWith("readFileWithSwallowedException at line 15"),
+            results.get(0).getLocation());
+        assertEquals(results.toString(), swallowedExceptionChecker.execute(skipped).toString());
+    }
+
     /**
      * Test that SwallowedExceptionCheck detects multiple swallowed exceptions.
      */
@@ -0,0 +1,65 @@
+import Domain.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolTableTests {
+
+    @Test
+    @DisplayName("A name is interned once, with its dotted and simple forms")
+    public void testInternsNames() {
+        SymbolTable symbols = new SymbolTable();
+        int list = symbols.intern("java/util/List");
+        assertEquals(list, symbols.intern(new String("java/util/List")));
+        assertEquals("java/util/List", symbols.getName(list));
+        assertEquals("java.util.List", symbols.getDottedName(list));
+        assertEquals("List", symbols.getSimpleName(list));
+
+        // the simple name is a symbol of its own, shared by classes of other packages
+        int awtList = symbols.intern("java/awt/List");
+        assertNotEquals(list, awtList);
+        assertEquals(symbols.getSimpleNameId(list), symbols.getSimpleNameId(awtList));
+        assertEquals(symbols.find("List"), symbols.getSimpleNameId(list));
+        assertEquals(symbols.getSimpleNameId(list), symbols.getSimpleNameId(symbols.getSimpleNameId(list)));
+
+        assertEquals(-1, symbols.find("java/util/Map"));
+        assertEquals(3, symbols.size());
+    }
+
+    @Test
+    @DisplayName("Threads interning the same names get the same IDs")
+    public void testConcurrentInterning() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    int[] ids = new int[3000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = symbols.intern("p" + (i % 7) + "/C" + i);
+                    }
+                    return ids;
+                }));
+            }
+            int[] first = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                assertArrayEquals(first, future.get());
+            }
+            for (int i = 0; i < first.length; i++) {
+                assertEquals("C" + i, symbols.getSimpleName(first[i]));
+                assertEquals("p" + (i % 7) + ".C" + i, symbols.getDottedName(first[i]));
+            }
+            assertEquals(6000, symbols.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}